@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Unregistration of buttons in document order, as done when a page is detached: the whole group,
+ * or the first half of it followed by a key navigation lookup in the remaining half. The score is
+ * per detach.
+ */
+
+public class DetachBenchmark {
+
+    @State(Scope.Thread)
+    public static class RegisteredGroup {
+
+        FakeRadioGroup group;
+
+        @Setup(Level.Invocation)
+        public void setup(GroupState state) {
+            group = new FakeRadioGroup();
+            for (FakeRadioButton radioButton : state.radioButtons) {
+                group.addNestedRadioButton(radioButton);
+            }
+            group.initCheckedId(state.ids[state.size - 1]);
+        }
+    }
+
+    @Benchmark
+    public int detachAll(GroupState state, RegisteredGroup registeredGroup) {
+        FakeRadioGroup group = registeredGroup.group;
+        for (FakeRadioButton radioButton : state.radioButtons) {
+            group.removeNestedRadioButton(radioButton);
+        }
+        return group.getNestedRadioButtonCount();
+    }
+
+    @Benchmark
+    public int detachHalfThenNavigate(GroupState state, RegisteredGroup registeredGroup) {
+        FakeRadioGroup group = registeredGroup.group;
+        for (int i = 0, half = state.size / 2; i < half; i++) {
+            group.removeNestedRadioButton(state.radioButtons[i]);
+        }
+        return group.getCheckedPosition();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+/**
+ * Lightweight stand-in for NestedRadioButton: holds an id and a checked state, and notifies its
+ * listener on state change like CompoundButton does.
+ */
+
+class FakeRadioButton {
+
+    interface OnCheckedChangeListener {
+        void onCheckedChanged(FakeRadioButton button, boolean isChecked);
+    }
+
+    private final int id;
+    private boolean checked;
+    private OnCheckedChangeListener onCheckedChangeListener;
+
+    FakeRadioButton(int id) {
+        this.id = id;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    boolean isChecked() {
+        return checked;
+    }
+
+    void setChecked(boolean checked) {
+        if (this.checked != checked) {
+            this.checked = checked;
+            if (onCheckedChangeListener != null) {
+                onCheckedChangeListener.onCheckedChanged(this, checked);
+            }
+        }
+    }
+
+    void setOnCheckedChangeListener(OnCheckedChangeListener listener) {
+        onCheckedChangeListener = listener;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import com.jbvincey.nestedradiobutton.core.OrderedIdIndex;
+import com.jbvincey.nestedradiobutton.core.SelectionEngine;
+import com.jbvincey.nestedradiobutton.core.WeakIdTable;
+
+/**
+ * Binds the core {@link SelectionEngine} to {@link FakeRadioButton}s, the way
+ * NestedRadioGroupManager binds it to views. It holds no selection logic of its own: checks,
+ * batches and the snapshot published on each change run the production code of the core
+ * module. The work tied to Android (metrics, named scopes, autofill notification) is not
+ * measured.
+ */
+
+class FakeRadioGroup extends SelectionEngine {
+
+    interface OnCheckedChangeListener {
+        void onCheckedChanged(FakeRadioGroup group, int checkedId);
+    }
+
+    private final WeakIdTable<FakeRadioButton> radioButtons = new WeakIdTable<>();
+    private final OrderedIdIndex radioButtonIndex = new OrderedIdIndex();
+    private final FakeRadioButton.OnCheckedChangeListener childOnCheckedChangeListener = new CheckedStateTracker();
+    private OnCheckedChangeListener onCheckedChangeListener;
+
+    void addNestedRadioButton(FakeRadioButton radioButton) {
+        radioButtons.put(radioButton.getId(), radioButton);
+        radioButtonIndex.add(radioButton.getId());
+        onButtonRegistered(radioButton.getId());
+        radioButton.setOnCheckedChangeListener(childOnCheckedChangeListener);
+    }
+
+    void removeNestedRadioButton(FakeRadioButton radioButton) {
+        radioButtons.remove(radioButton.getId());
+        radioButtonIndex.remove(radioButton.getId());
+        radioButton.setOnCheckedChangeListener(null);
+    }
+
+    /**
+     * @return the position of the checked button, as looked up by key navigation
+     */
+    int getCheckedPosition() {
+        return radioButtonIndex.indexOf(getCheckedId());
+    }
+
+    void setOnCheckedChangeListener(OnCheckedChangeListener listener) {
+        onCheckedChangeListener = listener;
+    }
+
+    int getNestedRadioButtonCount() {
+        return radioButtons.size();
+    }
+
+    @Override
+    protected void setCheckedId(int id) {
+        super.setCheckedId(id);
+        if (onCheckedChangeListener != null) {
+            onCheckedChangeListener.onCheckedChanged(this, id);
+        }
+    }
+
+    @Override
+    protected void setCheckedState(int id, boolean checked) {
+        FakeRadioButton radioButton = radioButtons.get(id);
+        if (radioButton != null) {
+            radioButton.setChecked(checked);
+        }
+    }
+
+    private class CheckedStateTracker implements FakeRadioButton.OnCheckedChangeListener {
+        @Override
+        public void onCheckedChanged(FakeRadioButton button, boolean isChecked) {
+            onButtonChecked(button.getId());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Same storage strategy as android.util.SparseArray (sorted keys, binary search and array
+ * shifting inserts), the former registry of NestedRadioGroupManager, compared to
+ * {@link com.jbvincey.nestedradiobutton.core.WeakIdTable} in {@link RegistryBenchmark}.
+ */
+
+class FakeSparseArray<E> {
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    FakeSparseArray() {
+        keys = new int[10];
+        values = new Object[10];
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int key) {
+        int i = Arrays.binarySearch(keys, 0, size, key);
+        return i < 0 ? null : (E) values[i];
+    }
+
+    void put(int key, E value) {
+        int i = Arrays.binarySearch(keys, 0, size, key);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        i = ~i;
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(values, i, values, i + 1, size - i);
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    void remove(int key) {
+        int i = Arrays.binarySearch(keys, 0, size, key);
+        if (i >= 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            values[size] = null;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * A group of fake radio buttons, all registered. Ids are shuffled like the ids of inflated
+ * layouts, which are not registered in ascending order.
+ */
+
+@State(Scope.Benchmark)
+public class GroupState {
+
+    private static final int FIRST_ID = 0x7f0a0000;
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    int[] ids;
+    FakeRadioButton[] radioButtons;
+    FakeRadioGroup group;
+    int dispatchCount;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = FIRST_ID + i;
+        }
+        Random random = new Random(42);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+
+        radioButtons = new FakeRadioButton[size];
+        group = new FakeRadioGroup();
+        group.setOnCheckedChangeListener(new FakeRadioGroup.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(FakeRadioGroup group, int checkedId) {
+                dispatchCount++;
+            }
+        });
+        for (int i = 0; i < size; i++) {
+            radioButtons[i] = new FakeRadioButton(ids[i]);
+            group.addNestedRadioButton(radioButtons[i]);
+        }
+    }
+
+    /**
+     * @return the next button index, cycling through the whole group
+     */
+    int next() {
+        int index = cursor;
+        cursor = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Registration of every button of a group in a new manager, as done when a layout is attached.
+ * The score is per whole group.
+ */
+
+public class RegistrationBenchmark {
+
+    @Benchmark
+    public int addNestedRadioButtons(GroupState state) {
+        FakeRadioGroup group = new FakeRadioGroup();
+        group.initCheckedId(state.ids[0]);
+        for (FakeRadioButton radioButton : state.radioButtons) {
+            group.addNestedRadioButton(radioButton);
+        }
+        return group.getNestedRadioButtonCount();
+    }
+}
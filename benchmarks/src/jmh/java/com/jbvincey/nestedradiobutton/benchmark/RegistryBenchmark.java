@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import com.jbvincey.nestedradiobutton.core.WeakIdTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Button registry of a group: the former SparseArray strategy against {@link WeakIdTable}.
+ * Ids are registered in the shuffled order of inflated layouts. Put scores are per whole
+ * group, get scores per lookup.
+ */
+
+public class RegistryBenchmark {
+
+    @Benchmark
+    public int sparseArrayPut(GroupState state) {
+        FakeSparseArray<FakeRadioButton> registry = new FakeSparseArray<>();
+        for (FakeRadioButton radioButton : state.radioButtons) {
+            registry.put(radioButton.getId(), radioButton);
+        }
+        return registry.size();
+    }
+
+    @Benchmark
+    public int weakIdTablePut(GroupState state) {
+        WeakIdTable<FakeRadioButton> registry = new WeakIdTable<>();
+        for (FakeRadioButton radioButton : state.radioButtons) {
+            registry.put(radioButton.getId(), radioButton);
+        }
+        return registry.size();
+    }
+
+    @Benchmark
+    public FakeRadioButton sparseArrayGet(RegistryState state) {
+        return state.sparseArray.get(state.ids[state.groupState.next()]);
+    }
+
+    @Benchmark
+    public FakeRadioButton weakIdTableGet(RegistryState state) {
+        return state.weakIdTable.get(state.ids[state.groupState.next()]);
+    }
+}
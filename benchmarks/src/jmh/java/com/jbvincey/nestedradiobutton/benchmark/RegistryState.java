@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import com.jbvincey.nestedradiobutton.core.WeakIdTable;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Both registries filled with the buttons of a {@link GroupState}.
+ */
+
+@State(Scope.Benchmark)
+public class RegistryState {
+
+    GroupState groupState;
+    int[] ids;
+    FakeSparseArray<FakeRadioButton> sparseArray;
+    WeakIdTable<FakeRadioButton> weakIdTable;
+
+    @Setup
+    public void setup(GroupState groupState) {
+        this.groupState = groupState;
+        ids = groupState.ids;
+        sparseArray = new FakeSparseArray<>();
+        weakIdTable = new WeakIdTable<>();
+        for (FakeRadioButton radioButton : groupState.radioButtons) {
+            sparseArray.put(radioButton.getId(), radioButton);
+            weakIdTable.put(radioButton.getId(), radioButton);
+        }
+    }
+}
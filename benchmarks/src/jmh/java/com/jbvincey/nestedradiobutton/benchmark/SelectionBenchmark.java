@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Selection hot paths: programmatic check, clear and user-originated check dispatched through
+ * the checked state tracker. Each change includes publishing the selection snapshot, read back
+ * like NestedRadioGroupManager#getSelection().
+ */
+
+public class SelectionBenchmark {
+
+    @Benchmark
+    public int check(GroupState state) {
+        state.group.check(state.ids[state.next()]);
+        return state.group.getSnapshot().getCheckedId();
+    }
+
+    @Benchmark
+    public int checkThenClearCheck(GroupState state) {
+        state.group.check(state.ids[state.next()]);
+        state.group.clearCheck();
+        return state.group.getSnapshot().getCheckedId();
+    }
+
+    @Benchmark
+    public int checkedStateTrackerDispatch(GroupState state) {
+        state.radioButtons[state.next()].setChecked(true);
+        return state.dispatchCount;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.compiler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Writes the Java source of the class registering the binding tables of an app in
+ * NestedRadioBindingTable. The groups sharing an id across layouts, e.g. layout qualifiers, share
+ * a single table listing the buttons of all of them: the buttons missing from an inflated layout
+ * are skipped at runtime.</p>
+ */
+
+public final class BindingTableWriter {
+
+    public static final String CLASS_NAME = "NestedRadioBindings";
+
+    private static final String INDENT = "    ";
+
+    /**
+     * @param packageName   the package of the generated class, the one of the app R class
+     * @param groupBindings the groups found in the layouts of the app
+     * @param out           where to write the source
+     * @throws IOException if the source cannot be written
+     */
+    public void write(String packageName, List<GroupBinding> groupBindings, Appendable out) throws IOException {
+        out.append("/*\n")
+                .append(" * Generated by NestedRadioBindingGenerator from the layout resources, do not edit.\n")
+                .append(" */\n\n")
+                .append("package ").append(packageName).append(";\n\n")
+                .append("import android.view.View;\n\n")
+                .append("import com.jbvincey.nestedradiobutton.NestedRadioBindingTable;\n\n")
+                .append("/**\n")
+                .append(" * Binding tables of the nested radio groups declared in the layouts of this app.\n")
+                .append(" */\n")
+                .append("public final class ").append(CLASS_NAME).append(" {\n\n")
+                .append(INDENT).append("private ").append(CLASS_NAME).append("() {\n")
+                .append(INDENT).append("}\n\n")
+                .append(INDENT).append("/**\n")
+                .append(INDENT).append(" * Registers the binding tables, to be called once before inflating the layouts,\n")
+                .append(INDENT).append(" * e.g. in Application#onCreate().\n")
+                .append(INDENT).append(" */\n")
+                .append(INDENT).append("public static void register() {\n");
+
+        for (MergedGroup group : merge(groupBindings).values()) {
+            out.append(INDENT).append(INDENT).append("// ").append(join(group.layoutNames)).append('\n')
+                    .append(INDENT).append(INDENT).append("NestedRadioBindingTable.register(")
+                    .append(idReference(group.groupIdName)).append(",\n")
+                    .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("new int[]{")
+                    .append(join(idReferences(group.clickableParentIdNames.keySet()))).append("},\n")
+                    .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("new int[]{")
+                    .append(join(idReferences(group.clickableParentIdNames.values()))).append("});\n");
+        }
+
+        out.append(INDENT).append("}\n")
+                .append("}\n");
+    }
+
+    private static Map<String, MergedGroup> merge(List<GroupBinding> groupBindings) {
+        Map<String, MergedGroup> groups = new LinkedHashMap<>();
+        for (GroupBinding groupBinding : groupBindings) {
+            MergedGroup group = groups.get(groupBinding.getGroupIdName());
+            if (group == null) {
+                group = new MergedGroup(groupBinding.getGroupIdName());
+                groups.put(group.groupIdName, group);
+            }
+            group.layoutNames.add(groupBinding.getLayoutName());
+            List<String> buttonIdNames = groupBinding.getButtonIdNames();
+            List<String> clickableParentIdNames = groupBinding.getClickableParentIdNames();
+            for (int i = 0; i < buttonIdNames.size(); i++) {
+                group.addButton(buttonIdNames.get(i), clickableParentIdNames.get(i));
+            }
+        }
+        return groups;
+    }
+
+    private static List<String> idReferences(Iterable<String> idNames) {
+        List<String> idReferences = new ArrayList<>();
+        for (String idName : idNames) {
+            idReferences.add(idName != null ? idReference(idName) : "View.NO_ID");
+        }
+        return idReferences;
+    }
+
+    private static String idReference(String idName) {
+        return "R.id." + idName;
+    }
+
+    private static String join(Iterable<String> values) {
+        StringBuilder builder = new StringBuilder();
+        for (Iterator<String> iterator = values.iterator(); iterator.hasNext(); ) {
+            builder.append(iterator.next());
+            if (iterator.hasNext()) {
+                builder.append(", ");
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class MergedGroup {
+        final String groupIdName;
+        final Set<String> layoutNames = new LinkedHashSet<>();
+        // clickable parent of each button, in order of first declaration
+        final Map<String, String> clickableParentIdNames = new LinkedHashMap<>();
+
+        MergedGroup(String groupIdName) {
+            this.groupIdName = groupIdName;
+        }
+
+        void addButton(String buttonIdName, String clickableParentIdName) {
+            if (!clickableParentIdNames.containsKey(buttonIdName)) {
+                clickableParentIdNames.put(buttonIdName, clickableParentIdName);
+            } else if (clickableParentIdName == null
+                    || !clickableParentIdName.equals(clickableParentIdNames.get(buttonIdName))) {
+                // layouts disagree, the button looks for its clickable parent at runtime
+                clickableParentIdNames.put(buttonIdName, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.compiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Radio buttons of a nested radio group declared in a layout resource, by id resource name,
+ * in document order. The clickable parent of a button is null if it has none.</p>
+ */
+
+public final class GroupBinding {
+
+    private final String layoutName;
+    private final String groupIdName;
+    private final List<String> buttonIdNames = new ArrayList<>();
+    private final List<String> clickableParentIdNames = new ArrayList<>();
+
+    public GroupBinding(String layoutName, String groupIdName) {
+        this.layoutName = layoutName;
+        this.groupIdName = groupIdName;
+    }
+
+    /**
+     * @return the name of the layout declaring the group, e.g. "activity_main"
+     */
+    public String getLayoutName() {
+        return layoutName;
+    }
+
+    /**
+     * @return the id resource name of the group, e.g. "radioGroup" for "@+id/radioGroup"
+     */
+    public String getGroupIdName() {
+        return groupIdName;
+    }
+
+    public List<String> getButtonIdNames() {
+        return Collections.unmodifiableList(buttonIdNames);
+    }
+
+    public List<String> getClickableParentIdNames() {
+        return Collections.unmodifiableList(clickableParentIdNames);
+    }
+
+    /**
+     * @param buttonIdName          the id resource name of the button
+     * @param clickableParentIdName the id resource name of its clickable parent, null if none
+     */
+    void addButton(String buttonIdName, String clickableParentIdName) {
+        buttonIdNames.add(buttonIdName);
+        clickableParentIdNames.add(clickableParentIdName);
+    }
+
+    void removeButton(String buttonIdName) {
+        int index;
+        while ((index = buttonIdNames.indexOf(buttonIdName)) >= 0) {
+            buttonIdNames.remove(index);
+            clickableParentIdNames.remove(index);
+        }
+    }
+
+    boolean isEmpty() {
+        return buttonIdNames.isEmpty();
+    }
+}
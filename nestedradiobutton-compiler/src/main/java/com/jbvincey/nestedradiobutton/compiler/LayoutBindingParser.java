@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.compiler;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * <p>Finds the radio buttons of the nested radio groups declared in a layout resource, resolving
+ * them the way buttons do at runtime: the group referenced by app:nestedRadioGroup, otherwise the
+ * closest enclosing group.</p>
+ *
+ * <p>Buttons that cannot be resolved from the layout alone are left out, they keep looking for
+ * their group when attached: buttons without id or under a group without id, buttons referenced
+ * by a NestedConstraintRadioHelper, buttons whose id is not unique in their group and buttons
+ * added through &lt;include&gt;. The clickable parent of a button is left out if its id is not
+ * unique in the layout, the button then finds it by walking up its parents.</p>
+ */
+
+public final class LayoutBindingParser {
+
+    static final String ANDROID_NAMESPACE = "http://schemas.android.com/apk/res/android";
+    private static final String PACKAGE_PREFIX = "com.jbvincey.nestedradiobutton.";
+
+    static final List<String> GROUP_CLASS_NAMES = Arrays.asList(
+            "NestedLinearRadioGroup",
+            "NestedFrameRadioGroup",
+            "NestedRelativeRadioGroup",
+            "NestedConstraintRadioGroup");
+    private static final String BUTTON_CLASS_NAME = "NestedRadioButton";
+    private static final String HELPER_CLASS_NAME = "NestedConstraintRadioHelper";
+
+    private final DocumentBuilderFactory documentBuilderFactory;
+
+    public LayoutBindingParser() {
+        documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setNamespaceAware(true);
+    }
+
+    /**
+     * @param layoutName the name of the layout resource, e.g. "activity_main"
+     * @param layout     the layout XML
+     * @return the groups of the layout having at least one radio button, in document order
+     * @throws IOException if the layout cannot be read or is not well-formed
+     */
+    public List<GroupBinding> parse(String layoutName, InputStream layout) throws IOException {
+        Element root;
+        try {
+            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            // reports errors through the thrown exception only
+            documentBuilder.setErrorHandler(new DefaultHandler());
+            Document document = documentBuilder.parse(layout);
+            root = document.getDocumentElement();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Cannot parse layout " + layoutName, e);
+        }
+
+        Map<String, GroupBinding> groups = new LinkedHashMap<>();
+        Set<String> helperReferencedIds = new HashSet<>();
+        collectGroups(layoutName, root, groups, helperReferencedIds);
+
+        Set<String> repeatedIds = new HashSet<>();
+        collectRepeatedIds(root, new HashSet<String>(), repeatedIds);
+
+        collectButtons(root, null, new ArrayDeque<String>(), groups, helperReferencedIds, repeatedIds,
+                new HashMap<GroupBinding, Set<String>>());
+
+        List<GroupBinding> groupBindings = new ArrayList<>();
+        for (GroupBinding groupBinding : groups.values()) {
+            if (!groupBinding.isEmpty()) {
+                groupBindings.add(groupBinding);
+            }
+        }
+        return groupBindings;
+    }
+
+    private void collectGroups(String layoutName, Element element, Map<String, GroupBinding> groups,
+                               Set<String> helperReferencedIds) {
+        if (isClass(element, HELPER_CLASS_NAME)) {
+            String referencedIds = getAppAttribute(element, "constraint_referenced_ids");
+            if (referencedIds != null) {
+                for (String referencedId : referencedIds.split(",")) {
+                    helperReferencedIds.add(referencedId.trim());
+                }
+            }
+        } else if (isGroup(element)) {
+            String groupIdName = getIdName(element.getAttributeNS(ANDROID_NAMESPACE, "id"));
+            if (groupIdName != null && !groups.containsKey(groupIdName)) {
+                groups.put(groupIdName, new GroupBinding(layoutName, groupIdName));
+            }
+        }
+        for (Element child : getChildElements(element)) {
+            collectGroups(layoutName, child, groups, helperReferencedIds);
+        }
+    }
+
+    private void collectRepeatedIds(Element element, Set<String> ids, Set<String> repeatedIds) {
+        String idName = getIdName(element.getAttributeNS(ANDROID_NAMESPACE, "id"));
+        if (idName != null && !ids.add(idName)) {
+            repeatedIds.add(idName);
+        }
+        for (Element child : getChildElements(element)) {
+            collectRepeatedIds(child, ids, repeatedIds);
+        }
+    }
+
+    private void collectButtons(Element element, GroupBinding enclosingGroup, Deque<String> ancestorIdNames,
+                                Map<String, GroupBinding> groups, Set<String> helperReferencedIds,
+                                Set<String> repeatedIds, Map<GroupBinding, Set<String>> groupButtonIds) {
+        String idName = getIdName(element.getAttributeNS(ANDROID_NAMESPACE, "id"));
+        if (isClass(element, BUTTON_CLASS_NAME)) {
+            if (idName == null || helperReferencedIds.contains(idName)) {
+                return;
+            }
+            String groupIdName = getIdName(getAppAttribute(element, "nestedRadioGroup"));
+            GroupBinding group = groupIdName != null ? groups.get(groupIdName) : enclosingGroup;
+            if (group == null) {
+                return;
+            }
+            Set<String> buttonIds = groupButtonIds.get(group);
+            if (buttonIds == null) {
+                buttonIds = new HashSet<>();
+                groupButtonIds.put(group, buttonIds);
+            }
+            if (!buttonIds.add(idName)) {
+                // findViewById() cannot tell the buttons apart
+                group.removeButton(idName);
+                return;
+            }
+            String clickableParentIdName = getIdName(getAppAttribute(element, "clickableParent"));
+            if (clickableParentIdName != null && !ancestorIdNames.contains(clickableParentIdName)) {
+                // the button would not find it at runtime either
+                clickableParentIdName = null;
+            } else if (repeatedIds.contains(clickableParentIdName)) {
+                // findViewById() from the group would return the first row for every button
+                clickableParentIdName = null;
+            }
+            group.addButton(idName, clickableParentIdName);
+            return;
+        }
+
+        if (isGroup(element)) {
+            // buttons of a group without id cannot be looked up, they resolve their group at runtime
+            enclosingGroup = idName != null ? groups.get(idName) : null;
+        }
+        if (idName != null) {
+            ancestorIdNames.push(idName);
+        }
+        for (Element child : getChildElements(element)) {
+            collectButtons(child, enclosingGroup, ancestorIdNames, groups, helperReferencedIds,
+                    repeatedIds, groupButtonIds);
+        }
+        if (idName != null) {
+            ancestorIdNames.pop();
+        }
+    }
+
+    private static boolean isGroup(Element element) {
+        for (String groupClassName : GROUP_CLASS_NAMES) {
+            if (isClass(element, groupClassName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isClass(Element element, String className) {
+        String tagName = element.getTagName();
+        return tagName.equals(PACKAGE_PREFIX + className) || tagName.equals(className);
+    }
+
+    /**
+     * @return the value of a library attribute, declared in any namespace but the android one,
+     * null if absent
+     */
+    private static String getAppAttribute(Element element, String name) {
+        for (int i = 0, count = element.getAttributes().getLength(); i < count; i++) {
+            Node attribute = element.getAttributes().item(i);
+            if (name.equals(attribute.getLocalName()) && !ANDROID_NAMESPACE.equals(attribute.getNamespaceURI())) {
+                return attribute.getNodeValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param reference an id reference, e.g. "@+id/radioButton1"
+     * @return the id resource name, e.g. "radioButton1", null if not an app id reference
+     */
+    static String getIdName(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        if (reference.startsWith("@+id/")) {
+            return reference.substring("@+id/".length());
+        } else if (reference.startsWith("@id/")) {
+            return reference.substring("@id/".length());
+        }
+        return null;
+    }
+
+    private static List<Element> getChildElements(Element element) {
+        List<Element> childElements = new ArrayList<>();
+        NodeList childNodes = element.getChildNodes();
+        for (int i = 0, count = childNodes.getLength(); i < count; i++) {
+            if (childNodes.item(i) instanceof Element) {
+                childElements.add((Element) childNodes.item(i));
+            }
+        }
+        return childElements;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.compiler;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Generates, from the layout resources of an app, the class registering the binding tables
+ * of its nested radio groups. With the tables registered, a group inflated from these layouts
+ * registers all its radio buttons in one pass once inflated, instead of each button looking for
+ * its group and its clickable parent when attached.</p>
+ *
+ * <p>Usage: {@code NestedRadioBindingGenerator <res dir> <package> <output dir>}, e.g. from a
+ * JavaExec task running before the app Java compilation.</p>
+ */
+
+public final class NestedRadioBindingGenerator {
+
+    private final LayoutBindingParser layoutBindingParser = new LayoutBindingParser();
+    private final BindingTableWriter bindingTableWriter = new BindingTableWriter();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: NestedRadioBindingGenerator <res dir> <package> <output dir>");
+            System.exit(1);
+        }
+        new NestedRadioBindingGenerator().generate(new File(args[0]), args[1], new File(args[2]));
+    }
+
+    /**
+     * @param resDir      the res directory of the app, whose layout and layout-* directories are read
+     * @param packageName the package of the app R class
+     * @param outputDir   the root of the generated sources
+     * @return the generated source file
+     * @throws IOException if a layout cannot be read or parsed, or the source cannot be written
+     */
+    public File generate(File resDir, String packageName, File outputDir) throws IOException {
+        List<GroupBinding> groupBindings = new ArrayList<>();
+        for (File layoutFile : listLayoutFiles(resDir)) {
+            String layoutName = layoutFile.getName().substring(0, layoutFile.getName().length() - ".xml".length());
+            try (InputStream layout = new FileInputStream(layoutFile)) {
+                groupBindings.addAll(layoutBindingParser.parse(layoutName, layout));
+            }
+        }
+
+        File packageDir = new File(outputDir, packageName.replace('.', File.separatorChar));
+        if (!packageDir.isDirectory() && !packageDir.mkdirs()) {
+            throw new IOException("Cannot create " + packageDir);
+        }
+        File sourceFile = new File(packageDir, BindingTableWriter.CLASS_NAME + ".java");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(sourceFile), Charset.forName("UTF-8"))) {
+            bindingTableWriter.write(packageName, groupBindings, writer);
+        }
+        return sourceFile;
+    }
+
+    /**
+     * @return the layout files of all the configurations, sorted so that the output is stable
+     */
+    static List<File> listLayoutFiles(File resDir) {
+        List<File> layoutFiles = new ArrayList<>();
+        File[] resourceDirs = resDir.listFiles();
+        if (resourceDirs == null) {
+            return layoutFiles;
+        }
+        Arrays.sort(resourceDirs);
+        for (File resourceDir : resourceDirs) {
+            String name = resourceDir.getName();
+            if (!resourceDir.isDirectory() || !(name.equals("layout") || name.startsWith("layout-"))) {
+                continue;
+            }
+            File[] files = resourceDir.listFiles();
+            if (files == null) {
+                continue;
+            }
+            Arrays.sort(files);
+            for (File file : files) {
+                if (file.getName().endsWith(".xml")) {
+                    layoutFiles.add(file);
+                }
+            }
+        }
+        return layoutFiles;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.compiler;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BindingTableWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BindingTableWriter bindingTableWriter;
+
+    @Before
+    public void setup() {
+        bindingTableWriter = new BindingTableWriter();
+    }
+
+    @Test
+    public void write() throws IOException {
+        //given
+        GroupBinding groupBinding = new GroupBinding("activity_main", "radioGroup");
+        groupBinding.addButton("button1", "row1");
+        groupBinding.addButton("button2", null);
+        StringBuilder source = new StringBuilder();
+
+        //when
+        bindingTableWriter.write("com.example", Collections.singletonList(groupBinding), source);
+
+        //then
+        assertTrue(source.toString().contains("package com.example;"));
+        assertTrue(source.toString().contains("public final class NestedRadioBindings {"));
+        assertTrue(source.toString().contains("        // activity_main\n"
+                + "        NestedRadioBindingTable.register(R.id.radioGroup,\n"
+                + "                new int[]{R.id.button1, R.id.button2},\n"
+                + "                new int[]{R.id.row1, View.NO_ID});\n"));
+    }
+
+    @Test
+    public void write_mergesGroupsSharingAnId() throws IOException {
+        //given
+        GroupBinding portraitGroup = new GroupBinding("activity_main", "radioGroup");
+        portraitGroup.addButton("button1", "row1");
+        portraitGroup.addButton("button2", "row2");
+        GroupBinding landscapeGroup = new GroupBinding("activity_main", "radioGroup");
+        landscapeGroup.addButton("button2", "column2");
+        landscapeGroup.addButton("button3", null);
+        List<GroupBinding> groupBindings = Arrays.asList(portraitGroup, landscapeGroup);
+        StringBuilder source = new StringBuilder();
+
+        //when
+        bindingTableWriter.write("com.example", groupBindings, source);
+
+        //then
+        assertTrue(source.toString().contains("        // activity_main\n"
+                + "        NestedRadioBindingTable.register(R.id.radioGroup,\n"
+                + "                new int[]{R.id.button1, R.id.button2, R.id.button3},\n"
+                + "                new int[]{R.id.row1, View.NO_ID, View.NO_ID});\n"));
+    }
+
+    @Test
+    public void generate_fromLayoutDirectories() throws IOException {
+        //given
+        File resDir = temporaryFolder.newFolder("res");
+        copyLayout("nested_groups", new File(resDir, "layout"));
+        copyLayout("constraint_helper", new File(resDir, "layout-land"));
+        assertTrue(new File(resDir, "values").mkdirs());
+        File outputDir = temporaryFolder.newFolder("generated");
+
+        //when
+        File sourceFile = new NestedRadioBindingGenerator().generate(resDir, "com.example.app", outputDir);
+
+        //then
+        assertEquals(new File(outputDir, "com/example/app/NestedRadioBindings.java"), sourceFile);
+        String source = new String(Files.readAllBytes(sourceFile.toPath()), "UTF-8");
+        assertTrue(source.contains("NestedRadioBindingTable.register(R.id.outerGroup,"));
+        assertTrue(source.contains("NestedRadioBindingTable.register(R.id.innerGroup,"));
+        assertTrue(source.contains("NestedRadioBindingTable.register(R.id.constraintGroup,"));
+    }
+
+    private void copyLayout(String layoutName, File layoutDir) throws IOException {
+        assertTrue(layoutDir.mkdirs());
+        try (InputStream layout = getClass().getResourceAsStream("/layout/" + layoutName + ".xml")) {
+            Files.copy(layout, new File(layoutDir, layoutName + ".xml").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.compiler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutBindingParserTest {
+
+    private LayoutBindingParser layoutBindingParser;
+
+    @Before
+    public void setup() {
+        layoutBindingParser = new LayoutBindingParser();
+    }
+
+    @Test
+    public void parse_nestedGroups() throws IOException {
+        //when
+        List<GroupBinding> groupBindings = parse("nested_groups");
+
+        //then
+        assertEquals(2, groupBindings.size());
+        GroupBinding outerGroup = groupBindings.get(0);
+        assertEquals("nested_groups", outerGroup.getLayoutName());
+        assertEquals("outerGroup", outerGroup.getGroupIdName());
+        assertEquals(Arrays.asList("button1", "button2", "button4"), outerGroup.getButtonIdNames());
+        GroupBinding innerGroup = groupBindings.get(1);
+        assertEquals("innerGroup", innerGroup.getGroupIdName());
+        assertEquals(Arrays.asList("button3"), innerGroup.getButtonIdNames());
+    }
+
+    @Test
+    public void parse_clickableParentMustBeAnAncestor() throws IOException {
+        //when
+        GroupBinding outerGroup = parse("nested_groups").get(0);
+
+        //then
+        assertEquals("row1", outerGroup.getClickableParentIdNames().get(0));
+        assertNull(outerGroup.getClickableParentIdNames().get(1));
+        assertNull(outerGroup.getClickableParentIdNames().get(2));
+    }
+
+    @Test
+    public void parse_repeatedClickableParentIdLeftOut() throws IOException {
+        //given
+        String layout = "<com.jbvincey.nestedradiobutton.NestedLinearRadioGroup"
+                + " xmlns:android=\"http://schemas.android.com/apk/res/android\""
+                + " xmlns:app=\"http://schemas.android.com/apk/res-auto\" android:id=\"@+id/group\">"
+                + "<LinearLayout android:id=\"@+id/row\">"
+                + "<com.jbvincey.nestedradiobutton.NestedRadioButton android:id=\"@+id/button1\" app:clickableParent=\"@id/row\" />"
+                + "</LinearLayout>"
+                + "<LinearLayout android:id=\"@+id/row\">"
+                + "<com.jbvincey.nestedradiobutton.NestedRadioButton android:id=\"@+id/button2\" app:clickableParent=\"@id/row\" />"
+                + "</LinearLayout>"
+                + "</com.jbvincey.nestedradiobutton.NestedLinearRadioGroup>";
+
+        //when
+        GroupBinding group = layoutBindingParser.parse("repeated_rows",
+                new ByteArrayInputStream(layout.getBytes("UTF-8"))).get(0);
+
+        //then
+        assertEquals(Arrays.asList("button1", "button2"), group.getButtonIdNames());
+        assertEquals(Arrays.asList(null, null), group.getClickableParentIdNames());
+    }
+
+    @Test
+    public void parse_skipsDuplicatedAndHelperReferencedButtons() throws IOException {
+        //when
+        List<GroupBinding> groupBindings = parse("constraint_helper");
+
+        //then
+        assertEquals(1, groupBindings.size());
+        assertEquals("constraintGroup", groupBindings.get(0).getGroupIdName());
+        assertEquals(Arrays.asList("button1"), groupBindings.get(0).getButtonIdNames());
+    }
+
+    @Test
+    public void parse_noGroup() throws IOException {
+        //given
+        String layout = "<LinearLayout xmlns:android=\"http://schemas.android.com/apk/res/android\">"
+                + "<com.jbvincey.nestedradiobutton.NestedRadioButton android:id=\"@+id/button1\" />"
+                + "</LinearLayout>";
+
+        //when
+        List<GroupBinding> groupBindings = layoutBindingParser.parse("no_group",
+                new ByteArrayInputStream(layout.getBytes("UTF-8")));
+
+        //then
+        assertTrue(groupBindings.isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void parse_malformedLayout() throws IOException {
+        layoutBindingParser.parse("malformed", new ByteArrayInputStream("<LinearLayout>".getBytes("UTF-8")));
+    }
+
+    @Test
+    public void getIdName() {
+        assertEquals("button1", LayoutBindingParser.getIdName("@+id/button1"));
+        assertEquals("button1", LayoutBindingParser.getIdName("@id/button1"));
+        assertNull(LayoutBindingParser.getIdName("@android:id/text1"));
+        assertNull(LayoutBindingParser.getIdName(null));
+    }
+
+    private List<GroupBinding> parse(String layoutName) throws IOException {
+        try (InputStream layout = getClass().getResourceAsStream("/layout/" + layoutName + ".xml")) {
+            return layoutBindingParser.parse(layoutName, layout);
+        }
+    }
+}
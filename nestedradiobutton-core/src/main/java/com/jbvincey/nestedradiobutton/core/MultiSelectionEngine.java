@@ -0,0 +1,347 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * <p>Multiple selection state machine, with an optional maximum number of selected options and
+ * no platform dependency.</p>
+ *
+ * <p>Each option id known by the engine gets an index, the selection is a {@link BitSet} over
+ * these indices. An option is known while its button is registered or while it is selected, the
+ * index of a forgotten option is reused by the next new option so that churned ids do not grow
+ * the engine. Bulk operations ({@link #selectAll()}, {@link #clear()},
+ * {@link #invert()}, {@link #setSelection(int[])}) compute the new selection in one pass, apply
+ * only the changed options and notify a single change carrying the delta. They only select the
+ * options whose button is registered, see {@link #onButtonRegistered(int)}.</p>
+ *
+ * <p>Subclasses bind the state to actual buttons by overriding
+ * {@link #setCheckedState(int, boolean)} and observe changes by overriding
+ * {@link #onSelectionChanged(int[], int[])}.</p>
+ */
+
+public class MultiSelectionEngine {
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final int[] NO_IDS = new int[0];
+
+    private static final int NOT_FOUND = -1;
+
+    // known option ids, the flags of an id are its index in the selection and registered bit sets
+    private final OrderedIdIndex ids = new OrderedIdIndex();
+    // id of each used index
+    private int[] indexIds = new int[8];
+    // indices of the known options
+    private final BitSet used = new BitSet();
+    // indices of the options whose button is registered
+    private final BitSet registered = new BitSet();
+    private BitSet selection = new BitSet();
+    private int maxSelected = UNLIMITED;
+    // when true, checked state changes coming from the buttons are discarded
+    private boolean protectFromCheckedChange = false;
+
+    /**
+     * @param maxSelected the maximum number of selected options, {@link #UNLIMITED} by default.
+     *                    An existing selection above it is kept.
+     */
+    public void setMaxSelected(int maxSelected) {
+        if (maxSelected < 0) {
+            throw new IllegalArgumentException("maxSelected should be positive: " + maxSelected);
+        }
+        this.maxSelected = maxSelected;
+    }
+
+    public int getMaxSelected() {
+        return maxSelected;
+    }
+
+    public boolean isSelected(int id) {
+        int index = findIndex(id);
+        return index != NOT_FOUND && selection.get(index);
+    }
+
+    public int getSelectedCount() {
+        return selection.cardinality();
+    }
+
+    /**
+     * @return the number of options known by the engine, registered or selected
+     */
+    int getKnownCount() {
+        return used.cardinality();
+    }
+
+    /**
+     * @return the selected ids, in the order of their index: the order options became known, as
+     * long as no option was forgotten
+     */
+    public int[] getSelectedIds() {
+        return toIds(selection);
+    }
+
+    /**
+     * <p>Selects an option, unless its button is not registered or the maximum number of
+     * selected options is reached.</p>
+     *
+     * @param id the id of the option
+     * @return true if the option is selected after this call
+     */
+    public boolean select(int id) {
+        int index = findIndex(id);
+        if (index == NOT_FOUND) {
+            return false;
+        }
+        if (selection.get(index)) {
+            return true;
+        }
+        if (!registered.get(index) || selection.cardinality() >= maxSelected) {
+            return false;
+        }
+        BitSet next = (BitSet) selection.clone();
+        next.set(index);
+        applySelection(next);
+        return true;
+    }
+
+    public void deselect(int id) {
+        int index = findIndex(id);
+        if (index != NOT_FOUND && selection.get(index)) {
+            BitSet next = (BitSet) selection.clone();
+            next.clear(index);
+            applySelection(next);
+        }
+    }
+
+    /**
+     * <p>Selects all the registered options, in order, up to the maximum number of selected
+     * options.</p>
+     */
+    public void selectAll() {
+        BitSet next = (BitSet) selection.clone();
+        next.or(registered);
+        applySelection(limit(next));
+    }
+
+    public void clear() {
+        applySelection(new BitSet());
+    }
+
+    /**
+     * <p>Inverts the selection of all the registered options, keeping the first ones in order if
+     * there are more than the maximum number of selected options.</p>
+     */
+    public void invert() {
+        BitSet next = (BitSet) selection.clone();
+        next.xor(registered);
+        applySelection(limit(next));
+    }
+
+    /**
+     * <p>Replaces the selection. The ids of options whose button is not registered are ignored,
+     * see {@link #restoreSelection(int[])} to select them beforehand. Only the first ids are kept
+     * if there are more than the maximum number of selected options.</p>
+     *
+     * @param selectedIds the ids of the options to select
+     */
+    public void setSelection(int[] selectedIds) {
+        BitSet next = new BitSet();
+        for (int i = 0; i < selectedIds.length && next.cardinality() < maxSelected; i++) {
+            int index = findIndex(selectedIds[i]);
+            if (index != NOT_FOUND && registered.get(index)) {
+                next.set(index);
+            }
+        }
+        applySelection(next);
+    }
+
+    /**
+     * <p>Replaces the selection without applying it to the buttons nor notifying it, e.g. to
+     * restore a saved selection before the buttons are available. Selected buttons are checked
+     * when they register.</p>
+     *
+     * @param selectedIds the ids of the options to select
+     */
+    public void restoreSelection(int[] selectedIds) {
+        BitSet previous = selection;
+        selection = new BitSet();
+        for (int id : selectedIds) {
+            selection.set(indexOf(id));
+        }
+        forgetUnused(previous);
+    }
+
+    /**
+     * <p>To be called when the button of an option becomes available. If the option is
+     * selected, the button is checked.</p>
+     *
+     * @param id the id of the available option
+     */
+    public void onButtonRegistered(int id) {
+        int index = indexOf(id);
+        registered.set(index);
+        if (selection.get(index)) {
+            protectFromCheckedChange = true;
+            setCheckedState(id, true);
+            protectFromCheckedChange = false;
+        }
+    }
+
+    /**
+     * <p>To be called when the button of an option is no longer available, e.g. detached. A
+     * selected option stays selected and its button is checked again when it registers, but
+     * bulk operations skip the option until then. An option which is not selected is
+     * forgotten.</p>
+     *
+     * @param id the id of the unavailable option
+     */
+    public void onButtonUnregistered(int id) {
+        int index = findIndex(id);
+        if (index == NOT_FOUND || !registered.get(index)) {
+            return;
+        }
+        registered.clear(index);
+        forget(index);
+    }
+
+    /**
+     * <p>To be called when a button gets checked or unchecked by the user. A check beyond the
+     * maximum number of selected options is reverted.</p>
+     *
+     * @param id      the id of the option
+     * @param checked the new checked state of the button
+     */
+    public void onButtonCheckedChanged(int id, boolean checked) {
+        // prevents from infinite recursion
+        if (protectFromCheckedChange) {
+            return;
+        }
+        if (checked) {
+            if (!select(id)) {
+                protectFromCheckedChange = true;
+                setCheckedState(id, false);
+                protectFromCheckedChange = false;
+            }
+        } else {
+            deselect(id);
+        }
+    }
+
+    /**
+     * <p>Applies a checked state to the button of an option. Does nothing by default.</p>
+     *
+     * @param id      the id of the option
+     * @param checked the checked state to apply
+     */
+    protected void setCheckedState(int id, boolean checked) {
+    }
+
+    /**
+     * <p>Called once per selection change with its delta. Does nothing by default.</p>
+     *
+     * @param selectedIds   the newly selected ids
+     * @param deselectedIds the newly deselected ids
+     */
+    protected void onSelectionChanged(int[] selectedIds, int[] deselectedIds) {
+    }
+
+    private void applySelection(BitSet next) {
+        BitSet selected = (BitSet) next.clone();
+        selected.andNot(selection);
+        BitSet deselected = (BitSet) selection.clone();
+        deselected.andNot(next);
+        if (selected.isEmpty() && deselected.isEmpty()) {
+            return;
+        }
+
+        selection = next;
+        int[] selectedIds = toIds(selected);
+        int[] deselectedIds = toIds(deselected);
+        // deselected options whose button is not registered are no longer needed
+        forgetUnused(deselected);
+        protectFromCheckedChange = true;
+        for (int id : deselectedIds) {
+            setCheckedState(id, false);
+        }
+        for (int id : selectedIds) {
+            setCheckedState(id, true);
+        }
+        protectFromCheckedChange = false;
+        onSelectionChanged(selectedIds, deselectedIds);
+    }
+
+    private BitSet limit(BitSet next) {
+        if (next.cardinality() > maxSelected) {
+            // keeps the current selection first, then the first new options in order
+            BitSet limited = (BitSet) selection.clone();
+            limited.and(next);
+            for (int i = next.nextSetBit(0); i >= 0 && limited.cardinality() < maxSelected; i = next.nextSetBit(i + 1)) {
+                limited.set(i);
+            }
+            return limited;
+        }
+        return next;
+    }
+
+    private int findIndex(int id) {
+        return ids.contains(id) ? ids.getFlags(id) : NOT_FOUND;
+    }
+
+    private int indexOf(int id) {
+        int index = findIndex(id);
+        if (index == NOT_FOUND) {
+            // reuses the index of a forgotten option
+            index = used.nextClearBit(0);
+            used.set(index);
+            if (index == indexIds.length) {
+                indexIds = Arrays.copyOf(indexIds, index * 2);
+            }
+            indexIds[index] = id;
+            ids.add(id);
+            ids.setFlags(id, index);
+        }
+        return index;
+    }
+
+    private void forget(int index) {
+        if (used.get(index) && !registered.get(index) && !selection.get(index)) {
+            used.clear(index);
+            ids.remove(indexIds[index]);
+        }
+    }
+
+    private void forgetUnused(BitSet indices) {
+        for (int index = indices.nextSetBit(0); index >= 0; index = indices.nextSetBit(index + 1)) {
+            forget(index);
+        }
+    }
+
+    private int[] toIds(BitSet bits) {
+        int count = bits.cardinality();
+        if (count == 0) {
+            return NO_IDS;
+        }
+        int[] result = new int[count];
+        int i = 0;
+        for (int index = bits.nextSetBit(0); index >= 0; index = bits.nextSetBit(index + 1)) {
+            result[i++] = indexIds[index];
+        }
+        return result;
+    }
+}
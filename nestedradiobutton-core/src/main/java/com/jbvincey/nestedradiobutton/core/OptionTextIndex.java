@@ -0,0 +1,323 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Text filter over option labels, by prefix of their words: the query "new yo" matches
+ * "New York" and "York, New". Matching ignores case and accents.</p>
+ *
+ * <p>Labels are split into words when options are added. The words are sorted lazily, on the
+ * first query following additions, so that adding is O(1). A query is looked up by binary search
+ * on its longest word; a query refining the previous one, e.g. typing one more letter, only
+ * checks the options matching the previous query. Only the options whose match changes are
+ * reported.</p>
+ *
+ * <p>Options are all matched while the query is empty.</p>
+ */
+
+public final class OptionTextIndex {
+
+    /**
+     * Reports the options whose match changed when the query changed.
+     */
+    public interface OnMatchChangedListener {
+        void onMatchChanged(int id, boolean matched);
+    }
+
+    private static final String[] NO_WORDS = new String[0];
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<WordEntry> WORD_ORDER = new Comparator<WordEntry>() {
+        @Override
+        public int compare(WordEntry entry1, WordEntry entry2) {
+            return entry1.word.compareTo(entry2.word);
+        }
+    };
+
+    private final HashMap<Integer, Option> options = new HashMap<>();
+    // words of all the options, sorted when wordsSorted is true
+    private final ArrayList<WordEntry> wordEntries = new ArrayList<>();
+    private boolean wordsSorted = true;
+    // number of word entries of removed options, compacted on the next sort
+    private int removedWordCount;
+
+    private String[] queryWords = NO_WORDS;
+    // options matching a non empty query, may hold removed options
+    private List<Option> matches = new ArrayList<>();
+    // marks the options visited by a lookup, incremented for each lookup
+    private int stamp;
+
+    /**
+     * <p>Adds an option, or replaces its label if already added.</p>
+     *
+     * @param id    the id of the option
+     * @param label the label of the option, null for none
+     * @return true if the option matches the current query
+     */
+    public boolean add(int id, CharSequence label) {
+        remove(id);
+        Option option = new Option(id, split(label));
+        options.put(id, option);
+        for (String word : option.words) {
+            wordEntries.add(new WordEntry(word, option));
+        }
+        wordsSorted = false;
+        option.matched = matches(option, queryWords);
+        if (option.matched && queryWords.length > 0) {
+            matches.add(option);
+        }
+        return option.matched;
+    }
+
+    /**
+     * @param id the id of the option to remove, ignored if absent
+     */
+    public void remove(int id) {
+        Option option = options.remove(id);
+        if (option != null) {
+            // dropped lazily from the word entries and the matches
+            option.removed = true;
+            removedWordCount += option.words.length;
+        }
+    }
+
+    public int size() {
+        return options.size();
+    }
+
+    /**
+     * @param id the id of an option
+     * @return true if the option matches the current query, false if it does not or is absent
+     */
+    public boolean isMatched(int id) {
+        Option option = options.get(id);
+        return option != null && option.matched;
+    }
+
+    /**
+     * <p>Sets the query, reporting the options whose match changed.</p>
+     *
+     * @param query    the query, null or blank to match all the options
+     * @param listener called for each option whose match changed
+     */
+    public void setQuery(CharSequence query, OnMatchChangedListener listener) {
+        String[] words = split(query);
+        if (Arrays.equals(words, queryWords)) {
+            return;
+        }
+        boolean refinement = isRefinement(words);
+        String[] previousWords = queryWords;
+        queryWords = words;
+
+        if (words.length == 0) {
+            matches = new ArrayList<>();
+            for (Option option : options.values()) {
+                if (!option.matched) {
+                    option.matched = true;
+                    listener.onMatchChanged(option.id, true);
+                }
+            }
+            return;
+        }
+
+        List<Option> candidates = refinement ? matches : lookup(longest(words));
+        List<Option> newMatches = new ArrayList<>();
+        int matchStamp = ++stamp;
+        for (int i = 0, size = candidates.size(); i < size; i++) {
+            Option option = candidates.get(i);
+            if (!option.removed && matches(option, words)) {
+                option.stamp = matchStamp;
+                newMatches.add(option);
+            }
+        }
+
+        // unmatches the previous matches that no longer match
+        if (previousWords.length == 0) {
+            for (Option option : options.values()) {
+                unmatch(option, matchStamp, listener);
+            }
+        } else {
+            for (int i = 0, size = matches.size(); i < size; i++) {
+                unmatch(matches.get(i), matchStamp, listener);
+            }
+        }
+        for (int i = 0, size = newMatches.size(); i < size; i++) {
+            Option option = newMatches.get(i);
+            if (!option.matched) {
+                option.matched = true;
+                listener.onMatchChanged(option.id, true);
+            }
+        }
+        matches = newMatches;
+    }
+
+    private static void unmatch(Option option, int matchStamp, OnMatchChangedListener listener) {
+        if (option.matched && option.stamp != matchStamp && !option.removed) {
+            option.matched = false;
+            listener.onMatchChanged(option.id, false);
+        }
+    }
+
+    /**
+     * @return true if all the options matching the given words match the current query too
+     */
+    private boolean isRefinement(String[] words) {
+        int last = queryWords.length - 1;
+        if (last < 0 || words.length <= last) {
+            return false;
+        }
+        for (int i = 0; i < last; i++) {
+            if (!words[i].equals(queryWords[i])) {
+                return false;
+            }
+        }
+        return words[last].startsWith(queryWords[last]);
+    }
+
+    /**
+     * @return the options having a word starting with the prefix, each once
+     */
+    private List<Option> lookup(String prefix) {
+        sortWords();
+        List<Option> result = new ArrayList<>();
+        int lookupStamp = ++stamp;
+        for (int i = lowerBound(prefix), size = wordEntries.size(); i < size; i++) {
+            WordEntry entry = wordEntries.get(i);
+            if (!entry.word.startsWith(prefix)) {
+                break;
+            }
+            if (entry.option.stamp != lookupStamp && !entry.option.removed) {
+                entry.option.stamp = lookupStamp;
+                result.add(entry.option);
+            }
+        }
+        return result;
+    }
+
+    private int lowerBound(String word) {
+        int low = 0;
+        int high = wordEntries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (wordEntries.get(middle).word.compareTo(word) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void sortWords() {
+        if (removedWordCount > 0) {
+            ArrayList<WordEntry> liveEntries = new ArrayList<>(wordEntries.size() - removedWordCount);
+            for (int i = 0, size = wordEntries.size(); i < size; i++) {
+                if (!wordEntries.get(i).option.removed) {
+                    liveEntries.add(wordEntries.get(i));
+                }
+            }
+            wordEntries.clear();
+            wordEntries.addAll(liveEntries);
+            removedWordCount = 0;
+        }
+        if (!wordsSorted) {
+            Collections.sort(wordEntries, WORD_ORDER);
+            wordsSorted = true;
+        }
+    }
+
+    private static boolean matches(Option option, String[] words) {
+        for (String word : words) {
+            if (!hasWordStartingWith(option, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasWordStartingWith(Option option, String prefix) {
+        for (String word : option.words) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String longest(String[] words) {
+        String longest = words[0];
+        for (String word : words) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * @param text a label or a query
+     * @return its words, lower case and without accents
+     */
+    static String[] split(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return NO_WORDS;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        normalized = COMBINING_MARKS.matcher(normalized).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATORS.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words.toArray(new String[words.size()]);
+    }
+
+    private static final class Option {
+        final int id;
+        final String[] words;
+        boolean matched = true;
+        boolean removed;
+        int stamp;
+
+        Option(int id, String[] words) {
+            this.id = id;
+            this.words = words;
+        }
+    }
+
+    private static final class WordEntry {
+        final String word;
+        final Option option;
+
+        WordEntry(String word, Option option) {
+            this.word = word;
+            this.option = option;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import java.util.Arrays;
+
+/**
+ * <p>Ordered set of int ids with lookups in both directions: the id at a position, and the
+ * position of an id. Ids are kept in insertion order.</p>
+ *
+ * <p>Adding and removing are amortized O(1). A removed id leaves a hole, the holes are compacted
+ * lazily by the lookups, only up to the looked up position. Lookups before the first hole are
+ * O(1), and a compaction moves at least as many ids as the holes it passes over, so that removing
+ * many ids in a row, e.g. all the buttons of a detached page, then looking them up costs O(n)
+ * overall. Interleaving removals with lookups after the removed positions is not amortized: each
+ * lookup may then cost O(n), e.g. removing the first id then looking up the last one, in a loop.</p>
+ *
+ * <p>Each id carries int flags, e.g. whether its option is enabled, so that the ids matching some
+ * flags can be walked in order without looking anything else up.</p>
+ */
+
+public final class OrderedIdIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 8;
+    private static final int NO_HOLE = Integer.MAX_VALUE;
+
+    // ids in order, and their flags, including the holes left by removed ids until compacted
+    private int[] ids;
+    private int[] flags;
+    private int rawSize;
+    // number of ids, holes excluded
+    private int size;
+    // raw position of the first hole, NO_HOLE if none: positions before it are exact
+    private int firstHole = NO_HOLE;
+
+    // open addressing table id -> position + 1, EMPTY meaning a free slot
+    private int[] tableIds;
+    private int[] tablePositions;
+    private int mask;
+
+    public OrderedIdIndex() {
+        ids = new int[MIN_CAPACITY];
+        flags = new int[MIN_CAPACITY];
+        allocateTable(MIN_CAPACITY * 2);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param position a position between 0 and {@link #size()} excluded
+     * @return the id at this position
+     */
+    public int getId(int position) {
+        compact(position, -1);
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("position " + position + ", size " + size);
+        }
+        return ids[position];
+    }
+
+    /**
+     * @param id an id
+     * @return the position of the id, {@link #NOT_FOUND} if absent
+     */
+    public int indexOf(int id) {
+        int slot = findSlot(id);
+        if (tablePositions[slot] == EMPTY) {
+            return NOT_FOUND;
+        }
+        compact(-1, tablePositions[slot] - 1);
+        return tablePositions[slot] - 1;
+    }
+
+    public boolean contains(int id) {
+        return tablePositions[findSlot(id)] != EMPTY;
+    }
+
+    /**
+     * <p>Appends an id, if absent.</p>
+     *
+     * @param id the id to add
+     * @return true if the id was added
+     */
+    public boolean add(int id) {
+        int slot = findSlot(id);
+        if (tablePositions[slot] != EMPTY) {
+            return false;
+        }
+        if (rawSize == ids.length) {
+            if (size * 2 <= rawSize) {
+                // mostly holes, reuses them rather than growing
+                compact();
+            } else {
+                ids = Arrays.copyOf(ids, rawSize * 2);
+                flags = Arrays.copyOf(flags, rawSize * 2);
+            }
+        }
+        ids[rawSize] = id;
+        flags[rawSize] = 0;
+        rawSize++;
+        size++;
+        tableIds[slot] = id;
+        tablePositions[slot] = rawSize;
+        if (size * 2 > tableIds.length) {
+            rehash(tableIds.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * <p>Removes an id, the following ids move one position backward once compacted.</p>
+     *
+     * @param id the id to remove
+     * @return true if the id was removed
+     */
+    public boolean remove(int id) {
+        int slot = findSlot(id);
+        if (tablePositions[slot] == EMPTY) {
+            return false;
+        }
+        firstHole = Math.min(firstHole, tablePositions[slot] - 1);
+        deleteSlot(slot);
+        size--;
+        if (size == 0) {
+            rawSize = 0;
+            firstHole = NO_HOLE;
+        }
+        return true;
+    }
+
+    /**
+     * @param id    an id
+     * @param flags the flags of the id, 0 when added
+     * @return true if the id is present
+     */
+    public boolean setFlags(int id, int flags) {
+        int slot = findSlot(id);
+        if (tablePositions[slot] == EMPTY) {
+            return false;
+        }
+        this.flags[tablePositions[slot] - 1] = flags;
+        return true;
+    }
+
+    /**
+     * @param id an id
+     * @return the flags of the id, 0 if absent
+     */
+    public int getFlags(int id) {
+        int slot = findSlot(id);
+        return tablePositions[slot] == EMPTY ? 0 : flags[tablePositions[slot] - 1];
+    }
+
+    /**
+     * @param position a position between 0 and {@link #size()} excluded
+     * @return the flags of the id at this position
+     */
+    public int getFlagsAt(int position) {
+        compact(position, -1);
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("position " + position + ", size " + size);
+        }
+        return flags[position];
+    }
+
+    /**
+     * <p>Finds the closest position after or before a position whose flags contain the required
+     * flags. The cost is the number of positions skipped.</p>
+     *
+     * @param fromPosition  the position to start from, excluded; -1 or {@link #size()} to start
+     *                      from the first or last position included
+     * @param forward       true to look after the position, false before
+     * @param requiredFlags the flags to match
+     * @param wrap          true to continue from the other end of the index
+     * @return the matching position, {@link #NOT_FOUND} if none
+     */
+    public int findNext(int fromPosition, boolean forward, int requiredFlags, boolean wrap) {
+        compact();
+        int step = forward ? 1 : -1;
+        int position = fromPosition;
+        for (int i = 0; i < size; i++) {
+            position += step;
+            if (position < 0 || position >= size) {
+                if (!wrap) {
+                    return NOT_FOUND;
+                }
+                position = forward ? 0 : size - 1;
+            }
+            if ((flags[position] & requiredFlags) == requiredFlags) {
+                return position;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * <p>Reorders some ids among themselves: the positions they hold are given to them in the
+     * passed order, the other ids keep their positions. Absent ids are ignored. The cost is
+     * O(n + k log k), k being the number of ids passed.</p>
+     *
+     * @param order distinct ids, in their new relative order
+     */
+    public void reorder(int[] order) {
+        compact();
+        int[] positions = new int[order.length];
+        int[] orderedIds = new int[order.length];
+        int[] orderedFlags = new int[order.length];
+        int count = 0;
+        for (int id : order) {
+            int slot = findSlot(id);
+            if (tablePositions[slot] != EMPTY) {
+                positions[count] = tablePositions[slot] - 1;
+                orderedIds[count] = id;
+                orderedFlags[count] = flags[positions[count]];
+                count++;
+            }
+        }
+        Arrays.sort(positions, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && positions[i] == positions[i - 1]) {
+                throw new IllegalArgumentException("Duplicate id " + ids[positions[i]]);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            ids[positions[i]] = orderedIds[i];
+            flags[positions[i]] = orderedFlags[i];
+            tablePositions[findSlot(orderedIds[i])] = positions[i] + 1;
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        rawSize = 0;
+        firstHole = NO_HOLE;
+        Arrays.fill(tablePositions, EMPTY);
+    }
+
+    /**
+     * @return a copy of the ids, in order
+     */
+    public int[] toArray() {
+        compact();
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void compact() {
+        compact(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * <p>Compacts the holes from the first one, until the id at a position and the id at a raw
+     * position are in place. The holes passed over are left after the moved ids, the compaction
+     * goes on until it moved as many ids as holes, so that these are not passed over again and
+     * again by the following lookups.</p>
+     *
+     * @param position    the position to put in place, -1 for none
+     * @param rawPosition the raw position to put in place, -1 for none
+     */
+    private void compact(int position, int rawPosition) {
+        if (firstHole == NO_HOLE || (position < firstHole && rawPosition < firstHole)) {
+            return;
+        }
+        int start = firstHole;
+        int write = start;
+        int read = start;
+        while (read < rawSize && (write <= position || read <= rawPosition || read - write > write - start)) {
+            int slot = findSlot(ids[read]);
+            // a removed id is absent from the table, or present at another position if added
+            // again or already moved
+            if (tablePositions[slot] == read + 1) {
+                ids[write] = ids[read];
+                flags[write] = flags[read];
+                tablePositions[slot] = ++write;
+            }
+            read++;
+        }
+        if (read == rawSize) {
+            rawSize = write;
+            firstHole = NO_HOLE;
+        } else {
+            firstHole = write;
+        }
+    }
+
+    private int findSlot(int id) {
+        int slot = hash(id) & mask;
+        while (tablePositions[slot] != EMPTY && tableIds[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot) {
+        // backward shift deletion keeps probe sequences without tombstones
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (tablePositions[next] != EMPTY) {
+            int home = hash(tableIds[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                tableIds[free] = tableIds[next];
+                tablePositions[free] = tablePositions[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        tablePositions[free] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        compact();
+        allocateTable(capacity);
+        for (int i = 0; i < size; i++) {
+            int slot = findSlot(ids[i]);
+            tableIds[slot] = ids[i];
+            tablePositions[slot] = i + 1;
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        tableIds = new int[capacity];
+        tablePositions = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(int id) {
+        // ids are often sequential, spreads them over the table
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+/**
+ * <p>Exclusive selection state machine of a radio group, with no platform dependency.</p>
+ *
+ * <p>Options are identified by int ids, {@link #NO_ID} meaning no selection. Subclasses bind
+ * the state to actual buttons by overriding {@link #setCheckedState(int, boolean)} and observe
+ * changes by overriding {@link #setCheckedId(int)}. Used as is, the engine only keeps the
+ * selection, e.g. to validate a form on a server.</p>
+ *
+ * <p>Each change publishes an immutable {@link SelectionSnapshot}, see {@link #getSnapshot()}.</p>
+ *
+ * <p>Changes can be batched between {@link #beginBatch()} and {@link #endBatch()}: intermediate
+ * selections are neither applied to the buttons nor dispatched, the net change is applied once
+ * when the outermost batch ends.</p>
+ */
+
+public class SelectionEngine {
+
+    public static final int NO_ID = -1;
+
+    private static final int[] NO_IDS = new int[0];
+
+    // holds the checked id; the selection is empty by default
+    private int checkedId = NO_ID;
+    // indicates whether the selection was set initially or changed afterwards
+    private int initialCheckedId = NO_ID;
+    // when true, checked state changes coming from the buttons are discarded
+    private boolean protectFromCheckedChange = false;
+
+    // number of nested batches in progress
+    private int batchDepth = 0;
+    // checked id when the outermost batch began, to dispatch only a net change
+    private int batchStartCheckedId = NO_ID;
+    // id whose button is actually checked while batching
+    private int batchAppliedCheckedId = NO_ID;
+
+    // snapshot of the selection published on each change, null until the first one
+    private volatile SelectionSnapshot snapshot;
+
+    /**
+     * <p>Sets the initial selection, without dispatching any change.</p>
+     *
+     * @param id the id of the initially checked option
+     */
+    public void initCheckedId(int id) {
+        checkedId = id;
+        initialCheckedId = id;
+        publishSnapshot();
+    }
+
+    public int getCheckedId() {
+        return checkedId;
+    }
+
+    public int getInitialCheckedId() {
+        return initialCheckedId;
+    }
+
+    /**
+     * @return true if the selection differs from the initial one
+     */
+    public boolean isCheckedIdModified() {
+        return checkedId != initialCheckedId;
+    }
+
+    /**
+     * <p>Sets the selection to the option whose identifier is passed in
+     * parameter. Using {@link #NO_ID} as the selection identifier clears the selection;
+     * such an operation is equivalent to invoking {@link #clearCheck()}.</p>
+     *
+     * @param id the unique id of the option to select
+     * @see #clearCheck()
+     */
+    public void check(int id) {
+        // don't even bother
+        if (id != NO_ID && (id == checkedId)) {
+            return;
+        }
+
+        if (isInBatch()) {
+            // applied when the batch ends
+            checkedId = id;
+            return;
+        }
+
+        if (checkedId != NO_ID) {
+            setCheckedState(checkedId, false);
+        }
+
+        if (id != NO_ID) {
+            setCheckedState(id, true);
+        }
+
+        setCheckedId(id);
+    }
+
+    public void clearCheck() {
+        check(NO_ID);
+    }
+
+    /**
+     * <p>Sets the selection without applying it to the buttons nor dispatching it, e.g. to
+     * restore a saved selection before the buttons are available. The checked button is
+     * checked when it registers.</p>
+     *
+     * @param id the id of the checked option, {@link #NO_ID} for none
+     */
+    public void restoreCheckedId(int id) {
+        checkedId = id;
+        publishSnapshot();
+    }
+
+    /**
+     * <p>To be called when the button of an option becomes available. If the option is the
+     * checked one, the button is checked without going through {@link #onButtonChecked(int)}.</p>
+     *
+     * @param id the id of the available option
+     */
+    public void onButtonRegistered(int id) {
+        if (isInBatch()) {
+            // a pending selection is applied when the batch ends
+            if (checkedId == id && batchAppliedCheckedId == id) {
+                protectFromCheckedChange = true;
+                setCheckedState(id, true);
+                protectFromCheckedChange = false;
+            }
+        } else if (checkedId == id) {
+            protectFromCheckedChange = true;
+            setCheckedState(checkedId, true);
+            protectFromCheckedChange = false;
+            setCheckedId(id);
+        }
+    }
+
+    /**
+     * <p>To be called when a button gets checked by the user. The previously checked button is
+     * unchecked and the selection is updated. Changes triggered by the engine itself are
+     * discarded.</p>
+     *
+     * @param id the id of the option whose button got checked
+     */
+    public void onButtonChecked(int id) {
+        // prevents from infinite recursion
+        if (protectFromCheckedChange) {
+            return;
+        }
+
+        if (isInBatch()) {
+            // the button is already checked, keeps the other buttons consistent with it
+            protectFromCheckedChange = true;
+            if (batchAppliedCheckedId != NO_ID && batchAppliedCheckedId != id) {
+                setCheckedState(batchAppliedCheckedId, false);
+            }
+            protectFromCheckedChange = false;
+            batchAppliedCheckedId = id;
+            checkedId = id;
+            return;
+        }
+
+        protectFromCheckedChange = true;
+        if (checkedId != NO_ID && checkedId != id) {
+            setCheckedState(checkedId, false);
+        }
+        protectFromCheckedChange = false;
+
+        setCheckedId(id);
+    }
+
+    /**
+     * <p>Starts a batch of selection changes. Until the matching {@link #endBatch()}, changes
+     * only update the selection: buttons are not updated and no change is dispatched.
+     * Batches can be nested.</p>
+     */
+    public void beginBatch() {
+        if (batchDepth++ == 0) {
+            batchStartCheckedId = checkedId;
+            batchAppliedCheckedId = checkedId;
+        }
+    }
+
+    /**
+     * <p>Ends a batch of selection changes. When the outermost batch ends, the final selection
+     * is applied to the buttons and a single change is dispatched if the selection differs
+     * from the one before the batch.</p>
+     *
+     * @throws IllegalStateException if no batch is in progress
+     */
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("endBatch() called without beginBatch()");
+        }
+        if (--batchDepth > 0) {
+            return;
+        }
+
+        if (batchAppliedCheckedId != checkedId) {
+            protectFromCheckedChange = true;
+            if (batchAppliedCheckedId != NO_ID) {
+                setCheckedState(batchAppliedCheckedId, false);
+            }
+            if (checkedId != NO_ID) {
+                setCheckedState(checkedId, true);
+            }
+            protectFromCheckedChange = false;
+        }
+
+        if (checkedId != batchStartCheckedId) {
+            setCheckedId(checkedId);
+        }
+    }
+
+    /**
+     * <p>Runs the given changes in a batch, see {@link #beginBatch()}.</p>
+     *
+     * @param changes the selection changes to run
+     */
+    public void runInBatch(Runnable changes) {
+        beginBatch();
+        try {
+            changes.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    public boolean isInBatch() {
+        return batchDepth > 0;
+    }
+
+    /**
+     * @return the number of nested batches in progress
+     */
+    public int getBatchDepth() {
+        return batchDepth;
+    }
+
+    /**
+     * <p>Updates the selection. Subclasses override it to be notified of changes.</p>
+     *
+     * @param id the id of the newly checked option, {@link #NO_ID} if cleared
+     */
+    protected void setCheckedId(int id) {
+        checkedId = id;
+        publishSnapshot();
+    }
+
+    /**
+     * @return an immutable snapshot of the selection, which can be read from any thread
+     * without locking
+     */
+    public SelectionSnapshot getSnapshot() {
+        SelectionSnapshot current = snapshot;
+        return current != null ? current : createSnapshot(NO_ID, NO_IDS, 0);
+    }
+
+    /**
+     * <p>Publishes a snapshot of the current selection, done on each change. Subclasses call it
+     * when their selection changes outside of this engine.</p>
+     */
+    protected void publishSnapshot() {
+        SelectionSnapshot previous = snapshot;
+        long version = previous != null ? previous.getVersion() + 1 : 1;
+        snapshot = createSnapshot(getCheckedId(), getSnapshotSelectedIds(), version);
+    }
+
+    /**
+     * @return the ids of the checked options to publish, owned by the snapshot
+     */
+    protected int[] getSnapshotSelectedIds() {
+        int id = getCheckedId();
+        return id != NO_ID ? new int[]{id} : NO_IDS;
+    }
+
+    /**
+     * <p>Creates the snapshots published by this engine, overridden to publish a subclass.</p>
+     *
+     * @param checkedId   the id of the checked option, {@link #NO_ID} if none
+     * @param selectedIds the ids of the checked options, owned by the snapshot
+     * @param version     the version of the snapshot, 0 for the initial empty selection
+     * @return the snapshot
+     */
+    protected SelectionSnapshot createSnapshot(int checkedId, int[] selectedIds, long version) {
+        return new SelectionSnapshot(checkedId, selectedIds, version);
+    }
+
+    /**
+     * <p>Applies a checked state to the button of an option. Does nothing by default.</p>
+     *
+     * @param id      the id of the option
+     * @param checked the checked state to apply
+     */
+    protected void setCheckedState(int id, boolean checked) {
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+/**
+ * <p>Immutable snapshot of the selection of a {@link SelectionEngine}, published on each
+ * change, see {@link SelectionEngine#getSnapshot()}. It can be read from any thread.</p>
+ */
+
+public class SelectionSnapshot {
+
+    private final int checkedId;
+    private final int[] selectedIds;
+    private final long version;
+
+    protected SelectionSnapshot(int checkedId, int[] selectedIds, long version) {
+        this.checkedId = checkedId;
+        this.selectedIds = selectedIds;
+        this.version = version;
+    }
+
+    /**
+     * @return the id of the checked option, {@link SelectionEngine#NO_ID} if none
+     */
+    public int getCheckedId() {
+        return checkedId;
+    }
+
+    /**
+     * @return a copy of the ids of the checked options, in multiple selection as well
+     */
+    public int[] getSelectedIds() {
+        return selectedIds.clone();
+    }
+
+    public boolean isSelected(int id) {
+        for (int selectedId : selectedIds) {
+            if (selectedId == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a number increased on each selection change, to tell whether two snapshots were
+     * taken between changes
+     */
+    public long getVersion() {
+        return version;
+    }
+}
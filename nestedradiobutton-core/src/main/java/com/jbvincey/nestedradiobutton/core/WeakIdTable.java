@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * <p>Map of int ids to weakly referenced values, so that the table never keeps its values alive.
+ * Ids are stored in an open addressing table: adding, getting and removing are amortized O(1)
+ * whatever the order of the ids.</p>
+ *
+ * <p>Entries whose value was garbage collected are purged lazily, when they are looked up and
+ * when the table grows.</p>
+ *
+ * @param <T> the type of the values
+ */
+
+public final class WeakIdTable<T> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    // null meaning a free slot
+    private WeakReference<T>[] references;
+    private int size;
+    private int mask;
+
+    public WeakIdTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * @param id an id
+     * @return the value of the id, null if absent or garbage collected
+     */
+    public T get(int id) {
+        int slot = findSlot(id);
+        WeakReference<T> reference = references[slot];
+        if (reference == null) {
+            return null;
+        }
+        T value = reference.get();
+        if (value == null) {
+            deleteSlot(slot);
+        }
+        return value;
+    }
+
+    /**
+     * @param id    an id
+     * @param value the value of the id, replacing the previous one
+     */
+    public void put(int id, T value) {
+        int slot = findSlot(id);
+        WeakReference<T> reference = references[slot];
+        if (reference != null) {
+            if (reference.get() != value) {
+                references[slot] = new WeakReference<>(value);
+            }
+            return;
+        }
+        keys[slot] = id;
+        references[slot] = new WeakReference<>(value);
+        size++;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * @param id an id
+     * @return true if the id was present
+     */
+    public boolean remove(int id) {
+        int slot = findSlot(id);
+        if (references[slot] == null) {
+            return false;
+        }
+        deleteSlot(slot);
+        return true;
+    }
+
+    /**
+     * @return the number of values, after purging the garbage collected ones; O(capacity)
+     */
+    public int size() {
+        for (int slot = 0; slot < keys.length; slot++) {
+            // a deletion shifts the next entries back, so the slot is checked again
+            while (references[slot] != null && references[slot].get() == null) {
+                deleteSlot(slot);
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    private int findSlot(int id) {
+        int slot = hash(id) & mask;
+        while (references[slot] != null && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot) {
+        // backward shift deletion keeps probe sequences without tombstones
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (references[next] != null) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                references[free] = references[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        references[free] = null;
+        size--;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        WeakReference<T>[] oldReferences = references;
+        // purges while moving entries, the capacity only grows if still needed
+        int liveCount = 0;
+        for (WeakReference<T> reference : oldReferences) {
+            if (reference != null && reference.get() != null) {
+                liveCount++;
+            }
+        }
+        int capacity = MIN_CAPACITY;
+        while (liveCount * 4 > capacity) {
+            capacity *= 2;
+        }
+        allocate(Math.max(capacity, oldKeys.length));
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldReferences[i] != null && oldReferences[i].get() != null) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                references[slot] = oldReferences[i];
+                size++;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        references = (WeakReference<T>[]) new WeakReference<?>[capacity];
+        size = 0;
+        mask = capacity - 1;
+    }
+
+    private static int hash(int id) {
+        // ids are often sequential, spreads them over the table
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultiSelectionEngineTest {
+
+    private RecordingMultiSelectionEngine selectionEngine;
+
+    @Before
+    public void setup() {
+        selectionEngine = new RecordingMultiSelectionEngine();
+        for (int id = 1; id <= 5; id++) {
+            selectionEngine.onButtonRegistered(id);
+        }
+    }
+
+    @Test
+    public void select() {
+        //when
+        selectionEngine.select(2);
+        selectionEngine.select(4);
+
+        //then
+        assertTrue(selectionEngine.isSelected(2));
+        assertFalse(selectionEngine.isSelected(3));
+        assertArrayEquals(new int[]{2, 4}, selectionEngine.getSelectedIds());
+        assertEquals(2, selectionEngine.changes.size());
+    }
+
+    @Test
+    public void select_maxSelected() {
+        //given
+        selectionEngine.setMaxSelected(1);
+        selectionEngine.select(2);
+
+        //when
+        boolean selected = selectionEngine.select(4);
+
+        //then
+        assertFalse(selected);
+        assertArrayEquals(new int[]{2}, selectionEngine.getSelectedIds());
+    }
+
+    @Test
+    public void selectAll_singleChange() {
+        //given
+        selectionEngine.select(2);
+
+        //when
+        selectionEngine.selectAll();
+
+        //then
+        assertEquals(5, selectionEngine.getSelectedCount());
+        assertEquals(2, selectionEngine.changes.size());
+        assertArrayEquals(new int[]{1, 3, 4, 5}, selectionEngine.changes.get(1)[0]);
+        assertEquals(0, selectionEngine.changes.get(1)[1].length);
+        assertEquals(5, selectionEngine.appliedStates.size());
+    }
+
+    @Test
+    public void selectAll_maxSelectedKeepsCurrentSelection() {
+        //given
+        selectionEngine.select(4);
+        selectionEngine.setMaxSelected(2);
+
+        //when
+        selectionEngine.selectAll();
+
+        //then
+        assertArrayEquals(new int[]{1, 4}, selectionEngine.getSelectedIds());
+    }
+
+    @Test
+    public void invert() {
+        //given
+        selectionEngine.setSelection(new int[]{1, 2});
+
+        //when
+        selectionEngine.invert();
+
+        //then
+        assertArrayEquals(new int[]{3, 4, 5}, selectionEngine.getSelectedIds());
+        assertArrayEquals(new int[]{1, 2}, selectionEngine.changes.get(1)[1]);
+    }
+
+    @Test
+    public void clear() {
+        //given
+        selectionEngine.setSelection(new int[]{1, 2});
+
+        //when
+        selectionEngine.clear();
+        selectionEngine.clear();
+
+        //then
+        assertEquals(0, selectionEngine.getSelectedCount());
+        assertEquals(2, selectionEngine.changes.size());
+    }
+
+    @Test
+    public void setSelection_unknownIdIgnored() {
+        //given
+        selectionEngine.setMaxSelected(1);
+
+        //when
+        selectionEngine.setSelection(new int[]{42, 2});
+        selectionEngine.onButtonRegistered(42);
+
+        //then
+        assertFalse(selectionEngine.isSelected(42));
+        assertArrayEquals(new int[]{2}, selectionEngine.getSelectedIds());
+    }
+
+    @Test
+    public void restoreSelection_unknownIdSelectedWhenRegistered() {
+        //when
+        selectionEngine.restoreSelection(new int[]{42});
+        selectionEngine.appliedStates.clear();
+        selectionEngine.onButtonRegistered(42);
+
+        //then
+        assertTrue(selectionEngine.isSelected(42));
+        assertEquals("42=true", selectionEngine.appliedStates.get(0));
+    }
+
+    @Test
+    public void onButtonUnregistered_keepsSelection() {
+        //given
+        selectionEngine.setSelection(new int[]{2, 3});
+        selectionEngine.appliedStates.clear();
+
+        //when
+        selectionEngine.onButtonUnregistered(2);
+        selectionEngine.invert();
+
+        //then
+        assertArrayEquals(new int[]{1, 2, 4, 5}, selectionEngine.getSelectedIds());
+        assertEquals(2, selectionEngine.changes.size());
+        assertFalse(selectionEngine.appliedStates.contains("2=false"));
+    }
+
+    @Test
+    public void onButtonRegistered_again_checksSelectedButton() {
+        //given
+        selectionEngine.select(2);
+        selectionEngine.onButtonUnregistered(2);
+        selectionEngine.appliedStates.clear();
+
+        //when
+        selectionEngine.onButtonRegistered(2);
+
+        //then
+        assertTrue(selectionEngine.isSelected(2));
+        assertArrayEquals(new String[]{"2=true"}, selectionEngine.appliedStates.toArray());
+        assertEquals(1, selectionEngine.changes.size());
+    }
+
+    @Test
+    public void churnedIds_reuseIndices() {
+        //given
+        selectionEngine.select(1);
+
+        //when
+        for (int id = 100; id < 1100; id++) {
+            selectionEngine.onButtonRegistered(id);
+            selectionEngine.onButtonUnregistered(id);
+        }
+        selectionEngine.onButtonUnregistered(1);
+        selectionEngine.deselect(1);
+        selectionEngine.onButtonRegistered(1000);
+        selectionEngine.select(1000);
+
+        //then
+        assertArrayEquals(new int[]{1000}, selectionEngine.getSelectedIds());
+        assertFalse(selectionEngine.isSelected(1));
+        assertEquals(5, selectionEngine.getKnownCount());
+    }
+
+    @Test
+    public void selectAll_afterUnregister() {
+        //given
+        selectionEngine.setMaxSelected(4);
+        selectionEngine.onButtonUnregistered(1);
+        selectionEngine.onButtonUnregistered(2);
+
+        //when
+        selectionEngine.selectAll();
+        selectionEngine.invert();
+        selectionEngine.selectAll();
+
+        //then
+        assertArrayEquals(new int[]{3, 4, 5}, selectionEngine.getSelectedIds());
+        assertFalse(selectionEngine.select(1));
+    }
+
+    @Test
+    public void onButtonRegistered_again_getsSelectable() {
+        //given
+        selectionEngine.onButtonUnregistered(1);
+
+        //when
+        selectionEngine.onButtonRegistered(1);
+        selectionEngine.selectAll();
+
+        //then
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, selectionEngine.getSelectedIds());
+    }
+
+    @Test
+    public void onButtonCheckedChanged_beyondMaxSelectedIsReverted() {
+        //given
+        selectionEngine.setMaxSelected(1);
+        selectionEngine.onButtonCheckedChanged(1, true);
+
+        //when
+        selectionEngine.onButtonCheckedChanged(2, true);
+
+        //then
+        assertArrayEquals(new int[]{1}, selectionEngine.getSelectedIds());
+        assertEquals("2=false", selectionEngine.appliedStates.get(selectionEngine.appliedStates.size() - 1));
+    }
+
+    @Test
+    public void onButtonCheckedChanged_unchecked() {
+        //given
+        selectionEngine.onButtonCheckedChanged(1, true);
+
+        //when
+        selectionEngine.onButtonCheckedChanged(1, false);
+
+        //then
+        assertEquals(0, selectionEngine.getSelectedCount());
+    }
+
+    private static class RecordingMultiSelectionEngine extends MultiSelectionEngine {
+
+        final List<String> appliedStates = new ArrayList<>();
+        final List<int[][]> changes = new ArrayList<>();
+
+        @Override
+        protected void setCheckedState(int id, boolean checked) {
+            appliedStates.add(id + "=" + checked);
+        }
+
+        @Override
+        protected void onSelectionChanged(int[] selectedIds, int[] deselectedIds) {
+            changes.add(new int[][]{selectedIds, deselectedIds});
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OptionTextIndexTest {
+
+    private OptionTextIndex optionTextIndex;
+    private RecordingListener listener;
+
+    @Before
+    public void setup() {
+        optionTextIndex = new OptionTextIndex();
+        listener = new RecordingListener();
+        optionTextIndex.add(1, "New York");
+        optionTextIndex.add(2, "Newark");
+        optionTextIndex.add(3, "York");
+        optionTextIndex.add(4, "C\u00f4te d'Ivoire");
+    }
+
+    @Test
+    public void setQuery_matchesWordPrefixes() {
+        //when
+        optionTextIndex.setQuery("new", listener);
+
+        //then
+        assertTrue(optionTextIndex.isMatched(1));
+        assertTrue(optionTextIndex.isMatched(2));
+        assertFalse(optionTextIndex.isMatched(3));
+        assertFalse(optionTextIndex.isMatched(4));
+        assertEquals(listOf("3=false", "4=false"), listener.sortedChanges());
+    }
+
+    @Test
+    public void setQuery_allWordsMustMatch() {
+        //when
+        optionTextIndex.setQuery("YO ne", listener);
+
+        //then
+        assertTrue(optionTextIndex.isMatched(1));
+        assertFalse(optionTextIndex.isMatched(2));
+        assertFalse(optionTextIndex.isMatched(3));
+    }
+
+    @Test
+    public void setQuery_ignoresAccents() {
+        //when
+        optionTextIndex.setQuery("cote", listener);
+
+        //then
+        assertTrue(optionTextIndex.isMatched(4));
+    }
+
+    @Test
+    public void setQuery_refinementOnlyReportsChanges() {
+        //given
+        optionTextIndex.setQuery("ne", listener);
+        listener.changes.clear();
+
+        //when
+        optionTextIndex.setQuery("new y", listener);
+
+        //then
+        assertEquals(listOf("2=false"), listener.sortedChanges());
+    }
+
+    @Test
+    public void setQuery_widening() {
+        //given
+        optionTextIndex.setQuery("new y", listener);
+        listener.changes.clear();
+
+        //when
+        optionTextIndex.setQuery("y", listener);
+
+        //then
+        assertEquals(listOf("3=true"), listener.sortedChanges());
+    }
+
+    @Test
+    public void setQuery_empty() {
+        //given
+        optionTextIndex.setQuery("york", listener);
+        listener.changes.clear();
+
+        //when
+        optionTextIndex.setQuery("  ", listener);
+
+        //then
+        assertEquals(listOf("2=true", "4=true"), listener.sortedChanges());
+    }
+
+    @Test
+    public void add_whileFiltered() {
+        //given
+        optionTextIndex.setQuery("yo", listener);
+
+        //when
+        boolean matched = optionTextIndex.add(5, "Yokohama");
+        optionTextIndex.setQuery("yok", listener);
+
+        //then
+        assertTrue(matched);
+        assertFalse(optionTextIndex.add(6, "Osaka"));
+        assertTrue(optionTextIndex.isMatched(5));
+        assertFalse(optionTextIndex.isMatched(1));
+    }
+
+    @Test
+    public void remove() {
+        //given
+        optionTextIndex.remove(1);
+
+        //when
+        optionTextIndex.setQuery("new", listener);
+
+        //then
+        assertFalse(optionTextIndex.isMatched(1));
+        assertEquals(3, optionTextIndex.size());
+        assertEquals(listOf("3=false", "4=false"), listener.sortedChanges());
+    }
+
+    @Test
+    public void split() {
+        assertArrayEquals(new String[]{"cote", "d", "ivoire"}, OptionTextIndex.split("C\u00f4te d'Ivoire"));
+        assertArrayEquals(new String[0], OptionTextIndex.split(null));
+    }
+
+    private static List<String> listOf(String... values) {
+        List<String> list = new ArrayList<>();
+        Collections.addAll(list, values);
+        return list;
+    }
+
+    private static class RecordingListener implements OptionTextIndex.OnMatchChangedListener {
+
+        final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void onMatchChanged(int id, boolean matched) {
+            changes.add(id + "=" + matched);
+        }
+
+        List<String> sortedChanges() {
+            List<String> sortedChanges = new ArrayList<>(changes);
+            Collections.sort(sortedChanges);
+            return sortedChanges;
+        }
+    }
+}
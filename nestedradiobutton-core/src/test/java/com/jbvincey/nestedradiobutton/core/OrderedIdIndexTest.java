@@ -0,0 +1,275 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrderedIdIndexTest {
+
+    private OrderedIdIndex orderedIdIndex;
+
+    @Before
+    public void setup() {
+        orderedIdIndex = new OrderedIdIndex();
+    }
+
+    @Test
+    public void add() {
+        //when
+        orderedIdIndex.add(30);
+        orderedIdIndex.add(10);
+        boolean added = orderedIdIndex.add(30);
+
+        //then
+        assertFalse(added);
+        assertEquals(2, orderedIdIndex.size());
+        assertEquals(30, orderedIdIndex.getId(0));
+        assertEquals(1, orderedIdIndex.indexOf(10));
+        assertEquals(OrderedIdIndex.NOT_FOUND, orderedIdIndex.indexOf(20));
+    }
+
+    @Test
+    public void remove() {
+        //given
+        orderedIdIndex.add(1);
+        orderedIdIndex.add(2);
+        orderedIdIndex.add(3);
+
+        //when
+        boolean removed = orderedIdIndex.remove(2);
+
+        //then
+        assertTrue(removed);
+        assertFalse(orderedIdIndex.remove(2));
+        assertArrayEquals(new int[]{1, 3}, orderedIdIndex.toArray());
+        assertEquals(1, orderedIdIndex.indexOf(3));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getId_outOfBounds() {
+        orderedIdIndex.getId(0);
+    }
+
+    @Test
+    public void randomOperations_matchList() {
+        //given
+        Random random = new Random(42);
+        List<Integer> expected = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 20000; i++) {
+            int id = 0x7f0a0000 + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(Integer.valueOf(id)), orderedIdIndex.remove(id));
+            } else if (!expected.contains(id)) {
+                expected.add(id);
+                assertTrue(orderedIdIndex.add(id));
+            }
+        }
+
+        //then
+        assertEquals(expected.size(), orderedIdIndex.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals((int) expected.get(i), orderedIdIndex.getId(i));
+            assertEquals(i, orderedIdIndex.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void findNext_skipsUnmatchedFlags() {
+        //given
+        OrderedIdIndex index = new OrderedIdIndex();
+        for (int id = 10; id < 15; id++) {
+            index.add(id);
+            index.setFlags(id, 1);
+        }
+        index.setFlags(12, 0);
+
+        //then
+        assertEquals(3, index.findNext(1, true, 1, false));
+        assertEquals(1, index.findNext(3, false, 1, false));
+        assertEquals(0, index.findNext(-1, true, 1, false));
+        assertEquals(4, index.findNext(index.size(), false, 1, false));
+    }
+
+    @Test
+    public void findNext_wrap() {
+        //given
+        OrderedIdIndex index = new OrderedIdIndex();
+        index.add(10);
+        index.add(11);
+        index.add(12);
+        index.setFlags(10, 1);
+        index.setFlags(12, 1);
+
+        //then
+        assertEquals(OrderedIdIndex.NOT_FOUND, index.findNext(2, true, 1, false));
+        assertEquals(0, index.findNext(2, true, 1, true));
+        assertEquals(2, index.findNext(0, false, 1, true));
+        assertEquals(OrderedIdIndex.NOT_FOUND, index.findNext(0, true, 2, true));
+    }
+
+    @Test
+    public void remove_shiftsFlags() {
+        //given
+        OrderedIdIndex index = new OrderedIdIndex();
+        index.add(10);
+        index.add(11);
+        index.setFlags(11, 3);
+
+        //when
+        index.remove(10);
+
+        //then
+        assertEquals(3, index.getFlagsAt(0));
+    }
+
+    @Test
+    public void remove_thenAddAgain_movesToEnd() {
+        //given
+        orderedIdIndex.add(1);
+        orderedIdIndex.add(2);
+        orderedIdIndex.add(3);
+
+        //when
+        orderedIdIndex.remove(1);
+        orderedIdIndex.add(1);
+        orderedIdIndex.remove(2);
+
+        //then
+        assertArrayEquals(new int[]{3, 1}, orderedIdIndex.toArray());
+        assertEquals(1, orderedIdIndex.indexOf(1));
+    }
+
+    @Test
+    public void reorder_keepsOtherPositions() {
+        //given
+        for (int id = 1; id <= 5; id++) {
+            orderedIdIndex.add(id);
+        }
+        orderedIdIndex.setFlags(4, 7);
+        orderedIdIndex.remove(3);
+
+        //when
+        orderedIdIndex.reorder(new int[]{5, 4, 1, 42});
+
+        //then
+        assertArrayEquals(new int[]{5, 2, 4, 1}, orderedIdIndex.toArray());
+        assertEquals(0, orderedIdIndex.indexOf(5));
+        assertEquals(3, orderedIdIndex.indexOf(1));
+        assertEquals(7, orderedIdIndex.getFlagsAt(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reorder_duplicateId() {
+        //given
+        orderedIdIndex.add(1);
+        orderedIdIndex.add(2);
+
+        //when
+        orderedIdIndex.reorder(new int[]{2, 2});
+    }
+
+    @Test
+    public void setFlags_beforeCompaction() {
+        //given
+        orderedIdIndex.add(10);
+        orderedIdIndex.add(11);
+        orderedIdIndex.add(12);
+        orderedIdIndex.remove(10);
+
+        //when
+        orderedIdIndex.setFlags(12, 5);
+
+        //then
+        assertEquals(0, orderedIdIndex.getFlagsAt(0));
+        assertEquals(5, orderedIdIndex.getFlagsAt(1));
+    }
+
+    @Test
+    public void randomOperations_interleavedLookups_matchList() {
+        //given
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(500);
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                assertEquals(expected.remove(Integer.valueOf(id)), orderedIdIndex.remove(id));
+            } else if (operation == 1) {
+                //then
+                assertEquals(expected.indexOf(id), orderedIdIndex.indexOf(id));
+            } else if (!expected.contains(id)) {
+                expected.add(id);
+                assertTrue(orderedIdIndex.add(id));
+            }
+            assertEquals(expected.size(), orderedIdIndex.size());
+        }
+    }
+
+    @Test
+    public void randomOperations_partialCompaction_matchList() {
+        //given
+        Random random = new Random(11);
+        List<Integer> expected = new ArrayList<>();
+        List<Integer> expectedFlags = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(300);
+            int operation = random.nextInt(5);
+            if (operation == 0) {
+                int position = expected.indexOf(id);
+                if (position >= 0) {
+                    expectedFlags.remove(position);
+                }
+                assertEquals(expected.remove(Integer.valueOf(id)), orderedIdIndex.remove(id));
+            } else if (operation == 1 && !expected.isEmpty()) {
+                //then
+                int position = random.nextInt(expected.size());
+                assertEquals((int) expected.get(position), orderedIdIndex.getId(position));
+                assertEquals((int) expectedFlags.get(position), orderedIdIndex.getFlagsAt(position));
+            } else if (operation == 2) {
+                assertEquals(expected.indexOf(id), orderedIdIndex.indexOf(id));
+            } else if (operation == 3 && expected.contains(id)) {
+                expectedFlags.set(expected.indexOf(id), i);
+                assertTrue(orderedIdIndex.setFlags(id, i));
+            } else if (!expected.contains(id)) {
+                expected.add(id);
+                expectedFlags.add(0);
+                assertTrue(orderedIdIndex.add(id));
+            }
+        }
+        int[] expectedIds = new int[expected.size()];
+        for (int i = 0; i < expectedIds.length; i++) {
+            expectedIds[i] = expected.get(i);
+        }
+        assertArrayEquals(expectedIds, orderedIdIndex.toArray());
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SelectionEngineTest {
+
+    private RecordingSelectionEngine selectionEngine;
+
+    @Before
+    public void setup() {
+        selectionEngine = new RecordingSelectionEngine();
+    }
+
+    @Test
+    public void initCheckedId() {
+        //when
+        selectionEngine.initCheckedId(12345);
+
+        //then
+        assertEquals(12345, selectionEngine.getCheckedId());
+        assertEquals(12345, selectionEngine.getInitialCheckedId());
+        assertFalse(selectionEngine.isCheckedIdModified());
+        assertTrue(selectionEngine.dispatchedIds.isEmpty());
+    }
+
+    @Test
+    public void check() {
+        //given
+        selectionEngine.initCheckedId(12345);
+
+        //when
+        selectionEngine.check(54321);
+
+        //then
+        assertEquals(54321, selectionEngine.getCheckedId());
+        assertTrue(selectionEngine.isCheckedIdModified());
+        assertEquals("12345=false", selectionEngine.appliedStates.get(0));
+        assertEquals("54321=true", selectionEngine.appliedStates.get(1));
+        assertEquals(1, selectionEngine.dispatchedIds.size());
+    }
+
+    @Test
+    public void check_sameId() {
+        //given
+        selectionEngine.check(12345);
+
+        //when
+        selectionEngine.check(12345);
+
+        //then
+        assertEquals(1, selectionEngine.dispatchedIds.size());
+    }
+
+    @Test
+    public void clearCheck() {
+        //given
+        selectionEngine.check(12345);
+
+        //when
+        selectionEngine.clearCheck();
+
+        //then
+        assertEquals(SelectionEngine.NO_ID, selectionEngine.getCheckedId());
+        assertEquals(Integer.valueOf(SelectionEngine.NO_ID), selectionEngine.dispatchedIds.get(1));
+    }
+
+    @Test
+    public void restoreCheckedId_appliedOnRegistration() {
+        //given
+        selectionEngine.restoreCheckedId(12345);
+
+        //when
+        selectionEngine.onButtonRegistered(12345);
+
+        //then
+        assertEquals(12345, selectionEngine.getCheckedId());
+        assertEquals(1, selectionEngine.appliedStates.size());
+        assertEquals(1, selectionEngine.dispatchedIds.size());
+    }
+
+    @Test
+    public void onButtonRegistered_checkedId() {
+        //given
+        selectionEngine.initCheckedId(12345);
+
+        //when
+        selectionEngine.onButtonRegistered(12345);
+
+        //then
+        assertEquals("12345=true", selectionEngine.appliedStates.get(0));
+        assertEquals(Integer.valueOf(12345), selectionEngine.dispatchedIds.get(0));
+    }
+
+    @Test
+    public void onButtonRegistered_otherId() {
+        //given
+        selectionEngine.initCheckedId(12345);
+
+        //when
+        selectionEngine.onButtonRegistered(54321);
+
+        //then
+        assertTrue(selectionEngine.appliedStates.isEmpty());
+        assertTrue(selectionEngine.dispatchedIds.isEmpty());
+    }
+
+    @Test
+    public void onButtonChecked() {
+        //given
+        selectionEngine.check(12345);
+
+        //when
+        selectionEngine.onButtonChecked(54321);
+
+        //then
+        assertEquals(54321, selectionEngine.getCheckedId());
+        assertEquals("12345=false", selectionEngine.appliedStates.get(1));
+        assertEquals(2, selectionEngine.dispatchedIds.size());
+    }
+
+    @Test
+    public void batch_dispatchesNetChangeOnce() {
+        //given
+        selectionEngine.initCheckedId(1);
+
+        //when
+        selectionEngine.beginBatch();
+        selectionEngine.check(2);
+        selectionEngine.check(3);
+        selectionEngine.clearCheck();
+        selectionEngine.check(4);
+        selectionEngine.endBatch();
+
+        //then
+        assertEquals(4, selectionEngine.getCheckedId());
+        assertEquals(1, selectionEngine.dispatchedIds.size());
+        assertEquals(2, selectionEngine.appliedStates.size());
+        assertEquals("1=false", selectionEngine.appliedStates.get(0));
+        assertEquals("4=true", selectionEngine.appliedStates.get(1));
+    }
+
+    @Test
+    public void batch_noNetChange() {
+        //given
+        selectionEngine.initCheckedId(1);
+
+        //when
+        selectionEngine.beginBatch();
+        selectionEngine.check(2);
+        selectionEngine.check(1);
+        selectionEngine.endBatch();
+
+        //then
+        assertTrue(selectionEngine.dispatchedIds.isEmpty());
+        assertTrue(selectionEngine.appliedStates.isEmpty());
+    }
+
+    @Test
+    public void batch_nested() {
+        //when
+        selectionEngine.beginBatch();
+        selectionEngine.beginBatch();
+        selectionEngine.check(2);
+        selectionEngine.endBatch();
+
+        //then
+        assertTrue(selectionEngine.dispatchedIds.isEmpty());
+
+        //when
+        selectionEngine.endBatch();
+
+        //then
+        assertEquals(1, selectionEngine.dispatchedIds.size());
+    }
+
+    @Test
+    public void batch_buttonCheckedByUser() {
+        //given
+        selectionEngine.check(1);
+
+        //when
+        selectionEngine.beginBatch();
+        selectionEngine.onButtonChecked(2);
+        selectionEngine.check(3);
+        selectionEngine.endBatch();
+
+        //then
+        assertEquals(3, selectionEngine.getCheckedId());
+        assertEquals("1=false", selectionEngine.appliedStates.get(1));
+        assertEquals("2=false", selectionEngine.appliedStates.get(2));
+        assertEquals("3=true", selectionEngine.appliedStates.get(3));
+        assertEquals(2, selectionEngine.dispatchedIds.size());
+    }
+
+    @Test
+    public void runInBatch() {
+        //when
+        selectionEngine.runInBatch(new Runnable() {
+            @Override
+            public void run() {
+                selectionEngine.check(2);
+                selectionEngine.check(3);
+            }
+        });
+
+        //then
+        assertFalse(selectionEngine.isInBatch());
+        assertEquals(1, selectionEngine.dispatchedIds.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void endBatch_withoutBeginBatch() {
+        selectionEngine.endBatch();
+    }
+
+    @Test
+    public void getSnapshot_initiallyEmpty() {
+        //when
+        SelectionSnapshot snapshot = selectionEngine.getSnapshot();
+
+        //then
+        assertEquals(SelectionEngine.NO_ID, snapshot.getCheckedId());
+        assertEquals(0, snapshot.getSelectedIds().length);
+        assertEquals(0, snapshot.getVersion());
+    }
+
+    @Test
+    public void check_publishesSnapshot() {
+        //given
+        selectionEngine.check(12345);
+        SelectionSnapshot before = selectionEngine.getSnapshot();
+
+        //when
+        selectionEngine.check(54321);
+
+        //then
+        SelectionSnapshot after = selectionEngine.getSnapshot();
+        assertEquals(12345, before.getCheckedId());
+        assertEquals(54321, after.getCheckedId());
+        assertTrue(after.isSelected(54321));
+        assertFalse(after.isSelected(12345));
+        assertTrue(after.getVersion() > before.getVersion());
+    }
+
+    @Test
+    public void check_inBatch_publishesOnlyNetChange() {
+        //given
+        selectionEngine.beginBatch();
+        selectionEngine.check(1);
+        selectionEngine.check(2);
+
+        //when
+        long versionInBatch = selectionEngine.getSnapshot().getVersion();
+        selectionEngine.endBatch();
+
+        //then
+        assertEquals(0, versionInBatch);
+        assertEquals(2, selectionEngine.getSnapshot().getCheckedId());
+        assertEquals(1, selectionEngine.getSnapshot().getVersion());
+    }
+
+    private static class RecordingSelectionEngine extends SelectionEngine {
+
+        final List<String> appliedStates = new ArrayList<>();
+        final List<Integer> dispatchedIds = new ArrayList<>();
+
+        @Override
+        protected void setCheckedId(int id) {
+            super.setCheckedId(id);
+            dispatchedIds.add(id);
+        }
+
+        @Override
+        protected void setCheckedState(int id, boolean checked) {
+            appliedStates.add(id + "=" + checked);
+        }
+    }
+}
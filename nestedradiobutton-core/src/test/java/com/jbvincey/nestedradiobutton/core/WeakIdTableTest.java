@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WeakIdTableTest {
+
+    private WeakIdTable<Object> table;
+
+    @Before
+    public void setup() {
+        table = new WeakIdTable<>();
+    }
+
+    @Test
+    public void putGet() {
+        //given
+        Object value = new Object();
+
+        //when
+        table.put(12345, value);
+
+        //then
+        assertSame(value, table.get(12345));
+        assertNull(table.get(54321));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void put_replacesValue() {
+        //given
+        Object value = new Object();
+        Object otherValue = new Object();
+        table.put(12345, value);
+
+        //when
+        table.put(12345, otherValue);
+
+        //then
+        assertSame(otherValue, table.get(12345));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void remove() {
+        //given
+        Object value = new Object();
+        table.put(12345, value);
+
+        //when
+        boolean removed = table.remove(12345);
+
+        //then
+        assertTrue(removed);
+        assertFalse(table.remove(12345));
+        assertNull(table.get(12345));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void randomOperations_matchHashMap() {
+        //given
+        Map<Integer, Object> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        //when
+        for (int i = 0; i < 20000; i++) {
+            int id = 0x7f0a0000 + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id) != null, table.remove(id));
+            } else {
+                Object value = new Object();
+                expected.put(id, value);
+                table.put(id, value);
+            }
+        }
+
+        //then
+        assertEquals(expected.size(), table.size());
+        for (Map.Entry<Integer, Object> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), table.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void collectedValues_purged() {
+        //given
+        for (int id = 0; id < 1000; id++) {
+            table.put(id, new Object());
+        }
+        Object kept = new Object();
+        table.put(5000, kept);
+
+        //when
+        for (int i = 0; i < 10 && table.size() > 1; i++) {
+            System.gc();
+        }
+
+        //then
+        assertEquals(1, table.size());
+        assertSame(kept, table.get(5000));
+        assertNull(table.get(10));
+    }
+}
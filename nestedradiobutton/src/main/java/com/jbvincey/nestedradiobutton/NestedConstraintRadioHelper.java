@@ -0,0 +1,342 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.os.Parcelable;
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.support.constraint.ConstraintHelper;
+import android.support.constraint.ConstraintLayout;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.RadioGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>This class is used to create a multiple-exclusion scope for the radio buttons referenced by
+ * app:constraint_referenced_ids, within an existing {@link ConstraintLayout}. Checking one radio
+ * button unchecks any previously checked radio button referenced by the same helper.</p>
+ *
+ * <p>Contrary to {@link NestedConstraintRadioGroup}, it does not add a layout level: like a
+ * constraint Group, it is a view without size declared next to the radio buttons.</p>
+ *
+ * <p>Referenced radio buttons must be direct children of the ConstraintLayout. They find their
+ * helper when they are attached, whatever the declaration order, through an index of the
+ * referenced ids built once per attached ConstraintLayout.</p>
+ *
+ * @see NestedRadioButton
+ */
+
+public class NestedConstraintRadioHelper extends ConstraintHelper implements NestedRadioGroupTrackingInterface {
+
+    @NonNull
+    private NestedRadioGroupManager nestedRadioGroupManager;
+
+    public NestedConstraintRadioHelper(@NonNull Context context) {
+        super(context);
+        init();
+    }
+
+    public NestedConstraintRadioHelper(@NonNull Context context, @NonNull AttributeSet attrs) {
+        super(context, attrs);
+        init();
+        initAttrs(context, attrs);
+    }
+
+    public NestedConstraintRadioHelper(@NonNull Context context, @NonNull AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+        initAttrs(context, attrs);
+    }
+
+    private void init() {
+        nestedRadioGroupManager = new NestedRadioGroupManager(this);
+    }
+
+    private void initAttrs(@NonNull Context context, @NonNull AttributeSet attrs) {
+        TypedArray attributes = context.obtainStyledAttributes(attrs, R.styleable.NestedRadioGroup, R.attr.radioButtonStyle, 0);
+
+        int value = attributes.getResourceId(R.styleable.NestedRadioGroup_checkedButton, View.NO_ID);
+        if (value != View.NO_ID) {
+            nestedRadioGroupManager.initCheckedId(value);
+        }
+
+        final int selectionMode = attributes.getInt(R.styleable.NestedRadioGroup_selectionMode, NestedRadioGroupManager.SELECTION_MODE_SINGLE);
+        nestedRadioGroupManager.setSelectionMode(selectionMode);
+        if (attributes.hasValue(R.styleable.NestedRadioGroup_maxSelected)) {
+            nestedRadioGroupManager.setMaxSelected(attributes.getInt(R.styleable.NestedRadioGroup_maxSelected, 0));
+        }
+        final String sharedGroupName = attributes.getString(R.styleable.NestedRadioGroup_sharedGroup);
+        if (sharedGroupName != null) {
+            nestedRadioGroupManager.setSharedGroup(NestedRadioSharedGroup.get(sharedGroupName));
+        }
+
+        attributes.recycle();
+    }
+
+    /**
+     * @param container the parent of a radio button
+     * @param id        the id of the radio button
+     * @return the helper of the container referencing the radio button, null if none
+     */
+    static NestedConstraintRadioHelper findReferencingHelper(ViewGroup container, @IdRes int id) {
+        ReferenceIndex referenceIndex = (ReferenceIndex) container.getTag(R.id.nested_radio_helper_index);
+        // while detached, the helpers do not report their changes: rebuilt if children were added
+        // or removed, e.g. during inflation
+        if (referenceIndex == null || (!referenceIndex.attached && referenceIndex.childCount != container.getChildCount())) {
+            if (referenceIndex != null) {
+                referenceIndex.drop();
+            }
+            referenceIndex = new ReferenceIndex(container);
+        }
+        return referenceIndex.helpersById.get(id);
+    }
+
+    @Override
+    public void setReferencedIds(int[] ids) {
+        super.setReferencedIds(ids);
+        dropReferenceIndex();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        ViewParent parent = getParent();
+        if (!(parent instanceof ViewGroup)) {
+            return;
+        }
+        ViewGroup container = (ViewGroup) parent;
+        ReferenceIndex referenceIndex = (ReferenceIndex) container.getTag(R.id.nested_radio_helper_index);
+        if (referenceIndex != null && referenceIndex.attached && !referenceIndex.helpers.contains(this)) {
+            // added to an attached container: its radio buttons may be registered elsewhere
+            referenceIndex.add(this);
+            for (int i = 0, count = container.getChildCount(); i < count; i++) {
+                View child = container.getChildAt(i);
+                if (child instanceof NestedRadioButton && referenceIndex.helpersById.get(child.getId()) == this) {
+                    ((NestedRadioButton) child).bindReferencingHelper(this);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        dropReferenceIndex();
+    }
+
+    private void dropReferenceIndex() {
+        ViewParent parent = getParent();
+        if (parent instanceof ViewGroup) {
+            ReferenceIndex referenceIndex = (ReferenceIndex) ((ViewGroup) parent).getTag(R.id.nested_radio_helper_index);
+            if (referenceIndex != null) {
+                referenceIndex.drop();
+            }
+        }
+    }
+
+    @Override
+    public void addNestedRadioButton(NestedRadioButton nestedRadioButton) {
+        nestedRadioGroupManager.addNestedRadioButton(nestedRadioButton);
+    }
+
+    @Override
+    public void removeNestedRadioButton(NestedRadioButton nestedRadioButton) {
+        nestedRadioGroupManager.removeNestedRadioButton(nestedRadioButton);
+    }
+
+    @Override
+    public void onNestedRadioButtonStateChanged(NestedRadioButton nestedRadioButton) {
+        nestedRadioGroupManager.onNestedRadioButtonStateChanged(nestedRadioButton);
+    }
+
+    /**
+     * <p>Register a callback to be invoked when the checked radio button
+     * changes in this group.</p>
+     *
+     * @param listener the callback to call on checked state change
+     */
+    public void setOnCheckedChangeListener(NestedRadioGroupManager.OnCheckedChangeListener listener) {
+        nestedRadioGroupManager.setOnCheckedChangeListener(listener);
+    }
+
+    /**
+     * @param listener an additional callback to call on checked state change
+     * @see NestedRadioGroupManager#addOnCheckedChangeListener(NestedRadioGroupManager.OnCheckedChangeListener)
+     */
+    public void addOnCheckedChangeListener(@NonNull NestedRadioGroupManager.OnCheckedChangeListener listener) {
+        nestedRadioGroupManager.addOnCheckedChangeListener(listener);
+    }
+
+    public void removeOnCheckedChangeListener(NestedRadioGroupManager.OnCheckedChangeListener listener) {
+        nestedRadioGroupManager.removeOnCheckedChangeListener(listener);
+    }
+
+    /**
+     * <p>Sets the selection to the radio button whose identifier is passed in
+     * parameter. Using -1 as the selection identifier clears the selection.</p>
+     *
+     * @param id the unique id of the radio button to select in this group
+     */
+    public void check(@IdRes int id) {
+        nestedRadioGroupManager.check(id);
+    }
+
+    public void clearCheck() {
+        nestedRadioGroupManager.clearCheck();
+    }
+
+    /**
+     * @return the unique id of the checked radio button in this group, -1 if none
+     */
+    @IdRes
+    public int getCheckedRadioButtonId() {
+        return nestedRadioGroupManager.getCheckedId();
+    }
+
+    /**
+     * @return an immutable snapshot of the selection, which can be read from any thread
+     * @see NestedRadioGroupManager#getSelection()
+     */
+    @NonNull
+    public NestedRadioSelection getSelection() {
+        return nestedRadioGroupManager.getSelection();
+    }
+
+    /**
+     * @see NestedRadioGroupManager#checkAsync(int)
+     */
+    public void checkAsync(@IdRes int id) {
+        nestedRadioGroupManager.checkAsync(id);
+    }
+
+    /**
+     * @see NestedRadioGroupManager#addChildGroup(int, NestedRadioGroupManager)
+     */
+    public void addChildRadioGroup(@IdRes int id, @NonNull NestedRadioGroupInterface childGroup) {
+        nestedRadioGroupManager.addChildGroup(id, NestedRadioGroupManager.getNestedRadioGroupManager(childGroup));
+    }
+
+    public void removeChildRadioGroup(@NonNull NestedRadioGroupInterface childGroup) {
+        nestedRadioGroupManager.removeChildGroup(NestedRadioGroupManager.getNestedRadioGroupManager(childGroup));
+    }
+
+    NestedRadioGroupManager getNestedRadioGroupManager() {
+        return nestedRadioGroupManager;
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        NestedRadioGroupSavedState savedState = new NestedRadioGroupSavedState(super.onSaveInstanceState());
+        nestedRadioGroupManager.saveInstanceState(savedState);
+        return savedState;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof NestedRadioGroupSavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        NestedRadioGroupSavedState savedState = (NestedRadioGroupSavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        nestedRadioGroupManager.restoreInstanceState(savedState);
+    }
+
+    @Override
+    public CharSequence getAccessibilityClassName() {
+        return RadioGroup.class.getName();
+    }
+
+    /**
+     * <p>Ids referenced by the helpers of a container, the first helper in child order winning.</p>
+     *
+     * <p>Built by a single scan of the children, so that a container without helper only pays
+     * it once. While the container is attached, the index is kept as radio buttons are added or
+     * removed, and updated by its helpers when they are attached; it is dropped when a helper is
+     * detached or changes its references, and when the container is attached or detached.</p>
+     */
+    private static final class ReferenceIndex implements View.OnAttachStateChangeListener {
+
+        final ViewGroup container;
+        final boolean attached;
+        final int childCount;
+        final List<NestedConstraintRadioHelper> helpers = new ArrayList<>(1);
+        final SparseArray<NestedConstraintRadioHelper> helpersById = new SparseArray<>();
+
+        ReferenceIndex(ViewGroup container) {
+            this.container = container;
+            attached = container.getWindowToken() != null;
+            childCount = container.getChildCount();
+            for (int i = 0; i < childCount; i++) {
+                View child = container.getChildAt(i);
+                if (child instanceof NestedConstraintRadioHelper) {
+                    helpers.add((NestedConstraintRadioHelper) child);
+                }
+            }
+            indexIds();
+            container.setTag(R.id.nested_radio_helper_index, this);
+            container.addOnAttachStateChangeListener(this);
+        }
+
+        void add(NestedConstraintRadioHelper helper) {
+            int childIndex = container.indexOfChild(helper);
+            int position = 0;
+            while (position < helpers.size() && container.indexOfChild(helpers.get(position)) < childIndex) {
+                position++;
+            }
+            helpers.add(position, helper);
+            indexIds();
+        }
+
+        private void indexIds() {
+            helpersById.clear();
+            for (int i = 0, size = helpers.size(); i < size; i++) {
+                NestedConstraintRadioHelper helper = helpers.get(i);
+                for (int j = 0; j < helper.mCount; j++) {
+                    if (helpersById.get(helper.mIds[j]) == null) {
+                        helpersById.put(helper.mIds[j], helper);
+                    }
+                }
+            }
+        }
+
+        void drop() {
+            container.removeOnAttachStateChangeListener(this);
+            if (container.getTag(R.id.nested_radio_helper_index) == this) {
+                container.setTag(R.id.nested_radio_helper_index, null);
+            }
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View view) {
+            drop();
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View view) {
+            drop();
+        }
+    }
+}
@@ -20,16 +20,22 @@ import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.os.Build;
+import android.os.Parcelable;
+import android.support.annotation.IdRes;
 import android.support.annotation.NonNull;
 import android.support.v7.widget.LinearLayoutCompat;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.KeyEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewStructure;
 import android.view.autofill.AutofillValue;
 import android.widget.RadioGroup;
 
+import java.io.PrintWriter;
+import java.util.List;
+
 /**
  * Created by jean-baptistevincey on 11/01/2018.
  *
@@ -51,12 +57,18 @@ import android.widget.RadioGroup;
  * @see NestedRadioButton
  */
 
-public class NestedLinearRadioGroup extends LinearLayoutCompat implements NestedRadioGroupInterface {
+public class NestedLinearRadioGroup extends LinearLayoutCompat implements NestedRadioGroupTrackingInterface {
     private static final String LOG_TAG = NestedLinearRadioGroup.class.getSimpleName();
 
     @NonNull
     private NestedRadioGroupManager nestedRadioGroupManager;
 
+    @NonNull
+    private NestedRadioGroupHierarchyListener nestedRadioGroupHierarchyListener;
+
+    // radio buttons built from options, created on the first submitOptions
+    private NestedRadioOptionList optionList;
+
     public NestedLinearRadioGroup(@NonNull Context context) {
         super(context);
         setOrientation(VERTICAL);
@@ -76,7 +88,9 @@ public class NestedLinearRadioGroup extends LinearLayoutCompat implements Nested
     }
 
     private void init() {
-        nestedRadioGroupManager = new NestedRadioGroupManager();
+        nestedRadioGroupManager = new NestedRadioGroupManager(this);
+        nestedRadioGroupHierarchyListener = new NestedRadioGroupHierarchyListener(this);
+        super.setOnHierarchyChangeListener(nestedRadioGroupHierarchyListener);
     }
 
     private void initAttrs(@NonNull Context context, @NonNull AttributeSet attrs) {
@@ -93,8 +107,18 @@ public class NestedLinearRadioGroup extends LinearLayoutCompat implements Nested
         if (value != View.NO_ID) {
             nestedRadioGroupManager.initCheckedId(value);
         }
+
+        final int selectionMode = attributes.getInt(R.styleable.NestedRadioGroup_selectionMode, NestedRadioGroupManager.SELECTION_MODE_SINGLE);
+        nestedRadioGroupManager.setSelectionMode(selectionMode);
+        if (attributes.hasValue(R.styleable.NestedRadioGroup_maxSelected)) {
+            nestedRadioGroupManager.setMaxSelected(attributes.getInt(R.styleable.NestedRadioGroup_maxSelected, 0));
+        }
         final int index = attributes.getInt(R.styleable.NestedRadioGroup_orientation, VERTICAL);
         setOrientation(index);
+        final String sharedGroupName = attributes.getString(R.styleable.NestedRadioGroup_sharedGroup);
+        if (sharedGroupName != null) {
+            nestedRadioGroupManager.setSharedGroup(NestedRadioSharedGroup.get(sharedGroupName));
+        }
 
         attributes.recycle();
     }
@@ -104,6 +128,144 @@ public class NestedLinearRadioGroup extends LinearLayoutCompat implements Nested
         nestedRadioGroupManager.addNestedRadioButton(nestedRadioButton);
     }
 
+    @Override
+    public void removeNestedRadioButton(NestedRadioButton nestedRadioButton) {
+        nestedRadioGroupManager.removeNestedRadioButton(nestedRadioButton);
+    }
+
+    @Override
+    public void onNestedRadioButtonStateChanged(NestedRadioButton nestedRadioButton) {
+        nestedRadioGroupManager.onNestedRadioButtonStateChanged(nestedRadioButton);
+    }
+
+    /**
+     * <p>Sets the options of this group, creating a radio button for each of them. On later
+     * calls, only the radio buttons of changed options are touched: options are matched by key,
+     * and the radio buttons of removed, added, moved or changed options are updated. The
+     * checked option is kept if it is still there, otherwise the selection is cleared with a
+     * single change event.</p>
+     *
+     * <p>Radio buttons of options are added as direct children of this group, other children
+     * should not be mixed with them.</p>
+     *
+     * @param options the options, with distinct keys
+     * @see NestedRadioGroupBuilder
+     */
+    public void submitOptions(@NonNull List<NestedRadioOption> options) {
+        if (optionList == null) {
+            optionList = new NestedRadioOptionList(this, new NestedRadioGroupBuilder(getContext()));
+        }
+        optionList.submitOptions(options);
+    }
+
+    /**
+     * @param key the key of an option set with {@link #submitOptions(List)}
+     * @return the id of the radio button of the option, -1 if none
+     */
+    @IdRes
+    public int getOptionId(String key) {
+        return optionList != null ? optionList.getId(key) : View.NO_ID;
+    }
+
+    void setOptionList(NestedRadioOptionList optionList) {
+        this.optionList = optionList;
+    }
+
+    /**
+     * <p>Ties a child group to a radio button of this group: the radio buttons of the child group
+     * are enabled only while the radio button is checked, and the child group is cleared when it
+     * gets unchecked.</p>
+     *
+     * @param id         the unique id of the gating radio button in this group
+     * @param childGroup the child group
+     * @see NestedRadioGroupManager#addChildGroup(int, NestedRadioGroupManager)
+     */
+    public void addChildRadioGroup(@IdRes int id, @NonNull NestedRadioGroupInterface childGroup) {
+        nestedRadioGroupManager.addChildGroup(id, NestedRadioGroupManager.getNestedRadioGroupManager(childGroup));
+    }
+
+    public void removeChildRadioGroup(@NonNull NestedRadioGroupInterface childGroup) {
+        nestedRadioGroupManager.removeChildGroup(NestedRadioGroupManager.getNestedRadioGroupManager(childGroup));
+    }
+
+    NestedRadioGroupManager getNestedRadioGroupManager() {
+        return nestedRadioGroupManager;
+    }
+
+    /**
+     * <p>Takes a child out of this group without detaching it from the window, so that a radio
+     * button stays registered until {@link #attachChild(View, int)} puts it back.</p>
+     */
+    void detachChild(View child) {
+        detachViewFromParent(child);
+    }
+
+    void attachChild(View child, int index) {
+        attachViewToParent(child, index, child.getLayoutParams());
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * <p>Binds this group to a shared group so that it forms a single selection with the other
+     * groups bound to it, e.g. on other pages of a ViewPager.</p>
+     *
+     * @param sharedGroup the shared group, or null to unbind this group
+     * @throws IllegalStateException if radio buttons are already registered in this group
+     * @see NestedRadioSharedGroup#get(String)
+     */
+    public void setSharedGroup(NestedRadioSharedGroup sharedGroup) {
+        nestedRadioGroupManager.setSharedGroup(sharedGroup);
+    }
+
+    /**
+     * <p>Shows only the radio buttons whose label matches the filter text, e.g. as the user
+     * types. The checked radio button stays checked when filtered out.</p>
+     *
+     * @param filterText the filter text, null or blank to show all the radio buttons
+     * @see NestedRadioGroupManager#setFilterText(CharSequence)
+     */
+    public void setFilterText(CharSequence filterText) {
+        nestedRadioGroupManager.setFilterText(filterText);
+    }
+
+    /**
+     * @param keyNavigationEnabled true to move the focus between the radio buttons of this group
+     *                             with the arrow keys
+     * @see NestedRadioGroupManager#setKeyNavigationEnabled(boolean)
+     */
+    public void setKeyNavigationEnabled(boolean keyNavigationEnabled) {
+        nestedRadioGroupManager.setKeyNavigationEnabled(keyNavigationEnabled);
+    }
+
+    /**
+     * @param selectionFollowsFocus true to check the radio buttons focused by key navigation
+     */
+    public void setSelectionFollowsFocus(boolean selectionFollowsFocus) {
+        nestedRadioGroupManager.setSelectionFollowsFocus(selectionFollowsFocus);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return super.dispatchKeyEvent(event) || nestedRadioGroupManager.onNavigationKeyEvent(event, findFocus());
+    }
+
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        // registers the radio buttons listed by a generated binding table, if any
+        nestedRadioGroupManager.registerBindingTable();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setOnHierarchyChangeListener(OnHierarchyChangeListener listener) {
+        // the listener binding nested radio buttons to this group is kept, the app listener is notified through it
+        nestedRadioGroupHierarchyListener.setOnHierarchyChangeListener(listener);
+    }
+
     /**
      * <p>Register a callback to be invoked when the checked radio button
      * changes in this group.</p>
@@ -114,6 +276,227 @@ public class NestedLinearRadioGroup extends LinearLayoutCompat implements Nested
         nestedRadioGroupManager.setOnCheckedChangeListener(listener);
     }
 
+    /**
+     * @param listener an additional callback to call on checked state change
+     * @see NestedRadioGroupManager#addOnCheckedChangeListener(NestedRadioGroupManager.OnCheckedChangeListener)
+     */
+    public void addOnCheckedChangeListener(@NonNull NestedRadioGroupManager.OnCheckedChangeListener listener) {
+        nestedRadioGroupManager.addOnCheckedChangeListener(listener);
+    }
+
+    public void removeOnCheckedChangeListener(NestedRadioGroupManager.OnCheckedChangeListener listener) {
+        nestedRadioGroupManager.removeOnCheckedChangeListener(listener);
+    }
+
+    /**
+     * @param dispatchMode {@link NestedRadioGroupManager#DISPATCH_MODE_IMMEDIATE} or
+     *                     {@link NestedRadioGroupManager#DISPATCH_MODE_FRAME}
+     * @see NestedRadioGroupManager#setDispatchMode(int)
+     */
+    public void setDispatchMode(int dispatchMode) {
+        nestedRadioGroupManager.setDispatchMode(dispatchMode);
+    }
+
+    /**
+     * <p>Sets the selection to the radio button whose identifier is passed in
+     * parameter. Using -1 as the selection identifier clears the selection;
+     * such an operation is equivalent to invoking {@link #clearCheck()}.</p>
+     *
+     * @param id the unique id of the radio button to select in this group
+     * @see #clearCheck()
+     */
+    public void check(@IdRes int id) {
+        nestedRadioGroupManager.check(id);
+    }
+
+    public void clearCheck() {
+        nestedRadioGroupManager.clearCheck();
+    }
+
+    /**
+     * @return the unique id of the checked radio button in this group, -1 if none
+     */
+    @IdRes
+    public int getCheckedRadioButtonId() {
+        return nestedRadioGroupManager.getCheckedId();
+    }
+
+    /**
+     * @return an immutable snapshot of the selection, which can be read from any thread
+     * @see NestedRadioGroupManager#getSelection()
+     */
+    @NonNull
+    public NestedRadioSelection getSelection() {
+        return nestedRadioGroupManager.getSelection();
+    }
+
+    /**
+     * <p>Requests to check a radio button from any thread, the check is applied on the main
+     * thread.</p>
+     *
+     * @param id the unique id of the radio button to select, -1 to clear the selection
+     * @see NestedRadioGroupManager#checkAsync(int)
+     */
+    public void checkAsync(@IdRes int id) {
+        nestedRadioGroupManager.checkAsync(id);
+    }
+
+    /**
+     * <p>Register a callback to be invoked when the checked radio button
+     * changes in any scope of this group, see {@link NestedRadioButton#setGroupName(String)}.</p>
+     *
+     * @param listener the callback to call on checked state change
+     */
+    public void setOnScopedCheckedChangeListener(NestedRadioGroupManager.OnScopedCheckedChangeListener listener) {
+        nestedRadioGroupManager.setOnScopedCheckedChangeListener(listener);
+    }
+
+    /**
+     * <p>Sets the selection of the radio buttons sharing the given app:groupName.</p>
+     *
+     * @param groupName the scope name, null for the default scope
+     * @param id        the unique id of the radio button to select in this scope
+     */
+    public void check(String groupName, @IdRes int id) {
+        nestedRadioGroupManager.check(groupName, id);
+    }
+
+    public void clearCheck(String groupName) {
+        nestedRadioGroupManager.clearCheck(groupName);
+    }
+
+    /**
+     * @param groupName the scope name, null for the default scope
+     * @return the unique id of the checked radio button in this scope, -1 if none
+     */
+    @IdRes
+    public int getCheckedRadioButtonId(String groupName) {
+        return nestedRadioGroupManager.getCheckedId(groupName);
+    }
+
+    /**
+     * <p>Sets the selection mode, before radio buttons are attached.</p>
+     *
+     * @param selectionMode {@link NestedRadioGroupManager#SELECTION_MODE_SINGLE} or
+     *                      {@link NestedRadioGroupManager#SELECTION_MODE_MULTIPLE}
+     */
+    public void setSelectionMode(int selectionMode) {
+        nestedRadioGroupManager.setSelectionMode(selectionMode);
+    }
+
+    /**
+     * <p>Sets the maximum number of checked radio buttons in multiple selection mode.</p>
+     *
+     * @param maxSelected the maximum number of checked radio buttons
+     */
+    public void setMaxSelected(int maxSelected) {
+        nestedRadioGroupManager.setMaxSelected(maxSelected);
+    }
+
+    /**
+     * <p>Register a callback to be invoked when radio buttons are checked or unchecked in
+     * multiple selection mode.</p>
+     *
+     * @param listener the callback to call on selection change
+     */
+    public void setOnSelectionChangeListener(NestedRadioGroupManager.OnSelectionChangeListener listener) {
+        nestedRadioGroupManager.setOnSelectionChangeListener(listener);
+    }
+
+    /**
+     * @return the unique ids of the checked radio buttons
+     */
+    public int[] getSelectedIds() {
+        return nestedRadioGroupManager.getSelectedIds();
+    }
+
+    /**
+     * <p>Replaces the checked radio buttons in multiple selection mode, with a single change event.</p>
+     *
+     * @param ids the unique ids of the radio buttons to check
+     */
+    public void setSelection(int[] ids) {
+        nestedRadioGroupManager.setSelection(ids);
+    }
+
+    /**
+     * <p>Checks all the radio buttons in multiple selection mode, with a single change event.</p>
+     */
+    public void selectAll() {
+        nestedRadioGroupManager.selectAll();
+    }
+
+    /**
+     * <p>Inverts the checked radio buttons in multiple selection mode, with a single change event.</p>
+     */
+    public void invertSelection() {
+        nestedRadioGroupManager.invertSelection();
+    }
+
+    /**
+     * <p>Sets the hook reporting registrations, checks and listener dispatches of this group.</p>
+     *
+     * @param metrics the metrics hook, null to disable it
+     */
+    public void setMetrics(NestedRadioMetrics metrics) {
+        nestedRadioGroupManager.setMetrics(metrics);
+    }
+
+    /**
+     * <p>Prints the registry size, checked ids and counters of this group, for diagnostics.</p>
+     *
+     * @param writer the writer to print to
+     */
+    public void dump(PrintWriter writer) {
+        writer.print(LOG_TAG);
+        writer.print(" 0x");
+        writer.println(Integer.toHexString(getId()));
+        nestedRadioGroupManager.dump(writer, "  ");
+    }
+
+    /**
+     * <p>Starts a batch of selection changes: until {@link #endBatch()}, radio buttons are not
+     * updated and the listener is not called. Batches can be nested.</p>
+     */
+    public void beginBatch() {
+        nestedRadioGroupManager.beginBatch();
+    }
+
+    /**
+     * <p>Ends a batch of selection changes: radio buttons are updated once and the listener is
+     * called once if the checked radio button changed during the batch.</p>
+     */
+    public void endBatch() {
+        nestedRadioGroupManager.endBatch();
+    }
+
+    /**
+     * <p>Runs selection changes in a batch, see {@link #beginBatch()}.</p>
+     *
+     * @param changes the selection changes to run
+     */
+    public void runInBatch(Runnable changes) {
+        nestedRadioGroupManager.runInBatch(changes);
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        NestedRadioGroupSavedState savedState = new NestedRadioGroupSavedState(super.onSaveInstanceState());
+        nestedRadioGroupManager.saveInstanceState(savedState);
+        return savedState;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof NestedRadioGroupSavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        NestedRadioGroupSavedState savedState = (NestedRadioGroupSavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        nestedRadioGroupManager.restoreInstanceState(savedState);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -231,13 +614,13 @@ public class NestedLinearRadioGroup extends LinearLayoutCompat implements Nested
         }
 
         final int index = value.getListValue();
-        final View child = getChildAt(index);
-        if (child == null) {
-            Log.w(VIEW_LOG_TAG, "RadioGroup.autoFill(): no child with index " + index);
+        final int id = nestedRadioGroupManager.getIdAtPosition(index);
+        if (id == View.NO_ID) {
+            Log.w(VIEW_LOG_TAG, "RadioGroup.autoFill(): no radio button with index " + index);
             return;
         }
 
-        nestedRadioGroupManager.check(child.getId());
+        nestedRadioGroupManager.check(id);
     }
 
     @TargetApi(Build.VERSION_CODES.O)
@@ -252,13 +635,14 @@ public class NestedLinearRadioGroup extends LinearLayoutCompat implements Nested
     public AutofillValue getAutofillValue() {
         if (!isEnabled()) return null;
 
-        final int count = getChildCount();
-        for (int i = 0; i < count; i++) {
-            final View child = getChildAt(i);
-            if (child.getId() == nestedRadioGroupManager.getCheckedId()) {
-                return AutofillValue.forList(i);
-            }
-        }
-        return null;
+        final int position = nestedRadioGroupManager.getCheckedPosition();
+        return position >= 0 ? AutofillValue.forList(position) : null;
+    }
+
+    /**
+     * @return the texts of the nested radio buttons, matching the positions of the autofill value
+     */
+    public CharSequence[] getAutofillOptions() {
+        return nestedRadioGroupManager.getAutofillOptions();
     }
 }
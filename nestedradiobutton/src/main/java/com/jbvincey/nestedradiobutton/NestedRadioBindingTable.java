@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.util.SparseArray;
+
+/**
+ * <p>Binding tables of the nested radio groups, generated at build time from the layout
+ * resources by the nestedradiobutton-compiler module. A table lists, for a group id, the ids of
+ * its radio buttons and of their clickable parents.</p>
+ *
+ * <p>Once a group with a registered table is inflated, it registers all the listed radio buttons
+ * in one pass, before they are attached: the buttons then neither look for their group nor for
+ * their clickable parent. Buttons missing from the table keep resolving their group when
+ * attached.</p>
+ *
+ * <p>Tables are registered once, on the main thread, before the layouts are inflated.</p>
+ */
+
+public final class NestedRadioBindingTable {
+
+    private static final SparseArray<Binding> bindings = new SparseArray<>();
+
+    private NestedRadioBindingTable() {
+    }
+
+    /**
+     * @param groupId            the id of the group
+     * @param buttonIds          the ids of its radio buttons, in document order
+     * @param clickableParentIds the id of the clickable parent of each radio button,
+     *                           {@link android.view.View#NO_ID} if none
+     */
+    public static void register(@IdRes int groupId, @NonNull int[] buttonIds, @NonNull int[] clickableParentIds) {
+        if (buttonIds.length != clickableParentIds.length) {
+            throw new IllegalArgumentException("Each radio button needs a clickable parent id");
+        }
+        bindings.put(groupId, new Binding(buttonIds, clickableParentIds));
+    }
+
+    /**
+     * Removes all the registered tables, e.g. between tests.
+     */
+    public static void clear() {
+        bindings.clear();
+    }
+
+    static Binding get(@IdRes int groupId) {
+        return bindings.get(groupId);
+    }
+
+    static final class Binding {
+        final int[] buttonIds;
+        final int[] clickableParentIds;
+
+        Binding(int[] buttonIds, int[] clickableParentIds) {
+            this.buttonIds = buttonIds;
+            this.clickableParentIds = clickableParentIds;
+        }
+    }
+}
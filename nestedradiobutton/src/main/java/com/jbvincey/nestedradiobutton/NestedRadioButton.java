@@ -20,9 +20,11 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.support.annotation.IdRes;
 import android.support.annotation.NonNull;
+import android.support.constraint.ConstraintLayout;
 import android.support.v7.widget.AppCompatRadioButton;
 import android.util.AttributeSet;
 import android.view.View;
+import android.view.ViewParent;
 
 /**
  * Created by jean-baptistevincey on 09/01/2018.
@@ -50,6 +52,27 @@ import android.view.View;
 public class NestedRadioButton extends AppCompatRadioButton {
 
     private @IdRes int clickableParentIdRes = View.NO_ID;
+    private @IdRes int nestedRadioGroupIdRes = View.NO_ID;
+    // name of the exclusion scope of this button within its group, null for the default one
+    private String groupName;
+    // when true, a click unchecks the button if checked, like a check box
+    private boolean uncheckable = false;
+    // view hidden by the filter text of the group, this button or its clickable parent
+    private View filteredOutView;
+    // true if this button was disabled by the gate of its group, see NestedRadioGroupManager#addChildGroup
+    private boolean disabledByGate = false;
+
+    // group resolved for this button, reused as long as the button keeps the same parent
+    private NestedRadioGroupInterface nestedRadioGroup;
+    private ViewParent nestedRadioGroupBoundParent;
+    // true if nestedRadioGroup was bound by the group itself, false if it was looked up
+    private boolean nestedRadioGroupBoundTopDown = false;
+    // group this button is currently registered in
+    private NestedRadioGroupInterface parentNestedRadioGroup;
+
+    // clickable parent resolved for this button, reused as long as the button keeps the same parent
+    private View clickableParent;
+    private ViewParent clickableParentBoundParent;
 
     public NestedRadioButton(@NonNull Context context) {
         super(context);
@@ -70,6 +93,8 @@ public class NestedRadioButton extends AppCompatRadioButton {
         // XML layout file
         TypedArray attributes = context.obtainStyledAttributes(attrs, R.styleable.NestedRadioButton);
         clickableParentIdRes = attributes.getResourceId(R.styleable.NestedRadioButton_clickableParent, View.NO_ID);
+        nestedRadioGroupIdRes = attributes.getResourceId(R.styleable.NestedRadioButton_nestedRadioGroup, View.NO_ID);
+        groupName = attributes.getString(R.styleable.NestedRadioButton_groupName);
         attributes.recycle();
     }
 
@@ -83,34 +108,308 @@ public class NestedRadioButton extends AppCompatRadioButton {
             setId(id);
         }
 
-        attachToParentNestedRadioGroup((View) getParent());
-        if(clickableParentIdRes != View.NO_ID) {
-            attachClickableParent((View) getParent());
+        registerInGroup(resolveNestedRadioGroup());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // unregisters from the group so that it does not keep a reference on a detached view
+        unregisterNestedRadioGroup();
+        if (!nestedRadioGroupBoundTopDown) {
+            // an ancestor may be moved under another group while detached, keeping the same
+            // direct parent: a looked up group is looked up again on the next attach
+            nestedRadioGroup = null;
+            nestedRadioGroupBoundParent = null;
+        }
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        notifyStateChanged(parentNestedRadioGroup);
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // also called when an ancestor is shown or hidden
+        notifyStateChanged(parentNestedRadioGroup);
+    }
+
+    /**
+     * @return the name of the exclusion scope of this button within its group, null for the
+     * default scope
+     */
+    public String getGroupName() {
+        return groupName;
+    }
+
+    /**
+     * <p>Sets the name of the exclusion scope of this button within its group: only buttons
+     * sharing the same name are mutually exclusive. Must be set before the button is attached.</p>
+     *
+     * @param groupName the scope name, null for the default scope
+     */
+    public void setGroupName(String groupName) {
+        this.groupName = groupName;
+    }
+
+    /**
+     * Lets a click uncheck this button, set by groups in multiple selection mode.
+     */
+    void setUncheckable(boolean uncheckable) {
+        this.uncheckable = uncheckable;
+    }
+
+    @Override
+    public void toggle() {
+        if (uncheckable) {
+            setChecked(!isChecked());
+        } else {
+            super.toggle();
+        }
+    }
+
+    /**
+     * Binds this button to a group, so that attaching it does not need to look for its group.
+     * Called top-down by the group when the button is added under it.
+     *
+     * @param nestedRadioGroup the group containing this button, null to unbind
+     */
+    void bindNestedRadioGroup(NestedRadioGroupInterface nestedRadioGroup) {
+        if (nestedRadioGroup != null && nestedRadioGroupIdRes != View.NO_ID
+                && ((View) nestedRadioGroup).getId() != nestedRadioGroupIdRes) {
+            // an explicit group reference always wins
+            return;
+        }
+        if (nestedRadioGroup != null && nestedRadioGroupIdRes == View.NO_ID
+                && nestedRadioGroup != getParent() && findReferencingHelper(getParent()) != null) {
+            // so does a helper referencing this button
+            return;
+        }
+        this.nestedRadioGroup = nestedRadioGroup;
+        nestedRadioGroupBoundParent = nestedRadioGroup != null ? getParent() : null;
+        nestedRadioGroupBoundTopDown = nestedRadioGroup != null;
+    }
+
+    /**
+     * Binds this button to the {@link NestedConstraintRadioHelper} referencing it, attached after
+     * this button was bound to another group, and moves it there if it is registered already.
+     */
+    void bindReferencingHelper(@NonNull NestedConstraintRadioHelper helper) {
+        if (nestedRadioGroupIdRes != View.NO_ID || nestedRadioGroup == helper) {
+            // an explicit group reference always wins
+            return;
+        }
+        nestedRadioGroup = helper;
+        nestedRadioGroupBoundParent = getParent();
+        nestedRadioGroupBoundTopDown = false;
+        if (parentNestedRadioGroup != null) {
+            registerInGroup(helper);
+        }
+    }
+
+    /**
+     * Binds this button to a group and registers it right away, before it is attached. Used when
+     * building groups programmatically, attaching the button then does not register it again.
+     *
+     * @param nestedRadioGroup the group containing this button
+     */
+    void registerNestedRadioGroup(@NonNull NestedRadioGroupInterface nestedRadioGroup) {
+        bindNestedRadioGroup(nestedRadioGroup);
+        registerInGroup(nestedRadioGroup);
+    }
+
+    /**
+     * Unregisters this button from its group, e.g. when its option is removed from a group built
+     * programmatically before being attached.
+     */
+    void unregisterNestedRadioGroup() {
+        if (parentNestedRadioGroup != null) {
+            notifyRemoved(parentNestedRadioGroup);
+            parentNestedRadioGroup = null;
+        }
+    }
+
+    private void registerInGroup(NestedRadioGroupInterface nestedRadioGroup) {
+        // only refreshes the state if already registered, e.g. when built programmatically
+        if (parentNestedRadioGroup != nestedRadioGroup) {
+            if (parentNestedRadioGroup != null) {
+                notifyRemoved(parentNestedRadioGroup);
+            }
+            parentNestedRadioGroup = nestedRadioGroup;
+            nestedRadioGroup.addNestedRadioButton(this);
+        } else {
+            notifyStateChanged(nestedRadioGroup);
+        }
+    }
+
+    /**
+     * Groups implementing only {@link NestedRadioGroupInterface} are not told, as before
+     * {@link NestedRadioGroupTrackingInterface} was added.
+     */
+    private void notifyRemoved(NestedRadioGroupInterface nestedRadioGroup) {
+        if (nestedRadioGroup instanceof NestedRadioGroupTrackingInterface) {
+            ((NestedRadioGroupTrackingInterface) nestedRadioGroup).removeNestedRadioButton(this);
+        }
+    }
+
+    private void notifyStateChanged(NestedRadioGroupInterface nestedRadioGroup) {
+        if (nestedRadioGroup instanceof NestedRadioGroupTrackingInterface) {
+            ((NestedRadioGroupTrackingInterface) nestedRadioGroup).onNestedRadioButtonStateChanged(this);
+        }
+    }
+
+    NestedRadioGroupInterface getBoundNestedRadioGroup() {
+        return nestedRadioGroup;
+    }
+
+    /**
+     * @return the group of this button: the one bound by the group if the button was not moved,
+     * otherwise the group referenced by app:nestedRadioGroup or, as a fallback, the closest
+     * parent group
+     */
+    private NestedRadioGroupInterface resolveNestedRadioGroup() {
+        ViewParent parent = getParent();
+        if (nestedRadioGroup == null || nestedRadioGroupBoundParent != parent) {
+            if (nestedRadioGroupIdRes != View.NO_ID) {
+                nestedRadioGroup = findNestedRadioGroupById((View) parent);
+            } else {
+                NestedRadioGroupInterface helper = findReferencingHelper(parent);
+                nestedRadioGroup = helper != null ? helper : findParentNestedRadioGroup((View) parent);
+            }
+            nestedRadioGroupBoundParent = parent;
+            nestedRadioGroupBoundTopDown = false;
+        }
+        return nestedRadioGroup;
+    }
+
+    /**
+     * Hides or shows this button, or its clickable parent if it has one, for the filter text of
+     * its group. A view is shown again only if it was hidden by the filter.
+     *
+     * @param filteredOut true to hide, false to show again
+     */
+    void setFilteredOut(boolean filteredOut) {
+        if (filteredOut && filteredOutView == null) {
+            View clickableParent = getClickableParent();
+            filteredOutView = clickableParent != null ? clickableParent : this;
+            filteredOutView.setVisibility(View.GONE);
+        } else if (!filteredOut && filteredOutView != null) {
+            filteredOutView.setVisibility(View.VISIBLE);
+            filteredOutView = null;
+        }
+    }
+
+    /**
+     * Disables or enables this button for the gate of its group. The button is enabled again
+     * only if it was disabled by the gate.
+     *
+     * @param disabled true to disable, false to enable again
+     */
+    void setDisabledByGate(boolean disabled) {
+        if (disabled && !disabledByGate) {
+            disabledByGate = true;
+            setEnabled(false);
+        } else if (!disabled && disabledByGate) {
+            disabledByGate = false;
+            setEnabled(true);
+        }
+    }
+
+    /**
+     * @return the view referenced by app:clickableParent, whose clicks are dispatched to this
+     * button by its group, null if none
+     */
+    View getClickableParent() {
+        if (clickableParentIdRes == View.NO_ID) {
+            return null;
+        }
+        ViewParent parent = getParent();
+        if (clickableParent == null || clickableParentBoundParent != parent) {
+            clickableParent = findClickableParent(parent instanceof View ? (View) parent : null);
+            clickableParentBoundParent = parent;
+        }
+        return clickableParent;
+    }
+
+    /**
+     * Sets the clickable parent of this button, found by its group from a generated binding
+     * table, so that the button does not look for it.
+     *
+     * @param clickableParent the view referenced by app:clickableParent, ignored if null or not
+     *                        an ancestor of this button, e.g. a row sharing its id
+     */
+    void bindClickableParent(View clickableParent) {
+        if (clickableParent != null && clickableParent.getId() == clickableParentIdRes && isAncestor(clickableParent)) {
+            this.clickableParent = clickableParent;
+            clickableParentBoundParent = getParent();
+        }
+    }
+
+    private boolean isAncestor(View view) {
+        for (ViewParent parent = getParent(); parent != null; parent = parent.getParent()) {
+            if (parent == view) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the {@link NestedConstraintRadioHelper} referencing this button among its siblings,
+     * null if none
+     */
+    private NestedRadioGroupInterface findReferencingHelper(ViewParent parent) {
+        if (parent instanceof ConstraintLayout) {
+            return NestedConstraintRadioHelper.findReferencingHelper((ConstraintLayout) parent, getId());
         }
+        return null;
     }
 
-    private void attachClickableParent(View view) {
+    private View findClickableParent(View view) {
         if(view != null) {
             if(view.getId() == clickableParentIdRes) {
-                view.setOnClickListener(new OnClickListener() {
-                    @Override
-                    public void onClick(View v) {
-                        NestedRadioButton.this.setChecked(true);
-                    }
-                });
+                return view;
             } else if(view.getParent() instanceof View) {
-                attachClickableParent((View) view.getParent());
+                return findClickableParent((View) view.getParent());
+            }
+        }
+        return null;
+    }
+
+    private NestedRadioGroupInterface findNestedRadioGroupById(View view) {
+        View root = view;
+        while (view != null) {
+            if (view.getId() == nestedRadioGroupIdRes) {
+                return castNestedRadioGroup(view);
             }
+            root = view;
+            view = view.getParent() instanceof View ? (View) view.getParent() : null;
+        }
+        // the group is not a parent of this button, e.g. a group declared next to it
+        View group = root != null ? root.findViewById(nestedRadioGroupIdRes) : null;
+        if (group == null) {
+            throw new ClassCastException("NestedRadioButton nestedRadioGroup should reference a NestedRadioGroup");
+        }
+        return castNestedRadioGroup(group);
+    }
+
+    private NestedRadioGroupInterface castNestedRadioGroup(View view) {
+        if (view instanceof NestedRadioGroupInterface) {
+            return (NestedRadioGroupInterface) view;
         }
+        throw new ClassCastException("NestedRadioButton nestedRadioGroup should reference a NestedRadioGroup");
     }
 
-    private void attachToParentNestedRadioGroup(View view) {
+    private NestedRadioGroupInterface findParentNestedRadioGroup(View view) {
         if(view == null) {
             throw new ClassCastException("NestedRadioButton should be under a NestedRadioGroup");
         } else if(view instanceof NestedRadioGroupInterface) {
-            ((NestedRadioGroupInterface) view).addNestedRadioButton(this);
+            return (NestedRadioGroupInterface) view;
         } else if(view.getParent() instanceof View){
-            attachToParentNestedRadioGroup((View) view.getParent());
+            return findParentNestedRadioGroup((View) view.getParent());
         } else {
             throw new ClassCastException("NestedRadioButton should be under a NestedRadioGroup");
         }
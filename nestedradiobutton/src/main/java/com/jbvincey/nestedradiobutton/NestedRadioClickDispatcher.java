@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.util.Log;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Checks radio buttons on click to their app:clickableParent. A group owns a single dispatcher,
+ * set as click listener of all the clickable parents of its radio buttons, so that attaching a
+ * radio button does not allocate any listener.
+ *
+ * The clicked radio button is found from the clicked view id through a table built when radio
+ * buttons register, and looked up within the clicked view so that rows inflated from the same
+ * layout, sharing their ids, are told apart.
+ */
+
+final class NestedRadioClickDispatcher implements View.OnClickListener {
+    private static final String LOG_TAG = NestedRadioClickDispatcher.class.getSimpleName();
+
+    // radio button id of each clickable parent id
+    private final SparseIntArray radioButtonIds = new SparseIntArray();
+    // clickable parent id of each bound radio button id, to unbind it
+    private final SparseIntArray clickableParentIds = new SparseIntArray();
+
+    /**
+     * Makes a click to the clickable parent of a radio button check it. A click listener set by
+     * the app on the clickable parent is kept and a warning is logged: the app listener should
+     * then toggle the radio button itself.
+     *
+     * @param nestedRadioButton the radio button being registered
+     */
+    void bind(NestedRadioButton nestedRadioButton) {
+        View clickableParent = nestedRadioButton.getClickableParent();
+        if (clickableParent == null) {
+            return;
+        }
+        radioButtonIds.put(clickableParent.getId(), nestedRadioButton.getId());
+        clickableParentIds.put(nestedRadioButton.getId(), clickableParent.getId());
+        Object dispatcher = clickableParent.getTag(R.id.nested_radio_click_dispatcher);
+        if (dispatcher != null) {
+            // already dispatching, e.g. on re-attach
+            return;
+        }
+        if (clickableParent.hasOnClickListeners()) {
+            // the listener of the app cannot be read back to be chained
+            Log.w(LOG_TAG, "The clickable parent " + clickableParent + " of " + nestedRadioButton
+                    + " already has a click listener, clicks do not check the radio button");
+            return;
+        }
+        clickableParent.setOnClickListener(this);
+        clickableParent.setTag(R.id.nested_radio_click_dispatcher, this);
+    }
+
+    /**
+     * Forgets the clickable parent of a radio button being unregistered. The dispatcher stays
+     * set on the clickable parent, it is found again if the radio button registers again.
+     *
+     * @param nestedRadioButton the radio button being unregistered
+     */
+    void unbind(NestedRadioButton nestedRadioButton) {
+        int id = nestedRadioButton.getId();
+        int index = clickableParentIds.indexOfKey(id);
+        if (index < 0) {
+            return;
+        }
+        int clickableParentId = clickableParentIds.valueAt(index);
+        clickableParentIds.removeAt(index);
+        // rows sharing a clickable parent id may have rebound it to another radio button
+        int radioButtonIndex = radioButtonIds.indexOfKey(clickableParentId);
+        if (radioButtonIndex >= 0 && radioButtonIds.valueAt(radioButtonIndex) == id) {
+            radioButtonIds.removeAt(radioButtonIndex);
+        }
+    }
+
+    @Override
+    public void onClick(View v) {
+        NestedRadioButton nestedRadioButton = findNestedRadioButton(v, radioButtonIds.get(v.getId(), View.NO_ID));
+        if (nestedRadioButton != null) {
+            nestedRadioButton.toggle();
+        }
+    }
+
+    private NestedRadioButton findNestedRadioButton(View clickableParent, int id) {
+        View view = id != View.NO_ID ? clickableParent.findViewById(id) : null;
+        if (view instanceof NestedRadioButton && ((NestedRadioButton) view).getClickableParent() == clickableParent) {
+            return (NestedRadioButton) view;
+        }
+        // clickable parents sharing an id hold radio buttons with different ids
+        return findNestedRadioButtonInSubtree(clickableParent, clickableParent);
+    }
+
+    private NestedRadioButton findNestedRadioButtonInSubtree(View view, View clickableParent) {
+        if (view instanceof NestedRadioButton) {
+            NestedRadioButton nestedRadioButton = (NestedRadioButton) view;
+            return nestedRadioButton.getClickableParent() == clickableParent ? nestedRadioButton : null;
+        } else if (view instanceof ViewGroup) {
+            ViewGroup viewGroup = (ViewGroup) view;
+            for (int i = 0; i < viewGroup.getChildCount(); i++) {
+                NestedRadioButton nestedRadioButton = findNestedRadioButtonInSubtree(viewGroup.getChildAt(i), clickableParent);
+                if (nestedRadioButton != null) {
+                    return nestedRadioButton;
+                }
+            }
+        }
+        return null;
+    }
+}
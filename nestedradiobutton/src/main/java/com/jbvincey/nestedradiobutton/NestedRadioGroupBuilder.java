@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.StyleRes;
+import android.text.TextUtils;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Builds a {@link NestedLinearRadioGroup} from a list of {@link NestedRadioOption}s, e.g. for
+ * server driven forms, without inflating any layout.</p>
+ *
+ * <p>Radio buttons are created without attributes to parse, with ids assigned upfront, and
+ * registered in the group as they are created instead of when attached. The context of the button
+ * theme is shared, but each radio button still resolves its default style in its constructor, as
+ * an inflated one does. NestedRadioGroupBuilderStressTest compares the build time with the
+ * creation of the same radio buttons from attributes.</p>
+ *
+ * <pre>
+ * NestedLinearRadioGroup group = new NestedRadioGroupBuilder(context)
+ *         .setOptions(options)
+ *         .setCheckedKey("standard")
+ *         .build();
+ * </pre>
+ */
+
+public class NestedRadioGroupBuilder {
+
+    @NonNull
+    private final Context context;
+    // context shared by all the radio buttons
+    @NonNull
+    private Context buttonContext;
+    @NonNull
+    private List<NestedRadioOption> options = Collections.emptyList();
+    private String checkedKey;
+    private int orientation = LinearLayout.VERTICAL;
+
+    public NestedRadioGroupBuilder(@NonNull Context context) {
+        this.context = context;
+        this.buttonContext = context;
+    }
+
+    /**
+     * @param themeResId a theme overlay applied to all the radio buttons, e.g. to set their
+     *                   colors, 0 for none
+     */
+    public NestedRadioGroupBuilder setButtonTheme(@StyleRes int themeResId) {
+        buttonContext = themeResId != 0 ? new ContextThemeWrapper(context, themeResId) : context;
+        return this;
+    }
+
+    public NestedRadioGroupBuilder setOptions(@NonNull List<NestedRadioOption> options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * @param checkedKey the key of the initially checked option, null for none
+     */
+    public NestedRadioGroupBuilder setCheckedKey(String checkedKey) {
+        this.checkedKey = checkedKey;
+        return this;
+    }
+
+    /**
+     * @param orientation {@link LinearLayout#VERTICAL}, the default, or {@link LinearLayout#HORIZONTAL}
+     */
+    public NestedRadioGroupBuilder setOrientation(int orientation) {
+        this.orientation = orientation;
+        return this;
+    }
+
+    @NonNull
+    public NestedLinearRadioGroup build() {
+        NestedLinearRadioGroup nestedRadioGroup = new NestedLinearRadioGroup(context);
+        nestedRadioGroup.setOrientation(orientation);
+        NestedRadioOptionList optionList = new NestedRadioOptionList(nestedRadioGroup, this);
+        nestedRadioGroup.setOptionList(optionList);
+        optionList.submitOptions(options);
+        if (checkedKey != null) {
+            nestedRadioGroup.check(optionList.getId(checkedKey));
+        }
+        return nestedRadioGroup;
+    }
+
+    @NonNull
+    NestedRadioButton createButton(@NonNull NestedRadioOption option) {
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(buttonContext);
+        nestedRadioButton.setId(View.generateViewId());
+        bindButton(nestedRadioButton, option);
+        return nestedRadioButton;
+    }
+
+    void bindButton(@NonNull NestedRadioButton nestedRadioButton, @NonNull NestedRadioOption option) {
+        if (!TextUtils.equals(nestedRadioButton.getText(), option.getLabel())) {
+            nestedRadioButton.setText(option.getLabel());
+        }
+        if (nestedRadioButton.isEnabled() != option.isEnabled()) {
+            nestedRadioButton.setEnabled(option.isEnabled());
+        }
+    }
+}
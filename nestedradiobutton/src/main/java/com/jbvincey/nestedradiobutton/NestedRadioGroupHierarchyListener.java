@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * <p>Binds top-down the {@link NestedRadioButton}s added under a nested radio group, so that
+ * they do not have to look for their group each time they are attached. During inflation, a
+ * child is added to its parent once its own children are inflated, so a whole subtree is bound
+ * in one pass when it is added to the group.</p>
+ *
+ * <p>Buttons added later deeper in the hierarchy are not seen by this listener and fall back
+ * to looking for their group on attach.</p>
+ *
+ * <p>A hierarchy change listener set by the app on the group is still notified.</p>
+ */
+
+class NestedRadioGroupHierarchyListener implements ViewGroup.OnHierarchyChangeListener {
+
+    private final NestedRadioGroupInterface nestedRadioGroup;
+    private ViewGroup.OnHierarchyChangeListener onHierarchyChangeListener;
+
+    NestedRadioGroupHierarchyListener(NestedRadioGroupInterface nestedRadioGroup) {
+        this.nestedRadioGroup = nestedRadioGroup;
+    }
+
+    void setOnHierarchyChangeListener(ViewGroup.OnHierarchyChangeListener listener) {
+        onHierarchyChangeListener = listener;
+    }
+
+    @Override
+    public void onChildViewAdded(View parent, View child) {
+        bind(child, nestedRadioGroup);
+        if (onHierarchyChangeListener != null) {
+            onHierarchyChangeListener.onChildViewAdded(parent, child);
+        }
+    }
+
+    @Override
+    public void onChildViewRemoved(View parent, View child) {
+        bind(child, null);
+        if (onHierarchyChangeListener != null) {
+            onHierarchyChangeListener.onChildViewRemoved(parent, child);
+        }
+    }
+
+    private void bind(View view, NestedRadioGroupInterface group) {
+        if (view instanceof NestedRadioButton) {
+            NestedRadioButton nestedRadioButton = (NestedRadioButton) view;
+            if (group != null || nestedRadioButton.getBoundNestedRadioGroup() == nestedRadioGroup) {
+                nestedRadioButton.bindNestedRadioGroup(group);
+            }
+            if (group == null) {
+                // removed from the group, no longer hidden by its filter text
+                nestedRadioButton.setFilteredOut(false);
+            }
+        } else if (view instanceof ViewGroup && !(view instanceof NestedRadioGroupInterface)) {
+            // nested groups bind their own subtree
+            ViewGroup viewGroup = (ViewGroup) view;
+            for (int i = 0, count = viewGroup.getChildCount(); i < count; i++) {
+                bind(viewGroup.getChildAt(i), group);
+            }
+        }
+    }
+}
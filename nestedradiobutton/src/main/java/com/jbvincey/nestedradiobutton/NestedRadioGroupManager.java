@@ -18,106 +18,932 @@ package com.jbvincey.nestedradiobutton;
 
 import android.annotation.TargetApi;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.AnyThread;
 import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
 import android.support.annotation.VisibleForTesting;
 import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.Choreographer;
+import android.view.KeyEvent;
 import android.view.View;
 import android.view.ViewStructure;
+import android.view.autofill.AutofillManager;
 import android.widget.CompoundButton;
 
+import com.jbvincey.nestedradiobutton.core.OptionTextIndex;
+import com.jbvincey.nestedradiobutton.core.OrderedIdIndex;
+import com.jbvincey.nestedradiobutton.core.SelectionEngine;
+import com.jbvincey.nestedradiobutton.core.SelectionSnapshot;
+import com.jbvincey.nestedradiobutton.core.WeakIdTable;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
 /**
  * Created by jean-baptistevincey on 11/01/2018.
  *
  * Handle nested radio group logic (see {@link NestedConstraintRadioGroup}, {@link NestedFrameRadioGroup},
  * {@link NestedLinearRadioGroup}, {@link NestedRelativeRadioGroup}.
+ *
+ * The selection state machine lives in {@link SelectionEngine}, this class binds it to the
+ * registered {@link NestedRadioButton}s.
+ *
+ * Radio buttons with an app:groupName belong to a named scope instead: each name holds its own
+ * independent selection, so that one container can host several radio groups.
+ *
+ * In {@link #SELECTION_MODE_MULTIPLE}, the radio buttons of the default scope can be checked
+ * and unchecked independently, up to {@link #setMaxSelected(int)} of them.
+ *
+ * The manager is used from the main thread, except {@link #getSelection()} and
+ * {@link #checkAsync(int)} which can be called from any thread.
  */
 
-public class NestedRadioGroupManager {
+public class NestedRadioGroupManager extends SelectionEngine {
 
     private static final String TAG = "NestedRadioGroupManager";
+    private static final int DEFAULT_SCOPE_KEY = 0;
+
+    /**
+     * At most one radio button is checked, the default.
+     */
+    public static final int SELECTION_MODE_SINGLE = 0;
+    /**
+     * Any number of radio buttons can be checked, see {@link #setMaxSelected(int)}.
+     */
+    public static final int SELECTION_MODE_MULTIPLE = 1;
+
+    /**
+     * Listeners are called on each change, the default.
+     */
+    public static final int DISPATCH_MODE_IMMEDIATE = 0;
+    /**
+     * Listeners are called once per frame with the final checked id of each changed scope.
+     */
+    public static final int DISPATCH_MODE_FRAME = 1;
+
+    /**
+     * Key navigation directions, see {@link #navigate(int, int)}.
+     */
+    public static final int NAVIGATE_NEXT = 0;
+    public static final int NAVIGATE_PREVIOUS = 1;
+    public static final int NAVIGATE_FIRST = 2;
+    public static final int NAVIGATE_LAST = 3;
+
+    // flags of the registered radio buttons in radioButtonIndex
+    private static final int FLAG_ENABLED = 1;
+    private static final int FLAG_SHOWN = 2;
+    private static final int FLAGS_NAVIGABLE = FLAG_ENABLED | FLAG_SHOWN;
+
+    private static final OnCheckedChangeListener[] NO_LISTENERS = new OnCheckedChangeListener[0];
 
-    // holds the checked id; the selection is empty by default
-    @VisibleForTesting
-    protected int checkedId = -1;
     // tracks children radio buttons checked state
     @VisibleForTesting
     protected CompoundButton.OnCheckedChangeListener childOnCheckedChangeListener;
-    // when true, onCheckedChangeListener discards events
-    private boolean protectFromCheckedChange = false;
     private OnCheckedChangeListener onCheckedChangeListener;
-    //private NestedLinearRadioGroup.PassThroughHierarchyChangeListener mPassThroughListener;
+    private OnScopedCheckedChangeListener onScopedCheckedChangeListener;
+    private OnSelectionChangeListener onSelectionChangeListener;
+    // additional listeners, copied on write so that a listener can add or remove listeners
+    private OnCheckedChangeListener[] onCheckedChangeListeners = NO_LISTENERS;
 
-    // Indicates whether the child was set from resources or dynamically, so it can be used
-    // to sanitize autofill requests.
-    @VisibleForTesting
-    protected int initialCheckedId = View.NO_ID;
+    private int dispatchMode = DISPATCH_MODE_IMMEDIATE;
+    // final checked id of each scope changed since the last frame, in DISPATCH_MODE_FRAME
+    private final SparseIntArray pendingCheckedIds;
+    private final Choreographer.FrameCallback dispatchPendingCheckedIds;
+    private boolean frameDispatchScheduled = false;
 
-    private final SparseArray<NestedRadioButton> radioButtons;
+    // selection of the default scope in SELECTION_MODE_MULTIPLE, null in SELECTION_MODE_SINGLE
+    private NestedRadioMultiSelection multiSelection;
 
+    @NonNull
+    private NestedRadioMetrics metrics = NestedRadioMetrics.NO_OP;
+    // counters printed by dump()
+    private int registrationCount;
+    private int unregistrationCount;
+    private int checkCount;
+    private int redundantCheckCount;
+    private int dispatchCount;
+    private long dispatchTimeNanos;
 
-    public NestedRadioGroupManager() {
-        radioButtons = new SparseArray<>();
-        childOnCheckedChangeListener = new CheckedStateTracker();
-    }
+    // registered radio buttons, weakly referenced so that the group never keeps them alive
+    private final WeakIdTable<NestedRadioButton> radioButtons;
+    // registered ids in registration order, which is the document order on inflation
+    private final OrderedIdIndex radioButtonIndex;
+    // autofill options matching radioButtonIndex, built on demand
+    private CharSequence[] autofillOptions;
+
+    // when true, arrow keys move the focus between the radio buttons of this group
+    private boolean keyNavigationEnabled = false;
+    private boolean selectionFollowsFocus = false;
+
+    // named scopes, keyed by an int key assigned to each group name
+    private final HashMap<String, Integer> scopeKeys;
+    private final SparseArray<NestedRadioScope> scopes;
+    // scope key of each registered radio button with a group name
+    private final SparseIntArray radioButtonScopeKeys;
 
-    public void initCheckedId(int value) {
-        checkedId = value;
-        initialCheckedId = value;
+    // checks radio buttons on click to their clickable parent
+    private final NestedRadioClickDispatcher clickDispatcher;
+
+    // shared group the radio buttons register in instead of this group, null if none
+    private NestedRadioSharedGroup sharedGroup;
+    // radio buttons of this group registered in the shared group
+    private int sharedRegistrationCount;
+
+    // labels of the registered radio buttons, null until a filter text is first set
+    private OptionTextIndex optionTextIndex;
+    private final OptionTextIndex.OnMatchChangedListener filterVisibilityUpdater;
+
+    // applies the checks requested from other threads, in request order
+    private final Handler mainHandler;
+
+    // child groups tied to an option of this group, keyed by the gating option id
+    private final SparseArray<List<NestedRadioGroupManager>> childGroups;
+    // option whose child groups are enabled, in SELECTION_MODE_SINGLE
+    private int enabledGatingId = NO_ID;
+    // group this group is tied to, null if none
+    private NestedRadioGroupManager parentGroup;
+    private int gatingId = NO_ID;
+    // false while the gating option in the parent group is not selected
+    private boolean gateEnabled = true;
+
+    // group view notified to the AutofillManager on selection change
+    private final View groupView;
+    private final Runnable notifyAutofillValueChanged;
+    private boolean autofillNotificationPending = false;
+
+
+    public NestedRadioGroupManager() {
+        this(null);
     }
 
-    public int getCheckedId() {
-        return checkedId;
+    /**
+     * @param groupView the group view using this manager, notified to the autofill framework when
+     *                  the selection changes
+     */
+    public NestedRadioGroupManager(View groupView) {
+        radioButtons = new WeakIdTable<>();
+        radioButtonIndex = new OrderedIdIndex();
+        childGroups = new SparseArray<>();
+        scopeKeys = new HashMap<>();
+        scopes = new SparseArray<>();
+        radioButtonScopeKeys = new SparseIntArray();
+        pendingCheckedIds = new SparseIntArray();
+        childOnCheckedChangeListener = new CheckedStateTracker();
+        clickDispatcher = new NestedRadioClickDispatcher();
+        filterVisibilityUpdater = new OptionTextIndex.OnMatchChangedListener() {
+            @Override
+            public void onMatchChanged(int id, boolean matched) {
+                NestedRadioButton nestedRadioButton = radioButtons.get(id);
+                if (nestedRadioButton != null) {
+                    nestedRadioButton.setFilteredOut(!matched);
+                }
+            }
+        };
+        mainHandler = new Handler(Looper.getMainLooper());
+        this.groupView = groupView;
+        notifyAutofillValueChanged = new Runnable() {
+            @Override
+            public void run() {
+                autofillNotificationPending = false;
+                notifyAutofillValueChanged();
+            }
+        };
+        dispatchPendingCheckedIds = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                frameDispatchScheduled = false;
+                dispatchPendingCheckedIds();
+            }
+        };
     }
 
     public void addNestedRadioButton(NestedRadioButton nestedRadioButton) {
+        if (sharedGroup != null) {
+            sharedGroup.getNestedRadioGroupManager().addNestedRadioButton(nestedRadioButton);
+            sharedRegistrationCount++;
+            return;
+        }
         radioButtons.put(nestedRadioButton.getId(), nestedRadioButton);
-        if (checkedId == nestedRadioButton.getId()) {
-            protectFromCheckedChange = true;
-            setCheckedStateForView(checkedId, true);
-            protectFromCheckedChange = false;
-            setCheckedId(nestedRadioButton.getId());
+        if (radioButtonIndex.add(nestedRadioButton.getId())) {
+            autofillOptions = null;
+        }
+        // a radio button kept disabled while detached is enabled again if the gate opened since
+        nestedRadioButton.setDisabledByGate(!gateEnabled);
+        // a radio button kept hidden while detached is shown again if the filter text changed since
+        nestedRadioButton.setFilteredOut(optionTextIndex != null
+                && !optionTextIndex.add(nestedRadioButton.getId(), nestedRadioButton.getText()));
+        radioButtonIndex.setFlags(nestedRadioButton.getId(), getFlags(nestedRadioButton));
+        // the group saves the checked state of all its radio buttons at once
+        nestedRadioButton.setSaveEnabled(false);
+        registrationCount++;
+        metrics.onButtonRegistered(this, nestedRadioButton.getId());
+        String groupName = nestedRadioButton.getGroupName();
+        if (groupName == null && multiSelection != null) {
+            nestedRadioButton.setUncheckable(true);
+            multiSelection.onButtonRegistered(nestedRadioButton.getId());
+        } else if (groupName == null) {
+            onButtonRegistered(nestedRadioButton.getId());
+        } else {
+            int scopeKey = getScopeKey(groupName);
+            radioButtonScopeKeys.put(nestedRadioButton.getId(), scopeKey);
+            scopes.get(scopeKey).onButtonRegistered(nestedRadioButton.getId());
         }
         nestedRadioButton.setOnCheckedChangeListener(childOnCheckedChangeListener);
+        clickDispatcher.bind(nestedRadioButton);
     }
 
     /**
-     * <p>Sets the selection to the radio button whose identifier is passed in
-     * parameter. Using -1 as the selection identifier clears the selection;
-     * such an operation is equivalent to invoking {@link #clearCheck()}.</p>
+     * <p>Shows only the radio buttons whose label has words starting with the words of the
+     * filter text, ignoring case and accents. A filtered out radio button is hidden with its
+     * clickable parent if it has one, the selection is kept even if the checked radio button
+     * is filtered out.</p>
      *
-     * @param id the unique id of the radio button to select in this group
-     * @see #clearCheck()
+     * <p>Labels are indexed when radio buttons register, once a filter text was set. Each change
+     * of the filter text only updates the visibility of the radio buttons whose match changed,
+     * all at once so that the group is laid out a single time; typing one more letter only
+     * checks the radio buttons matching the previous text. The filter owns the visibility of
+     * the radio buttons, or of their clickable parents.</p>
+     *
+     * @param filterText the filter text, null or blank to show all the radio buttons
+     */
+    public void setFilterText(CharSequence filterText) {
+        requireNotShared("Filter text");
+        if (optionTextIndex == null) {
+            if (filterText == null || filterText.length() == 0) {
+                return;
+            }
+            optionTextIndex = new OptionTextIndex();
+            for (int i = 0, size = radioButtonIndex.size(); i < size; i++) {
+                NestedRadioButton nestedRadioButton = radioButtons.get(radioButtonIndex.getId(i));
+                if (nestedRadioButton != null) {
+                    optionTextIndex.add(nestedRadioButton.getId(), nestedRadioButton.getText());
+                }
+            }
+        }
+        optionTextIndex.setQuery(filterText, filterVisibilityUpdater);
+    }
+
+    /**
+     * @param id the unique id of a registered radio button
+     * @return true if the radio button is hidden by the filter text
      */
+    public boolean isFilteredOut(@IdRes int id) {
+        return optionTextIndex != null && radioButtons.get(id) != null && !optionTextIndex.isMatched(id);
+    }
+
+    /**
+     * <p>Binds this group to a shared group spanning several groups, e.g. the pages of a
+     * ViewPager: the radio buttons registering afterwards are registered in the shared group,
+     * which holds the selection. Binding and unbinding are O(1), bind before the radio buttons
+     * are attached.</p>
+     *
+     * <p>While bound, {@link #check(int)}, {@link #clearCheck()}, {@link #checkAsync(int)},
+     * {@link #getCheckedId()} and {@link #getSelection()} apply to the shared group. The
+     * features relying on the radio buttons registered in this group throw an
+     * {@link IllegalStateException}: listeners, to be added to the shared group instead, the
+     * filter text, child groups, named scopes, key navigation and
+     * {@link #SELECTION_MODE_MULTIPLE}. The saved state and the autofill options of a bound group
+     * are empty, the selection of the shared group lives outside of its views.</p>
+     *
+     * @param sharedGroup the shared group, null to unbind
+     * @throws IllegalStateException if radio buttons are registered, in this group or through
+     *                               the current shared group, or in {@link #SELECTION_MODE_MULTIPLE}
+     * @see NestedRadioSharedGroup
+     */
+    public void setSharedGroup(NestedRadioSharedGroup sharedGroup) {
+        if (sharedGroup != null && sharedGroup.getNestedRadioGroupManager() == this) {
+            throw new IllegalArgumentException("A shared group cannot be bound to itself");
+        }
+        if (sharedGroup != null && multiSelection != null) {
+            throw new IllegalStateException("A group in SELECTION_MODE_MULTIPLE cannot be bound to a shared group");
+        }
+        if (sharedGroup != this.sharedGroup && (radioButtons.size() > 0 || sharedRegistrationCount > 0)) {
+            // the registered radio buttons would stay in the group they registered in
+            throw new IllegalStateException("A shared group should be bound before radio buttons are registered");
+        }
+        this.sharedGroup = sharedGroup;
+    }
+
+    public NestedRadioSharedGroup getSharedGroup() {
+        return sharedGroup;
+    }
+
+    private void requireNotShared(String feature) {
+        if (sharedGroup != null) {
+            throw new IllegalStateException(feature + " is not available while bound to the shared group "
+                    + sharedGroup.getName() + ", see setSharedGroup");
+        }
+    }
+
+    /**
+     * <p>Registers in one pass the radio buttons listed for this group in its generated
+     * {@link NestedRadioBindingTable}, to be called by the group once inflated. Does nothing if
+     * no table was registered for the group id.</p>
+     *
+     * <p>Buttons bound to another group by the hierarchy, e.g. a nested group sharing ids in
+     * another layout, are skipped.</p>
+     */
+    public void registerBindingTable() {
+        if (!(groupView instanceof NestedRadioGroupInterface) || groupView.getId() == View.NO_ID) {
+            return;
+        }
+        NestedRadioBindingTable.Binding binding = NestedRadioBindingTable.get(groupView.getId());
+        if (binding == null) {
+            return;
+        }
+        NestedRadioGroupInterface nestedRadioGroup = (NestedRadioGroupInterface) groupView;
+        beginBatch();
+        try {
+            for (int i = 0; i < binding.buttonIds.length; i++) {
+                View view = groupView.findViewById(binding.buttonIds[i]);
+                if (!(view instanceof NestedRadioButton)) {
+                    continue;
+                }
+                NestedRadioButton nestedRadioButton = (NestedRadioButton) view;
+                NestedRadioGroupInterface boundNestedRadioGroup = nestedRadioButton.getBoundNestedRadioGroup();
+                if (boundNestedRadioGroup != null && boundNestedRadioGroup != nestedRadioGroup) {
+                    continue;
+                }
+                if (binding.clickableParentIds[i] != View.NO_ID) {
+                    nestedRadioButton.bindClickableParent(groupView.findViewById(binding.clickableParentIds[i]));
+                }
+                nestedRadioButton.registerNestedRadioGroup(nestedRadioGroup);
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * <p>Unregisters a radio button from this group, typically when it is detached from the
+     * window. The group stops referencing the button and its checked state tracker is removed.</p>
+     *
+     * <p>If the removed button is the checked one, the selection is kept by id and no change is
+     * dispatched: a button registered later with the same id (e.g. the same page re-attached in a
+     * ViewPager) is restored checked. Call {@link #clearCheck()} to drop the selection. The same
+     * goes for {@link #SELECTION_MODE_MULTIPLE}, where bulk operations such as
+     * {@link #selectAll()} skip the removed button until it registers again.</p>
+     *
+     * @param nestedRadioButton the radio button to unregister
+     */
+    public void removeNestedRadioButton(NestedRadioButton nestedRadioButton) {
+        if (sharedGroup != null) {
+            sharedGroup.getNestedRadioGroupManager().removeNestedRadioButton(nestedRadioButton);
+            sharedRegistrationCount--;
+            return;
+        }
+        int id = nestedRadioButton.getId();
+        // only remove the registered instance, another button may have been registered with this id
+        if (radioButtons.get(id) == nestedRadioButton) {
+            radioButtons.remove(id);
+            radioButtonIndex.remove(id);
+            radioButtonScopeKeys.delete(id);
+            clickDispatcher.unbind(nestedRadioButton);
+            if (multiSelection != null) {
+                // kept selected by id, bulk operations skip it until registered again
+                multiSelection.onButtonUnregistered(id);
+            }
+            autofillOptions = null;
+            if (optionTextIndex != null) {
+                // a filtered out radio button stays hidden while detached, it is shown again when
+                // removed from the group or on its next registration if it then matches
+                optionTextIndex.remove(id);
+            }
+            unregistrationCount++;
+            metrics.onButtonUnregistered(this, id);
+        }
+        nestedRadioButton.setOnCheckedChangeListener(null);
+        nestedRadioButton.setUncheckable(false);
+    }
+
+    /**
+     * <p>Puts registered radio buttons back in display order after they were moved, so that key
+     * navigation and autofill follow it. The other radio buttons keep their positions.</p>
+     *
+     * @param ids the ids of the moved radio buttons and of the ones around them, in display order
+     */
+    void reorderNestedRadioButtons(int[] ids) {
+        if (sharedGroup != null) {
+            sharedGroup.getNestedRadioGroupManager().reorderNestedRadioButtons(ids);
+            return;
+        }
+        radioButtonIndex.reorder(ids);
+        autofillOptions = null;
+    }
+
+    /**
+     * <p>To be called when a registered radio button is enabled, disabled, shown or hidden, to
+     * keep key navigation from going through a tree search.</p>
+     *
+     * @param nestedRadioButton the radio button whose state changed
+     */
+    public void onNestedRadioButtonStateChanged(NestedRadioButton nestedRadioButton) {
+        if (sharedGroup != null) {
+            sharedGroup.getNestedRadioGroupManager().onNestedRadioButtonStateChanged(nestedRadioButton);
+            return;
+        }
+        if (radioButtons.get(nestedRadioButton.getId()) == nestedRadioButton) {
+            radioButtonIndex.setFlags(nestedRadioButton.getId(), getFlags(nestedRadioButton));
+        }
+    }
+
+    private static int getFlags(NestedRadioButton nestedRadioButton) {
+        return (nestedRadioButton.isEnabled() ? FLAG_ENABLED : 0)
+                | (nestedRadioButton.isShown() ? FLAG_SHOWN : 0);
+    }
+
+    /**
+     * @return the number of radio buttons currently registered in this group
+     */
+    public int getNestedRadioButtonCount() {
+        return radioButtons.size();
+    }
+
+    /**
+     * <p>Saves the checked ids of this group, for all its scopes.</p>
+     *
+     * @param savedState the saved state of the group view
+     */
+    public void saveInstanceState(NestedRadioGroupSavedState savedState) {
+        if (sharedGroup != null) {
+            // the selection belongs to the shared group
+            return;
+        }
+        savedState.checkedId = getCheckedId();
+        if (multiSelection != null) {
+            savedState.selectedIds = multiSelection.getSelectedIds();
+        }
+        int scopeCount = scopes.size();
+        if (scopeCount > 0) {
+            savedState.scopeNames = new String[scopeCount];
+            savedState.scopeCheckedIds = new int[scopeCount];
+            for (int i = 0; i < scopeCount; i++) {
+                savedState.scopeNames[i] = scopes.valueAt(i).getGroupName();
+                savedState.scopeCheckedIds[i] = scopes.valueAt(i).getCheckedId();
+            }
+        }
+    }
+
+    /**
+     * <p>Restores the checked ids of this group. If no radio button is registered yet, the
+     * selection is restored silently and applied as radio buttons register. Otherwise it is
+     * applied in a batch, with at most one change event per scope.</p>
+     *
+     * @param savedState the saved state of the group view
+     */
+    public void restoreInstanceState(NestedRadioGroupSavedState savedState) {
+        if (sharedGroup != null) {
+            return;
+        }
+        boolean silent = radioButtons.size() == 0;
+        if (multiSelection != null && savedState.selectedIds != null) {
+            if (silent) {
+                multiSelection.restoreSelection(savedState.selectedIds);
+            } else {
+                multiSelection.setSelection(savedState.selectedIds);
+            }
+        }
+        if (!silent) {
+            beginBatch();
+        }
+        restoreScopeCheckedId(null, savedState.checkedId, silent);
+        if (savedState.scopeNames != null) {
+            for (int i = 0; i < savedState.scopeNames.length; i++) {
+                restoreScopeCheckedId(savedState.scopeNames[i], savedState.scopeCheckedIds[i], silent);
+            }
+        }
+        if (silent) {
+            publishSnapshot();
+        } else {
+            endBatch();
+        }
+    }
+
+    private void restoreScopeCheckedId(String groupName, @IdRes int id, boolean silent) {
+        SelectionEngine scope = groupName == null ? this : scopes.get(getScopeKey(groupName));
+        if (silent) {
+            scope.restoreCheckedId(id);
+        } else {
+            scope.check(id);
+        }
+    }
+
+    /**
+     * <p>Sets the selection mode, before radio buttons are registered.</p>
+     *
+     * @param selectionMode {@link #SELECTION_MODE_SINGLE} or {@link #SELECTION_MODE_MULTIPLE}
+     */
+    public void setSelectionMode(int selectionMode) {
+        if (selectionMode == SELECTION_MODE_MULTIPLE) {
+            requireNotShared("SELECTION_MODE_MULTIPLE");
+            if (multiSelection == null) {
+                multiSelection = new NestedRadioMultiSelection(this);
+            }
+        } else if (selectionMode == SELECTION_MODE_SINGLE) {
+            multiSelection = null;
+        } else {
+            throw new IllegalArgumentException("Unknown selection mode " + selectionMode);
+        }
+        publishSnapshot();
+    }
+
+    public int getSelectionMode() {
+        return multiSelection != null ? SELECTION_MODE_MULTIPLE : SELECTION_MODE_SINGLE;
+    }
+
+    /**
+     * <p>Sets the maximum number of checked radio buttons in {@link #SELECTION_MODE_MULTIPLE}.</p>
+     *
+     * @param maxSelected the maximum number of checked radio buttons
+     */
+    public void setMaxSelected(int maxSelected) {
+        requireMultiSelection().setMaxSelected(maxSelected);
+    }
+
+    /**
+     * @return the ids of the checked radio buttons: in {@link #SELECTION_MODE_MULTIPLE} in
+     * registration order, otherwise the checked id if any
+     */
+    public int[] getSelectedIds() {
+        if (multiSelection != null) {
+            return multiSelection.getSelectedIds();
+        }
+        return getCheckedId() != NO_ID ? new int[]{getCheckedId()} : new int[0];
+    }
+
+    public boolean isSelected(@IdRes int id) {
+        return multiSelection != null ? multiSelection.isSelected(id) : id != NO_ID && id == getCheckedId();
+    }
+
+    /**
+     * <p>Checks a radio button in {@link #SELECTION_MODE_MULTIPLE}, unless the maximum number of
+     * checked radio buttons is reached.</p>
+     *
+     * @param id the unique id of the radio button to check
+     * @return true if the radio button is checked after this call
+     */
+    public boolean select(@IdRes int id) {
+        return requireMultiSelection().select(id);
+    }
+
+    public void deselect(@IdRes int id) {
+        requireMultiSelection().deselect(id);
+    }
+
+    /**
+     * <p>Checks all the radio buttons in {@link #SELECTION_MODE_MULTIPLE}, in registration order
+     * up to the maximum number of checked radio buttons, with a single change event.</p>
+     */
+    public void selectAll() {
+        requireMultiSelection().selectAll();
+    }
+
+    /**
+     * <p>Inverts the checked radio buttons in {@link #SELECTION_MODE_MULTIPLE}, with a single
+     * change event.</p>
+     */
+    public void invertSelection() {
+        requireMultiSelection().invert();
+    }
+
+    /**
+     * <p>Replaces the checked radio buttons in {@link #SELECTION_MODE_MULTIPLE}, with a single
+     * change event.</p>
+     *
+     * @param ids the unique ids of the radio buttons to check
+     */
+    public void setSelection(int[] ids) {
+        requireMultiSelection().setSelection(ids);
+    }
+
+    /**
+     * <p>Clears the selection, whatever the selection mode.</p>
+     */
+    @Override
+    public void clearCheck() {
+        if (sharedGroup != null) {
+            sharedGroup.clearCheck();
+        } else if (multiSelection != null) {
+            multiSelection.clear();
+        } else {
+            super.clearCheck();
+        }
+    }
+
+    private NestedRadioMultiSelection requireMultiSelection() {
+        if (multiSelection == null) {
+            throw new IllegalStateException("Only available in SELECTION_MODE_MULTIPLE");
+        }
+        return multiSelection;
+    }
+
+    @Override
     public void check(@IdRes int id) {
-        // don't even bother
-        if (id != -1 && (id == checkedId)) {
+        if (sharedGroup != null) {
+            sharedGroup.check(id);
             return;
         }
+        checkCount++;
+        metrics.onCheck(this, id);
+        if (id != NO_ID && id == getCheckedId()) {
+            redundantCheckCount++;
+            metrics.onRedundantCheckSkipped(this, id);
+        }
+        super.check(id);
+    }
+
+    /**
+     * @return the unique id of the checked radio button, the one of the shared group if this
+     * group is bound to one, -1 if none
+     */
+    @Override
+    public int getCheckedId() {
+        return sharedGroup != null ? sharedGroup.getCheckedRadioButtonId() : super.getCheckedId();
+    }
 
-        if (checkedId != -1) {
-            setCheckedStateForView(checkedId, false);
+    /**
+     * @return an immutable snapshot of the selection of the default scope, which can be read
+     * from any thread without locking
+     */
+    @AnyThread
+    @NonNull
+    public NestedRadioSelection getSelection() {
+        if (sharedGroup != null) {
+            return sharedGroup.getNestedRadioGroupManager().getSelection();
         }
+        return (NestedRadioSelection) getSnapshot();
+    }
 
-        if (id != -1) {
-            setCheckedStateForView(id, true);
+    /**
+     * <p>Requests to check a radio button from any thread. The check is applied on the main
+     * thread like {@link #check(int)}: requests are applied in call order, and user taps are
+     * handled in the order they reach the main thread relative to them.</p>
+     *
+     * @param id the unique id of the radio button to select, -1 to clear the selection
+     */
+    @AnyThread
+    public void checkAsync(@IdRes final int id) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                check(id);
+            }
+        });
+    }
+
+    /**
+     * <p>Ties a child group to an option of the default scope of this group: the radio buttons
+     * of the child group are enabled only while the option is selected, and the selection of the
+     * child group is cleared when the option is deselected, which in turn disables the groups
+     * tied to the options of the child group.</p>
+     *
+     * <p>Only the child groups of the options whose selection changed are updated, the cost of a
+     * change depends on the number of radio buttons of these groups, not on the number of groups
+     * in the form. The gate only enables again the radio buttons it disabled, including the ones
+     * detached while it was closed, when they register again.</p>
+     *
+     * @param optionId   the id of the radio button gating the child group
+     * @param childGroup the child group, moved if already tied to another option
+     * @throws IllegalArgumentException if the child group is this group or one of its ancestors
+     */
+    public void addChildGroup(@IdRes int optionId, @NonNull NestedRadioGroupManager childGroup) {
+        requireNotShared("Child groups");
+        childGroup.requireNotShared("Child groups");
+        for (NestedRadioGroupManager group = this; group != null; group = group.parentGroup) {
+            if (group == childGroup) {
+                throw new IllegalArgumentException("A group cannot be nested in itself");
+            }
         }
+        if (childGroup.parentGroup != null) {
+            childGroup.parentGroup.removeChildGroup(childGroup);
+        }
+        List<NestedRadioGroupManager> optionChildGroups = childGroups.get(optionId);
+        if (optionChildGroups == null) {
+            optionChildGroups = new ArrayList<>();
+            childGroups.put(optionId, optionChildGroups);
+        }
+        optionChildGroups.add(childGroup);
+        childGroup.parentGroup = this;
+        childGroup.gatingId = optionId;
+        boolean selected = isSelected(optionId);
+        if (selected && multiSelection == null) {
+            enabledGatingId = optionId;
+        }
+        childGroup.setGateEnabled(selected);
+    }
 
-        setCheckedId(id);
+    /**
+     * <p>Unties a child group from its gating option, its radio buttons are enabled again.</p>
+     *
+     * @param childGroup the child group
+     */
+    public void removeChildGroup(@NonNull NestedRadioGroupManager childGroup) {
+        if (childGroup.parentGroup != this) {
+            return;
+        }
+        List<NestedRadioGroupManager> optionChildGroups = childGroups.get(childGroup.gatingId);
+        optionChildGroups.remove(childGroup);
+        if (optionChildGroups.isEmpty()) {
+            childGroups.remove(childGroup.gatingId);
+        }
+        childGroup.parentGroup = null;
+        childGroup.gatingId = NO_ID;
+        childGroup.setGateEnabled(true);
+    }
+
+    /**
+     * @return the group this group is tied to, null if none
+     */
+    public NestedRadioGroupManager getParentGroup() {
+        return parentGroup;
+    }
+
+    /**
+     * @return false while the gating option of this group is not selected in its parent group
+     */
+    public boolean isGateEnabled() {
+        return gateEnabled;
+    }
+
+    /**
+     * @return the manager of a nested radio group
+     * @throws IllegalArgumentException if the group has no manager, e.g. a
+     *                                  {@link NestedRecyclerRadioGroup}
+     */
+    static NestedRadioGroupManager getNestedRadioGroupManager(NestedRadioGroupInterface nestedRadioGroup) {
+        if (nestedRadioGroup instanceof NestedLinearRadioGroup) {
+            return ((NestedLinearRadioGroup) nestedRadioGroup).getNestedRadioGroupManager();
+        } else if (nestedRadioGroup instanceof NestedFrameRadioGroup) {
+            return ((NestedFrameRadioGroup) nestedRadioGroup).getNestedRadioGroupManager();
+        } else if (nestedRadioGroup instanceof NestedRelativeRadioGroup) {
+            return ((NestedRelativeRadioGroup) nestedRadioGroup).getNestedRadioGroupManager();
+        } else if (nestedRadioGroup instanceof NestedConstraintRadioGroup) {
+            return ((NestedConstraintRadioGroup) nestedRadioGroup).getNestedRadioGroupManager();
+        } else if (nestedRadioGroup instanceof NestedConstraintRadioHelper) {
+            return ((NestedConstraintRadioHelper) nestedRadioGroup).getNestedRadioGroupManager();
+        }
+        throw new IllegalArgumentException("Child group should be backed by a NestedRadioGroupManager");
+    }
+
+    private void setChildGroupsEnabled(@IdRes int optionId, boolean enabled) {
+        List<NestedRadioGroupManager> optionChildGroups = childGroups.get(optionId);
+        if (optionChildGroups == null) {
+            return;
+        }
+        for (int i = 0, size = optionChildGroups.size(); i < size; i++) {
+            optionChildGroups.get(i).setGateEnabled(enabled);
+        }
+    }
+
+    private void setGateEnabled(boolean enabled) {
+        if (gateEnabled == enabled) {
+            return;
+        }
+        gateEnabled = enabled;
+        for (int i = 0, size = radioButtonIndex.size(); i < size; i++) {
+            NestedRadioButton nestedRadioButton = radioButtons.get(radioButtonIndex.getId(i));
+            if (nestedRadioButton != null) {
+                nestedRadioButton.setDisabledByGate(!enabled);
+            }
+        }
+        boolean hasSelection = multiSelection != null ? multiSelection.getSelectedCount() > 0 : getCheckedId() != NO_ID;
+        if (!enabled && hasSelection) {
+            // disables the groups tied to the deselected options in turn
+            clearCheck();
+        }
+    }
+
+    @Override
+    protected int[] getSnapshotSelectedIds() {
+        return multiSelection != null ? multiSelection.getSelectedIds() : super.getSnapshotSelectedIds();
+    }
+
+    @Override
+    protected SelectionSnapshot createSnapshot(@IdRes int checkedId, int[] selectedIds, long version) {
+        return version == 0 ? NestedRadioSelection.EMPTY : new NestedRadioSelection(checkedId, selectedIds, version);
     }
 
     @VisibleForTesting
+    @Override
     protected void setCheckedId(@IdRes int id) {
-        checkedId = id;
-        if (onCheckedChangeListener != null) {
-            onCheckedChangeListener.onCheckedChanged(this, checkedId);
+        super.setCheckedId(id);
+        if (childGroups.size() > 0 && id != enabledGatingId) {
+            setChildGroupsEnabled(enabledGatingId, false);
+            setChildGroupsEnabled(id, true);
+        }
+        enabledGatingId = id;
+        dispatchCheckedChanged(null, id);
+        // notifies once for all the changes made in the same message loop iteration
+        if (groupView != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O && !autofillNotificationPending) {
+            autofillNotificationPending = true;
+            groupView.post(notifyAutofillValueChanged);
+        }
+    }
+
+    /**
+     * Calls the listeners for a selection change, or defers it to the next frame in
+     * {@link #DISPATCH_MODE_FRAME}.
+     *
+     * @param groupName the name of the scope whose selection changed, null for the default one
+     * @param id        the newly checked id
+     */
+    void dispatchCheckedChanged(String groupName, @IdRes int id) {
+        if (dispatchMode == DISPATCH_MODE_FRAME) {
+            pendingCheckedIds.put(groupName == null ? DEFAULT_SCOPE_KEY : getScopeKey(groupName), id);
+            if (!frameDispatchScheduled) {
+                frameDispatchScheduled = true;
+                Choreographer.getInstance().postFrameCallback(dispatchPendingCheckedIds);
+            }
+            return;
+        }
+        dispatchCheckedChangedNow(groupName, id);
+    }
+
+    private void dispatchCheckedChangedNow(String groupName, @IdRes int id) {
+        boolean notifyDefault = groupName == null
+                && (onCheckedChangeListener != null || onCheckedChangeListeners.length > 0);
+        if (!notifyDefault && onScopedCheckedChangeListener == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (notifyDefault) {
+            if (onCheckedChangeListener != null) {
+                onCheckedChangeListener.onCheckedChanged(this, id);
+            }
+            // a listener (un)registering listeners does not affect this dispatch
+            OnCheckedChangeListener[] listeners = onCheckedChangeListeners;
+            for (OnCheckedChangeListener listener : listeners) {
+                listener.onCheckedChanged(this, id);
+            }
+        }
+        if (onScopedCheckedChangeListener != null) {
+            onScopedCheckedChangeListener.onCheckedChanged(this, groupName, id);
+        }
+        long duration = System.nanoTime() - start;
+        dispatchCount++;
+        dispatchTimeNanos += duration;
+        metrics.onListenerDispatched(this, id, duration);
+    }
+
+    private void dispatchPendingCheckedIds() {
+        // copies the pending changes first, listeners may change the selection again
+        int count = pendingCheckedIds.size();
+        if (count == 0) {
+            return;
         }
-        //TODO
-        /*if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            final AutofillManager afm = mContext.getSystemService(AutofillManager.class);
-            if (afm != null) {
-                afm.notifyValueChanged(this);
+        int[] scopeKeys = new int[count];
+        int[] checkedIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            scopeKeys[i] = pendingCheckedIds.keyAt(i);
+            checkedIds[i] = pendingCheckedIds.valueAt(i);
+        }
+        pendingCheckedIds.clear();
+        for (int i = 0; i < count; i++) {
+            String groupName = scopeKeys[i] == DEFAULT_SCOPE_KEY ? null : scopes.get(scopeKeys[i]).getGroupName();
+            dispatchCheckedChangedNow(groupName, checkedIds[i]);
+        }
+    }
+
+    /**
+     * Calls the listener for a change in {@link #SELECTION_MODE_MULTIPLE}.
+     */
+    void dispatchSelectionChanged(int[] selectedIds, int[] deselectedIds) {
+        publishSnapshot();
+        if (childGroups.size() > 0) {
+            for (int deselectedId : deselectedIds) {
+                setChildGroupsEnabled(deselectedId, false);
+            }
+            for (int selectedId : selectedIds) {
+                setChildGroupsEnabled(selectedId, true);
             }
-        }*/
+        }
+        if (onSelectionChangeListener != null) {
+            long start = System.nanoTime();
+            onSelectionChangeListener.onSelectionChanged(this, selectedIds, deselectedIds);
+            long duration = System.nanoTime() - start;
+            dispatchCount++;
+            dispatchTimeNanos += duration;
+            metrics.onListenerDispatched(this, getCheckedId(), duration);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private void notifyAutofillValueChanged() {
+        final AutofillManager afm = groupView.getContext().getSystemService(AutofillManager.class);
+        if (afm != null) {
+            afm.notifyValueChanged(groupView);
+        }
+    }
+
+    @Override
+    protected void setCheckedState(int id, boolean checked) {
+        setCheckedStateForView(id, checked);
     }
 
     @VisibleForTesting
@@ -132,13 +958,226 @@ public class NestedRadioGroupManager {
         return radioButtons.get(viewId);
     }
 
-    @TargetApi(Build.VERSION_CODES.O)
-    public void onProvideAutofillStructure(ViewStructure structure) {
-        structure.setDataIsSensitive(checkedId != initialCheckedId);
+    @Override
+    public void beginBatch() {
+        super.beginBatch();
+        for (int i = 0, size = scopes.size(); i < size; i++) {
+            scopes.valueAt(i).beginBatch();
+        }
     }
 
-    public void clearCheck() {
-        check(-1);
+    @Override
+    public void endBatch() {
+        super.endBatch();
+        for (int i = 0, size = scopes.size(); i < size; i++) {
+            scopes.valueAt(i).endBatch();
+        }
+    }
+
+    /**
+     * <p>Sets the selection of a named scope, see {@link #check(int)}.</p>
+     *
+     * @param groupName the app:groupName of the radio button, null for the default scope
+     * @param id        the unique id of the radio button to select in this scope
+     */
+    public void check(String groupName, @IdRes int id) {
+        if (groupName == null) {
+            check(id);
+        } else {
+            requireNotShared("Named scopes");
+            scopes.get(getScopeKey(groupName)).check(id);
+        }
+    }
+
+    /**
+     * <p>Clears the selection of a named scope.</p>
+     *
+     * @param groupName the app:groupName of the radio buttons, null for the default scope
+     */
+    public void clearCheck(String groupName) {
+        check(groupName, NO_ID);
+    }
+
+    /**
+     * @param groupName the app:groupName of the radio buttons, null for the default scope
+     * @return the checked id in this scope, -1 if none
+     */
+    @IdRes
+    public int getCheckedId(String groupName) {
+        if (groupName == null) {
+            return getCheckedId();
+        }
+        Integer scopeKey = scopeKeys.get(groupName);
+        return scopeKey != null ? scopes.get(scopeKey).getCheckedId() : NO_ID;
+    }
+
+    /**
+     * @return the number of named scopes in this group
+     */
+    public int getScopeCount() {
+        return scopes.size();
+    }
+
+    private int getScopeKey(String groupName) {
+        Integer scopeKey = scopeKeys.get(groupName);
+        if (scopeKey == null) {
+            scopeKey = scopeKeys.size() + 1;
+            scopeKeys.put(groupName, scopeKey);
+            NestedRadioScope scope = new NestedRadioScope(this, groupName);
+            // joins the batches in progress
+            for (int i = 0, depth = getBatchDepth(); i < depth; i++) {
+                scope.beginBatch();
+            }
+            scopes.put(scopeKey, scope);
+        }
+        return scopeKey;
+    }
+
+    /**
+     * @return the position of the checked radio button among the registered ones, -1 if none
+     */
+    public int getCheckedPosition() {
+        return radioButtonIndex.indexOf(getCheckedId());
+    }
+
+    /**
+     * @param position a position among the registered radio buttons
+     * @return the id of the radio button at this position, -1 if out of bounds
+     */
+    @IdRes
+    public int getIdAtPosition(int position) {
+        return position >= 0 && position < radioButtonIndex.size() ? radioButtonIndex.getId(position) : NO_ID;
+    }
+
+    /**
+     * <p>Enables moving the focus between the radio buttons of this group with the arrow keys,
+     * in registration order, which is the document order on inflation. The focus wraps around
+     * and skips disabled or hidden radio buttons; home and end keys go to the first and last
+     * radio buttons.</p>
+     *
+     * @param keyNavigationEnabled true to handle arrow keys within this group
+     */
+    public void setKeyNavigationEnabled(boolean keyNavigationEnabled) {
+        if (keyNavigationEnabled) {
+            requireNotShared("Key navigation");
+        }
+        this.keyNavigationEnabled = keyNavigationEnabled;
+    }
+
+    /**
+     * @param selectionFollowsFocus true to check the radio buttons focused by key navigation
+     */
+    public void setSelectionFollowsFocus(boolean selectionFollowsFocus) {
+        if (selectionFollowsFocus) {
+            requireNotShared("Key navigation");
+        }
+        this.selectionFollowsFocus = selectionFollowsFocus;
+    }
+
+    /**
+     * @param fromId    the id of the radio button to start from, -1 for none
+     * @param direction one of {@link #NAVIGATE_NEXT}, {@link #NAVIGATE_PREVIOUS},
+     *                  {@link #NAVIGATE_FIRST} or {@link #NAVIGATE_LAST}
+     * @return the id of the enabled and shown radio button in this direction, -1 if none
+     */
+    @IdRes
+    public int getNavigationTargetId(@IdRes int fromId, int direction) {
+        int position;
+        switch (direction) {
+            case NAVIGATE_NEXT:
+            case NAVIGATE_PREVIOUS:
+                int fromPosition = radioButtonIndex.indexOf(fromId);
+                boolean forward = direction == NAVIGATE_NEXT;
+                if (fromPosition == OrderedIdIndex.NOT_FOUND) {
+                    fromPosition = forward ? -1 : radioButtonIndex.size();
+                }
+                position = radioButtonIndex.findNext(fromPosition, forward, FLAGS_NAVIGABLE, true);
+                break;
+            case NAVIGATE_FIRST:
+                position = radioButtonIndex.findNext(-1, true, FLAGS_NAVIGABLE, false);
+                break;
+            case NAVIGATE_LAST:
+                position = radioButtonIndex.findNext(radioButtonIndex.size(), false, FLAGS_NAVIGABLE, false);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown direction " + direction);
+        }
+        return position != OrderedIdIndex.NOT_FOUND ? radioButtonIndex.getId(position) : NO_ID;
+    }
+
+    /**
+     * <p>Moves the focus to the radio button in a direction, and checks it if selection follows
+     * focus.</p>
+     *
+     * @return true if a radio button got the focus
+     */
+    public boolean navigate(@IdRes int fromId, int direction) {
+        int targetId = getNavigationTargetId(fromId, direction);
+        NestedRadioButton target = findViewById(targetId);
+        if (target == null || !target.requestFocus()) {
+            return false;
+        }
+        if (selectionFollowsFocus) {
+            // like a tap, in the scope of the radio button
+            target.setChecked(true);
+        }
+        return true;
+    }
+
+    /**
+     * <p>Handles the arrow, home and end keys not consumed by the focused view, when key
+     * navigation is enabled.</p>
+     *
+     * @param event   the key event dispatched to the group
+     * @param focused the focused view within the group
+     * @return true if the event was consumed
+     */
+    public boolean onNavigationKeyEvent(KeyEvent event, View focused) {
+        if (!keyNavigationEnabled || event.getAction() != KeyEvent.ACTION_DOWN
+                || focused == null || radioButtons.get(focused.getId()) != focused) {
+            return false;
+        }
+        int direction;
+        switch (event.getKeyCode()) {
+            case KeyEvent.KEYCODE_DPAD_DOWN:
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+                direction = NAVIGATE_NEXT;
+                break;
+            case KeyEvent.KEYCODE_DPAD_UP:
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+                direction = NAVIGATE_PREVIOUS;
+                break;
+            case KeyEvent.KEYCODE_MOVE_HOME:
+                direction = NAVIGATE_FIRST;
+                break;
+            case KeyEvent.KEYCODE_MOVE_END:
+                direction = NAVIGATE_LAST;
+                break;
+            default:
+                return false;
+        }
+        return navigate(focused.getId(), direction);
+    }
+
+    /**
+     * @return the texts of the registered radio buttons, in the positions used by autofill
+     */
+    public CharSequence[] getAutofillOptions() {
+        if (autofillOptions == null) {
+            autofillOptions = new CharSequence[radioButtonIndex.size()];
+            for (int i = 0; i < autofillOptions.length; i++) {
+                NestedRadioButton nestedRadioButton = radioButtons.get(radioButtonIndex.getId(i));
+                // a radio button can be collected without being detached, e.g. if never attached
+                autofillOptions[i] = nestedRadioButton != null ? nestedRadioButton.getText() : "";
+            }
+        }
+        return autofillOptions;
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    public void onProvideAutofillStructure(ViewStructure structure) {
+        structure.setDataIsSensitive(isCheckedIdModified());
+        structure.setAutofillOptions(getAutofillOptions());
     }
 
     /**
@@ -148,9 +1187,125 @@ public class NestedRadioGroupManager {
      * @param listener the callback to call on checked state change
      */
     public void setOnCheckedChangeListener(OnCheckedChangeListener listener) {
+        if (listener != null) {
+            requireNotShared("Listeners");
+        }
         onCheckedChangeListener = listener;
     }
 
+    /**
+     * <p>Adds a callback to be invoked when the checked radio button changes in this group,
+     * after the one set with {@link #setOnCheckedChangeListener(OnCheckedChangeListener)}.
+     * Listeners can be added or removed from a callback, the change applies to the next
+     * dispatch.</p>
+     *
+     * @param listener the callback to call on checked state change
+     */
+    public void addOnCheckedChangeListener(@NonNull OnCheckedChangeListener listener) {
+        requireNotShared("Listeners");
+        OnCheckedChangeListener[] listeners = Arrays.copyOf(onCheckedChangeListeners, onCheckedChangeListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        onCheckedChangeListeners = listeners;
+    }
+
+    public void removeOnCheckedChangeListener(OnCheckedChangeListener listener) {
+        for (int i = 0; i < onCheckedChangeListeners.length; i++) {
+            if (onCheckedChangeListeners[i] == listener) {
+                OnCheckedChangeListener[] listeners = new OnCheckedChangeListener[onCheckedChangeListeners.length - 1];
+                System.arraycopy(onCheckedChangeListeners, 0, listeners, 0, i);
+                System.arraycopy(onCheckedChangeListeners, i + 1, listeners, i, listeners.length - i);
+                onCheckedChangeListeners = listeners.length > 0 ? listeners : NO_LISTENERS;
+                return;
+            }
+        }
+    }
+
+    /**
+     * <p>Sets when checked change listeners are called. In {@link #DISPATCH_MODE_FRAME}, changes
+     * are coalesced and each changed scope is notified once on the next frame with its final
+     * checked id. Must be called from the main thread. Switching back to
+     * {@link #DISPATCH_MODE_IMMEDIATE} dispatches the pending changes.</p>
+     *
+     * @param dispatchMode {@link #DISPATCH_MODE_IMMEDIATE} or {@link #DISPATCH_MODE_FRAME}
+     */
+    public void setDispatchMode(int dispatchMode) {
+        if (dispatchMode != DISPATCH_MODE_IMMEDIATE && dispatchMode != DISPATCH_MODE_FRAME) {
+            throw new IllegalArgumentException("Unknown dispatch mode " + dispatchMode);
+        }
+        this.dispatchMode = dispatchMode;
+        if (dispatchMode == DISPATCH_MODE_IMMEDIATE && frameDispatchScheduled) {
+            Choreographer.getInstance().removeFrameCallback(dispatchPendingCheckedIds);
+            frameDispatchScheduled = false;
+            dispatchPendingCheckedIds();
+        }
+    }
+
+    public int getDispatchMode() {
+        return dispatchMode;
+    }
+
+    /**
+     * <p>Register a callback to be invoked when the checked radio button
+     * changes in any scope of this group, including the default one.</p>
+     *
+     * @param listener the callback to call on checked state change
+     */
+    public void setOnScopedCheckedChangeListener(OnScopedCheckedChangeListener listener) {
+        if (listener != null) {
+            requireNotShared("Listeners");
+        }
+        onScopedCheckedChangeListener = listener;
+    }
+
+    /**
+     * <p>Register a callback to be invoked when radio buttons are checked or unchecked in
+     * {@link #SELECTION_MODE_MULTIPLE}.</p>
+     *
+     * @param listener the callback to call on selection change
+     */
+    public void setOnSelectionChangeListener(OnSelectionChangeListener listener) {
+        if (listener != null) {
+            requireNotShared("Listeners");
+        }
+        onSelectionChangeListener = listener;
+    }
+
+    /**
+     * <p>Sets the hook reporting registrations, checks and listener dispatches of this group.</p>
+     *
+     * @param metrics the metrics hook, null to reset it to {@link NestedRadioMetrics#NO_OP}
+     */
+    public void setMetrics(NestedRadioMetrics metrics) {
+        this.metrics = metrics != null ? metrics : NestedRadioMetrics.NO_OP;
+    }
+
+    /**
+     * <p>Prints the state and counters of this group, for diagnostics.</p>
+     *
+     * @param writer the writer to print to
+     * @param prefix the prefix of each line, e.g. an indentation
+     */
+    public void dump(PrintWriter writer, String prefix) {
+        writer.println(prefix + "registered buttons: " + radioButtons.size());
+        writer.println(prefix + "named scopes: " + scopes.size());
+        writer.println(prefix + "checked id: " + formatId(getCheckedId()));
+        if (multiSelection != null) {
+            writer.println(prefix + "selected ids: " + multiSelection.getSelectedCount());
+        }
+        writer.println(prefix + "initial checked id: " + formatId(getInitialCheckedId()));
+        writer.println(prefix + "registrations: " + registrationCount);
+        writer.println(prefix + "unregistrations: " + unregistrationCount);
+        writer.println(prefix + "checks: " + checkCount);
+        writer.println(prefix + "redundant checks skipped: " + redundantCheckCount);
+        writer.println(prefix + "checked change listeners: " + onCheckedChangeListeners.length);
+        writer.println(prefix + "listener dispatches: " + dispatchCount);
+        writer.println(prefix + "listener dispatch time (us): " + dispatchTimeNanos / 1000);
+    }
+
+    private static String formatId(int id) {
+        return id == NO_ID ? "none" : "0x" + Integer.toHexString(id);
+    }
+
     /**
      * <p>Interface definition for a callback to be invoked when the checked
      * radio button changed in this group.</p>
@@ -166,22 +1321,48 @@ public class NestedRadioGroupManager {
         void onCheckedChanged(NestedRadioGroupManager groupManager, @IdRes int checkedId);
     }
 
+    /**
+     * <p>Interface definition for a callback to be invoked when the checked
+     * radio button changed in a scope of this group.</p>
+     */
+    public interface OnScopedCheckedChangeListener {
+        /**
+         * <p>Called when the checked radio button has changed in a scope. When the
+         * selection is cleared, checkedId is -1.</p>
+         *
+         * @param groupManager the group in which the checked radio button has changed
+         * @param groupName    the app:groupName of the scope, null for the default scope
+         * @param checkedId    the unique identifier of the newly checked radio button
+         */
+        void onCheckedChanged(NestedRadioGroupManager groupManager, String groupName, @IdRes int checkedId);
+    }
+
+    /**
+     * <p>Interface definition for a callback to be invoked when the checked
+     * radio buttons changed in {@link #SELECTION_MODE_MULTIPLE}. Bulk operations
+     * are notified once.</p>
+     */
+    public interface OnSelectionChangeListener {
+        /**
+         * @param groupManager  the group in which the selection has changed
+         * @param selectedIds   the unique ids of the newly checked radio buttons
+         * @param deselectedIds the unique ids of the newly unchecked radio buttons
+         */
+        void onSelectionChanged(NestedRadioGroupManager groupManager, int[] selectedIds, int[] deselectedIds);
+    }
+
     private class CheckedStateTracker implements CompoundButton.OnCheckedChangeListener {
         @Override
         public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
-            // prevents from infinite recursion
-            if (protectFromCheckedChange) {
-                return;
-            }
             int id = buttonView.getId();
-
-            protectFromCheckedChange = true;
-            if (checkedId != -1 && checkedId != id) {
-                setCheckedStateForView(checkedId, false);
+            int scopeKey = radioButtonScopeKeys.get(id, DEFAULT_SCOPE_KEY);
+            if (scopeKey == DEFAULT_SCOPE_KEY && multiSelection != null) {
+                multiSelection.onButtonCheckedChanged(id, isChecked);
+            } else if (scopeKey == DEFAULT_SCOPE_KEY) {
+                onButtonChecked(id);
+            } else {
+                scopes.get(scopeKey).onButtonChecked(id);
             }
-            protectFromCheckedChange = false;
-
-            setCheckedId(id);
         }
     }
 
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.View;
+
+/**
+ * <p>Saved state of a nested radio group: only the checked ids, so that a group of any size is
+ * restored in one go instead of each radio button restoring its own checked state.</p>
+ */
+
+public class NestedRadioGroupSavedState extends View.BaseSavedState {
+
+    // checked id of the default scope
+    int checkedId = View.NO_ID;
+    // checked ids in multiple selection mode, null otherwise
+    int[] selectedIds;
+    // named scopes and their checked ids, null if none
+    String[] scopeNames;
+    int[] scopeCheckedIds;
+
+    NestedRadioGroupSavedState(Parcelable superState) {
+        super(superState);
+    }
+
+    private NestedRadioGroupSavedState(Parcel in) {
+        super(in);
+        checkedId = in.readInt();
+        selectedIds = in.createIntArray();
+        scopeNames = in.createStringArray();
+        scopeCheckedIds = in.createIntArray();
+    }
+
+    @Override
+    public void writeToParcel(Parcel out, int flags) {
+        super.writeToParcel(out, flags);
+        out.writeInt(checkedId);
+        out.writeIntArray(selectedIds);
+        out.writeStringArray(scopeNames);
+        out.writeIntArray(scopeCheckedIds);
+    }
+
+    public static final Parcelable.Creator<NestedRadioGroupSavedState> CREATOR = new Parcelable.Creator<NestedRadioGroupSavedState>() {
+        @Override
+        public NestedRadioGroupSavedState createFromParcel(Parcel in) {
+            return new NestedRadioGroupSavedState(in);
+        }
+
+        @Override
+        public NestedRadioGroupSavedState[] newArray(int size) {
+            return new NestedRadioGroupSavedState[size];
+        }
+    };
+}
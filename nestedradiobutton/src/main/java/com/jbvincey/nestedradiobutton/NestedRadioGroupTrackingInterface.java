@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+/**
+ * <p>A {@link NestedRadioGroupInterface} which also tracks its radio buttons once registered:
+ * told when they are removed, and when their state changes. All the groups of the library
+ * implement it.</p>
+ *
+ * <p>Kept apart from NestedRadioGroupInterface so that groups implementing only
+ * {@link #addNestedRadioButton(NestedRadioButton)} still compile; their radio buttons are then
+ * never unregistered, as before.</p>
+ */
+
+public interface NestedRadioGroupTrackingInterface extends NestedRadioGroupInterface {
+
+    void removeNestedRadioButton(NestedRadioButton nestedRadioButton);
+
+    /**
+     * Called when a registered radio button is enabled, disabled, shown or hidden.
+     */
+    void onNestedRadioButtonStateChanged(NestedRadioButton nestedRadioButton);
+
+}
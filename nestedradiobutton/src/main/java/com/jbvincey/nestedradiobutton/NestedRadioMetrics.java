@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.IdRes;
+
+/**
+ * <p>Hook reporting what a {@link NestedRadioGroupManager} does, e.g. to aggregate it in
+ * telemetry. Callbacks are made on the UI thread, synchronously, and should be cheap.</p>
+ *
+ * <p>Set it with {@link NestedRadioGroupManager#setMetrics(NestedRadioMetrics)}, the default is
+ * {@link #NO_OP}.</p>
+ */
+
+public interface NestedRadioMetrics {
+
+    /**
+     * Metrics doing nothing.
+     */
+    NestedRadioMetrics NO_OP = new NestedRadioMetrics() {
+        @Override
+        public void onButtonRegistered(NestedRadioGroupManager groupManager, @IdRes int id) {
+        }
+
+        @Override
+        public void onButtonUnregistered(NestedRadioGroupManager groupManager, @IdRes int id) {
+        }
+
+        @Override
+        public void onCheck(NestedRadioGroupManager groupManager, @IdRes int id) {
+        }
+
+        @Override
+        public void onRedundantCheckSkipped(NestedRadioGroupManager groupManager, @IdRes int id) {
+        }
+
+        @Override
+        public void onListenerDispatched(NestedRadioGroupManager groupManager, @IdRes int checkedId, long durationNanos) {
+        }
+    };
+
+    /**
+     * Called when a radio button is registered in the group.
+     */
+    void onButtonRegistered(NestedRadioGroupManager groupManager, @IdRes int id);
+
+    /**
+     * Called when a radio button is unregistered from the group.
+     */
+    void onButtonUnregistered(NestedRadioGroupManager groupManager, @IdRes int id);
+
+    /**
+     * Called on each programmatic check, including the skipped ones.
+     */
+    void onCheck(NestedRadioGroupManager groupManager, @IdRes int id);
+
+    /**
+     * Called when a check is skipped because the radio button is already checked.
+     */
+    void onRedundantCheckSkipped(NestedRadioGroupManager groupManager, @IdRes int id);
+
+    /**
+     * Called after the group listener has been called.
+     *
+     * @param checkedId     the newly checked id, -1 in
+     *                      {@link NestedRadioGroupManager#SELECTION_MODE_MULTIPLE}
+     * @param durationNanos the time spent in the listener, in nanoseconds
+     */
+    void onListenerDispatched(NestedRadioGroupManager groupManager, @IdRes int checkedId, long durationNanos);
+}
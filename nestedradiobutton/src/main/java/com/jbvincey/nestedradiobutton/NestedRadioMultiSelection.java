@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import com.jbvincey.nestedradiobutton.core.MultiSelectionEngine;
+
+/**
+ * Multiple selection of the radio buttons of a {@link NestedRadioGroupManager} in
+ * {@link NestedRadioGroupManager#SELECTION_MODE_MULTIPLE}. Buttons are held by the manager.
+ */
+
+class NestedRadioMultiSelection extends MultiSelectionEngine {
+
+    private final NestedRadioGroupManager groupManager;
+
+    NestedRadioMultiSelection(NestedRadioGroupManager groupManager) {
+        this.groupManager = groupManager;
+    }
+
+    @Override
+    protected void setCheckedState(int id, boolean checked) {
+        groupManager.setCheckedStateForView(id, checked);
+    }
+
+    @Override
+    protected void onSelectionChanged(int[] selectedIds, int[] deselectedIds) {
+        groupManager.dispatchSelectionChanged(selectedIds, deselectedIds);
+    }
+}
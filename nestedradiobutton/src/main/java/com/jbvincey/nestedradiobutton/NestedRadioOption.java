@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.NonNull;
+import android.text.TextUtils;
+
+/**
+ * Model of an option of a radio group built from data, see {@link NestedRadioGroupBuilder}.
+ * Options are identified by a key, stable across updates of the option list.
+ */
+
+public final class NestedRadioOption {
+
+    @NonNull
+    private final String key;
+    private final CharSequence label;
+    private final boolean enabled;
+
+    public NestedRadioOption(@NonNull String key, CharSequence label) {
+        this(key, label, true);
+    }
+
+    public NestedRadioOption(@NonNull String key, CharSequence label, boolean enabled) {
+        this.key = key;
+        this.label = label;
+        this.enabled = enabled;
+    }
+
+    @NonNull
+    public String getKey() {
+        return key;
+    }
+
+    public CharSequence getLabel() {
+        return label;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NestedRadioOption)) {
+            return false;
+        }
+        NestedRadioOption other = (NestedRadioOption) o;
+        return enabled == other.enabled && key.equals(other.key) && TextUtils.equals(label, other.label);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = key.hashCode();
+        result = 31 * result + (label != null ? label.toString().hashCode() : 0);
+        result = 31 * result + (enabled ? 1 : 0);
+        return result;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Radio buttons of a {@link NestedLinearRadioGroup} built from {@link NestedRadioOption}s, see
+ * {@link NestedLinearRadioGroup#submitOptions(List)}.
+ *
+ * A new option list is applied with a minimal diff by option key: radio buttons of removed
+ * options are removed, new options get a new radio button, changed options are rebound, and
+ * only the radio buttons out of the longest run of options keeping their relative order are
+ * moved. Other radio buttons are left untouched. Moved radio buttons stay registered in the
+ * group, and the group order used by key navigation and autofill follows the display order.
+ */
+
+final class NestedRadioOptionList {
+
+    @NonNull
+    private final NestedLinearRadioGroup nestedRadioGroup;
+    @NonNull
+    private final NestedRadioGroupBuilder buttonFactory;
+
+    // current options, in display order
+    private List<NestedRadioOption> options = new ArrayList<>();
+    // radio button of each current option key
+    private final HashMap<String, NestedRadioButton> buttonsByKey = new HashMap<>();
+
+    NestedRadioOptionList(@NonNull NestedLinearRadioGroup nestedRadioGroup, @NonNull NestedRadioGroupBuilder buttonFactory) {
+        this.nestedRadioGroup = nestedRadioGroup;
+        this.buttonFactory = buttonFactory;
+    }
+
+    /**
+     * @return the id of the radio button of an option key, -1 if none
+     */
+    @IdRes
+    int getId(String key) {
+        NestedRadioButton nestedRadioButton = buttonsByKey.get(key);
+        return nestedRadioButton != null ? nestedRadioButton.getId() : View.NO_ID;
+    }
+
+    void submitOptions(@NonNull List<NestedRadioOption> newOptions) {
+        int newCount = newOptions.size();
+        HashMap<String, Integer> newPositions = new HashMap<>(newCount * 2);
+        for (int i = 0; i < newCount; i++) {
+            if (newPositions.put(newOptions.get(i).getKey(), i) != null) {
+                throw new IllegalArgumentException("Duplicate option key " + newOptions.get(i).getKey());
+            }
+        }
+
+        // new position of each kept option, in current order
+        int oldCount = options.size();
+        int[] keptNewPositions = new int[oldCount];
+        int keptCount = 0;
+        for (int i = 0; i < oldCount; i++) {
+            Integer newPosition = newPositions.get(options.get(i).getKey());
+            if (newPosition != null) {
+                keptNewPositions[keptCount++] = newPosition;
+            }
+        }
+        boolean[] staying = longestIncreasingRun(keptNewPositions, keptCount, newCount);
+
+        nestedRadioGroup.beginBatch();
+        try {
+            // removes the buttons of removed options, takes out the ones of moved options
+            int checkedId = nestedRadioGroup.getCheckedRadioButtonId();
+            boolean checkedRemoved = false;
+            for (int i = 0; i < oldCount; i++) {
+                NestedRadioOption option = options.get(i);
+                Integer newPosition = newPositions.get(option.getKey());
+                if (newPosition != null && staying[newPosition]) {
+                    continue;
+                }
+                NestedRadioButton nestedRadioButton = buttonsByKey.get(option.getKey());
+                if (newPosition == null) {
+                    nestedRadioGroup.removeView(nestedRadioButton);
+                    buttonsByKey.remove(option.getKey());
+                    nestedRadioButton.unregisterNestedRadioGroup();
+                    checkedRemoved |= nestedRadioButton.getId() == checkedId;
+                } else {
+                    // kept attached to the window, so that it is not unregistered
+                    nestedRadioGroup.detachChild(nestedRadioButton);
+                }
+            }
+
+            // inserts new and moved options, rebinds changed ones
+            boolean reordered = false;
+            int[] ids = new int[newCount];
+            for (int i = 0; i < newCount; i++) {
+                NestedRadioOption option = newOptions.get(i);
+                NestedRadioButton nestedRadioButton = buttonsByKey.get(option.getKey());
+                if (nestedRadioButton == null) {
+                    nestedRadioButton = buttonFactory.createButton(option);
+                    buttonsByKey.put(option.getKey(), nestedRadioButton);
+                    addButton(nestedRadioButton, i);
+                    reordered = true;
+                } else {
+                    if (!staying[i]) {
+                        nestedRadioGroup.attachChild(nestedRadioButton, i);
+                        reordered = true;
+                    }
+                    buttonFactory.bindButton(nestedRadioButton, option);
+                }
+                ids[i] = nestedRadioButton.getId();
+            }
+            if (reordered) {
+                // new buttons are registered last, moved ones kept their former position
+                nestedRadioGroup.getNestedRadioGroupManager().reorderNestedRadioButtons(ids);
+            }
+
+            if (checkedRemoved) {
+                nestedRadioGroup.clearCheck();
+            }
+        } finally {
+            nestedRadioGroup.endBatch();
+        }
+        options = new ArrayList<>(newOptions);
+    }
+
+    private void addButton(NestedRadioButton nestedRadioButton, int position) {
+        nestedRadioGroup.addView(nestedRadioButton, position, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        nestedRadioButton.registerNestedRadioGroup(nestedRadioGroup);
+    }
+
+    /**
+     * @param values     distinct values in [0, valueRange)
+     * @param count      number of values
+     * @param valueRange upper bound of the values
+     * @return for each value, whether it belongs to a longest increasing subsequence of values
+     */
+    static boolean[] longestIncreasingRun(int[] values, int count, int valueRange) {
+        // tails[l]: index of the smallest tail of an increasing subsequence of length l + 1
+        int[] tails = new int[count];
+        int[] previous = new int[count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[tails[middle]] < values[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] result = new boolean[valueRange];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            result[values[i]] = true;
+        }
+        return result;
+    }
+}
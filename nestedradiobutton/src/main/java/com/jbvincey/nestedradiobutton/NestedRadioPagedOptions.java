@@ -0,0 +1,287 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * <p>Options of a {@link NestedLinearRadioGroup} loaded by pages, e.g. from a paged backend
+ * query. The radio buttons of a page are only created when the page is submitted, so memory
+ * depends on the loaded pages only.</p>
+ *
+ * <p>The selection is held by option key and can be set before the page holding the option is
+ * loaded: when the page arrives, the radio button of the option is registered already checked,
+ * without any change event since the selection did not change.</p>
+ *
+ * <p>Pages are inserted in page order whatever the order in which they are submitted, as a single
+ * block of children: the first page loaded goes after the children the group already holds, and
+ * the following ones go next to the loaded pages, so views added before or after the block, such
+ * as a header or a footer, keep their place. Only
+ * available in {@link NestedRadioGroupManager#SELECTION_MODE_SINGLE}, and should not be mixed
+ * with {@link NestedLinearRadioGroup#submitOptions(List)}.</p>
+ */
+
+public final class NestedRadioPagedOptions {
+
+    /**
+     * Loads a page of options, then submits it with {@link #submitPage(int, List, boolean)},
+     * or reports a failure with {@link #onPageLoadFailed(int)}, from the main thread.
+     */
+    public interface PageLoader {
+        void loadPage(int pageIndex, @NonNull NestedRadioPagedOptions pagedOptions);
+    }
+
+    public interface OnCheckedKeyChangeListener {
+        /**
+         * @param pagedOptions the options whose checked key changed
+         * @param checkedKey   the newly checked key, null if the selection was cleared
+         */
+        void onCheckedKeyChanged(@NonNull NestedRadioPagedOptions pagedOptions, @Nullable String checkedKey);
+    }
+
+    @NonNull
+    private final NestedLinearRadioGroup nestedRadioGroup;
+    @NonNull
+    private final NestedRadioGroupBuilder buttonFactory;
+    @NonNull
+    private final PageLoader pageLoader;
+    private OnCheckedKeyChangeListener onCheckedKeyChangeListener;
+
+    // number of options of each loaded page, by page index
+    private final SparseIntArray pageSizes = new SparseIntArray();
+    private int nextPageIndex = 0;
+    private boolean loading = false;
+    private boolean complete = false;
+
+    // radio button id of each loaded option key, and back
+    private final HashMap<String, Integer> idsByKey = new HashMap<>();
+    private final SparseArray<String> keysById = new SparseArray<>();
+
+    // checked key, possibly of an option not loaded yet
+    private String checkedKey;
+    // when true, selection changes of the group are made by this class and not by the user
+    private boolean applyingCheckedKey = false;
+
+    public NestedRadioPagedOptions(@NonNull NestedLinearRadioGroup nestedRadioGroup, @NonNull PageLoader pageLoader) {
+        this(nestedRadioGroup, new NestedRadioGroupBuilder(nestedRadioGroup.getContext()), pageLoader);
+    }
+
+    /**
+     * @param buttonFactory a builder whose button theme is applied to the created radio buttons
+     */
+    public NestedRadioPagedOptions(@NonNull NestedLinearRadioGroup nestedRadioGroup,
+                                   @NonNull NestedRadioGroupBuilder buttonFactory, @NonNull PageLoader pageLoader) {
+        this.nestedRadioGroup = nestedRadioGroup;
+        this.buttonFactory = buttonFactory;
+        this.pageLoader = pageLoader;
+        nestedRadioGroup.addOnCheckedChangeListener(new NestedRadioGroupManager.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(NestedRadioGroupManager groupManager, int checkedId) {
+                if (!applyingCheckedKey) {
+                    setCheckedKeyInternal(checkedId != View.NO_ID ? keysById.get(checkedId) : null);
+                }
+            }
+        });
+    }
+
+    public void setOnCheckedKeyChangeListener(OnCheckedKeyChangeListener listener) {
+        onCheckedKeyChangeListener = listener;
+    }
+
+    /**
+     * <p>Requests the next page from the {@link PageLoader}, e.g. when the user scrolls to the
+     * end of the group. Does nothing while a page is loading or once the last page is loaded.</p>
+     *
+     * @see #onPageLoadFailed(int)
+     */
+    public void loadNextPage() {
+        if (loading || complete) {
+            return;
+        }
+        loading = true;
+        pageLoader.loadPage(nextPageIndex, this);
+    }
+
+    /**
+     * <p>Adds the radio buttons of a loaded page, in a single batch. If the checked key is among
+     * the options of the page, its radio button is registered checked without change event.</p>
+     *
+     * @param pageIndex the index of the page, from 0
+     * @param options   the options of the page, with keys distinct from the loaded ones
+     * @param lastPage  true if no page follows this one
+     * @throws IllegalArgumentException if the page is already loaded or a key is duplicated
+     */
+    public void submitPage(int pageIndex, @NonNull List<NestedRadioOption> options, boolean lastPage) {
+        if (pageSizes.indexOfKey(pageIndex) >= 0) {
+            throw new IllegalArgumentException("Page " + pageIndex + " already submitted");
+        }
+        HashSet<String> pageKeys = new HashSet<>(options.size() * 2);
+        for (int i = 0, size = options.size(); i < size; i++) {
+            String key = options.get(i).getKey();
+            if (idsByKey.containsKey(key) || !pageKeys.add(key)) {
+                throw new IllegalArgumentException("Duplicate option key " + key);
+            }
+        }
+
+        int position = getPagedChildStart();
+        for (int i = 0, count = pageSizes.size(); i < count && pageSizes.keyAt(i) < pageIndex; i++) {
+            position += pageSizes.valueAt(i);
+        }
+        pageSizes.put(pageIndex, options.size());
+
+        NestedRadioGroupManager groupManager = nestedRadioGroup.getNestedRadioGroupManager();
+        NestedRadioButton checkedButton = null;
+        int checkedIndex = checkedKey != null && !idsByKey.containsKey(checkedKey) ? indexOf(options, checkedKey) : -1;
+        if (checkedIndex >= 0) {
+            // the id of the checked option becomes the selection before its radio button
+            // registers, so that the batch below ends without any change
+            checkedButton = buttonFactory.createButton(options.get(checkedIndex));
+            groupManager.restoreCheckedId(checkedButton.getId());
+        }
+        groupManager.beginBatch();
+        try {
+            for (int i = 0, size = options.size(); i < size; i++) {
+                NestedRadioOption option = options.get(i);
+                addButton(i == checkedIndex ? checkedButton : buttonFactory.createButton(option), option, position + i);
+            }
+        } finally {
+            groupManager.endBatch();
+        }
+
+        if (pageIndex == nextPageIndex) {
+            loading = false;
+        }
+        while (pageSizes.indexOfKey(nextPageIndex) >= 0) {
+            nextPageIndex++;
+        }
+        complete |= lastPage;
+    }
+
+    /**
+     * <p>Reports that a page requested from the {@link PageLoader} failed or was cancelled, so
+     * that the next call to {@link #loadNextPage()} requests it again.</p>
+     *
+     * @param pageIndex the index of the page, as given to the {@link PageLoader}
+     */
+    public void onPageLoadFailed(int pageIndex) {
+        if (pageIndex == nextPageIndex) {
+            loading = false;
+        }
+    }
+
+    /**
+     * @return the index of the first child holding a loaded option, or the number of children if
+     * no option is loaded yet
+     */
+    private int getPagedChildStart() {
+        if (keysById.size() > 0) {
+            for (int i = 0, count = nestedRadioGroup.getChildCount(); i < count; i++) {
+                if (keysById.indexOfKey(nestedRadioGroup.getChildAt(i).getId()) >= 0) {
+                    return i;
+                }
+            }
+        }
+        return nestedRadioGroup.getChildCount();
+    }
+
+    private void addButton(NestedRadioButton nestedRadioButton, NestedRadioOption option, int position) {
+        idsByKey.put(option.getKey(), nestedRadioButton.getId());
+        keysById.put(nestedRadioButton.getId(), option.getKey());
+        nestedRadioGroup.addView(nestedRadioButton, position, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        nestedRadioButton.registerNestedRadioGroup(nestedRadioGroup);
+    }
+
+    private static int indexOf(List<NestedRadioOption> options, String key) {
+        for (int i = 0, size = options.size(); i < size; i++) {
+            if (key.equals(options.get(i).getKey())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <p>Checks an option by key, loaded or not. If its page is not loaded yet, the group has no
+     * checked radio button until the page is submitted.</p>
+     *
+     * @param key the key of the option to check, null to clear the selection
+     */
+    public void checkKey(@Nullable String key) {
+        Integer id = key != null ? idsByKey.get(key) : null;
+        applyingCheckedKey = true;
+        try {
+            if (id != null) {
+                nestedRadioGroup.check(id);
+            } else {
+                nestedRadioGroup.clearCheck();
+            }
+        } finally {
+            applyingCheckedKey = false;
+        }
+        setCheckedKeyInternal(key);
+    }
+
+    /**
+     * @return the checked key, possibly of an option not loaded yet, null if none
+     */
+    @Nullable
+    public String getCheckedKey() {
+        return checkedKey;
+    }
+
+    /**
+     * @return the id of the radio button of a loaded option, -1 if not loaded
+     */
+    @IdRes
+    public int getOptionId(String key) {
+        Integer id = idsByKey.get(key);
+        return id != null ? id : View.NO_ID;
+    }
+
+    public int getLoadedPageCount() {
+        return pageSizes.size();
+    }
+
+    /**
+     * @return true once the last page is loaded
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private void setCheckedKeyInternal(String key) {
+        if (TextUtils.equals(key, checkedKey)) {
+            return;
+        }
+        checkedKey = key;
+        if (onCheckedKeyChangeListener != null) {
+            onCheckedKeyChangeListener.onCheckedKeyChanged(this, key);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import com.jbvincey.nestedradiobutton.core.SelectionEngine;
+
+/**
+ * Selection of the radio buttons sharing an app:groupName within a {@link NestedRadioGroupManager}.
+ * Buttons are held by the manager, a scope only holds its own selection.
+ */
+
+class NestedRadioScope extends SelectionEngine {
+
+    private final NestedRadioGroupManager groupManager;
+    private final String groupName;
+
+    NestedRadioScope(NestedRadioGroupManager groupManager, String groupName) {
+        this.groupManager = groupManager;
+        this.groupName = groupName;
+    }
+
+    String getGroupName() {
+        return groupName;
+    }
+
+    @Override
+    protected void setCheckedId(int id) {
+        super.setCheckedId(id);
+        groupManager.dispatchCheckedChanged(groupName, id);
+    }
+
+    @Override
+    protected void setCheckedState(int id, boolean checked) {
+        groupManager.setCheckedStateForView(id, checked);
+    }
+}
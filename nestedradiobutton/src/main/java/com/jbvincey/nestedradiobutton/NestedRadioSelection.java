@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.IdRes;
+import android.view.View;
+
+import com.jbvincey.nestedradiobutton.core.SelectionSnapshot;
+
+/**
+ * Immutable snapshot of the selection of a nested radio group, see
+ * {@link NestedRadioGroupManager#getSelection()}. It can be read from any thread.
+ *
+ * Named scopes are not part of the snapshot.
+ */
+
+public final class NestedRadioSelection extends SelectionSnapshot {
+
+    static final NestedRadioSelection EMPTY = new NestedRadioSelection(View.NO_ID, new int[0], 0);
+
+    NestedRadioSelection(@IdRes int checkedId, int[] selectedIds, long version) {
+        super(checkedId, selectedIds, version);
+    }
+
+    /**
+     * @return the unique id of the checked radio button, -1 if none
+     */
+    @IdRes
+    @Override
+    public int getCheckedId() {
+        return super.getCheckedId();
+    }
+
+    /**
+     * @return a copy of the ids of the checked radio buttons, in
+     * {@link NestedRadioGroupManager#SELECTION_MODE_MULTIPLE} as well
+     */
+    @Override
+    public int[] getSelectedIds() {
+        return super.getSelectedIds();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.IdRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+
+import java.util.HashMap;
+
+/**
+ * <p>Exclusion scope shared by the radio buttons of several groups, e.g. the pages of a
+ * ViewPager or several fragments of a flow. Shared groups are held process-wide by name, see
+ * {@link #get(String)}, so their selection lives outside of any view.</p>
+ *
+ * <p>A group bound to a shared group, with app:sharedGroup or
+ * {@link NestedRadioGroupManager#setSharedGroup(NestedRadioSharedGroup)}, registers its radio
+ * buttons in the shared group instead of its own. Radio buttons are only weakly referenced by
+ * the shared group and unregister when detached: a destroyed page is not kept alive, and its
+ * checked radio button is restored checked when the page is created again. Radio button ids
+ * should be unique across the bound groups.</p>
+ *
+ * <p>The selection does not survive the process, save it from the app if needed. Listeners
+ * are also held for the life of the process, until removed: a fragment or activity adding
+ * itself as a listener should remove itself when destroyed, or it leaks.</p>
+ */
+
+public final class NestedRadioSharedGroup {
+
+    private static final HashMap<String, NestedRadioSharedGroup> sharedGroups = new HashMap<>();
+
+    @NonNull
+    private final String name;
+    @NonNull
+    private final NestedRadioGroupManager nestedRadioGroupManager;
+
+    private NestedRadioSharedGroup(@NonNull String name) {
+        this.name = name;
+        nestedRadioGroupManager = new NestedRadioGroupManager();
+    }
+
+    /**
+     * @param name the name of the shared group
+     * @return the shared group of this name, created on first use
+     */
+    @MainThread
+    @NonNull
+    public static NestedRadioSharedGroup get(@NonNull String name) {
+        NestedRadioSharedGroup sharedGroup = sharedGroups.get(name);
+        if (sharedGroup == null) {
+            sharedGroup = new NestedRadioSharedGroup(name);
+            sharedGroups.put(name, sharedGroup);
+        }
+        return sharedGroup;
+    }
+
+    /**
+     * <p>Forgets a shared group and its selection, e.g. when its flow is finished. Groups still
+     * bound to it keep it until they are unbound.</p>
+     *
+     * @param name the name of the shared group
+     */
+    @MainThread
+    public static void remove(@NonNull String name) {
+        sharedGroups.remove(name);
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the manager holding the selection and the radio buttons of the bound groups
+     */
+    @NonNull
+    public NestedRadioGroupManager getNestedRadioGroupManager() {
+        return nestedRadioGroupManager;
+    }
+
+    /**
+     * @param id the unique id of the radio button to select, in any bound group
+     * @see NestedRadioGroupManager#check(int)
+     */
+    public void check(@IdRes int id) {
+        nestedRadioGroupManager.check(id);
+    }
+
+    public void clearCheck() {
+        nestedRadioGroupManager.clearCheck();
+    }
+
+    /**
+     * @return the unique id of the checked radio button, -1 if none, even if its group is
+     * currently destroyed
+     */
+    @IdRes
+    public int getCheckedRadioButtonId() {
+        return nestedRadioGroupManager.getCheckedId();
+    }
+
+    /**
+     * <p>Adds a callback to be invoked when the checked radio button changes in any bound group.
+     * The listener is strongly referenced until removed with
+     * {@link #removeOnCheckedChangeListener(NestedRadioGroupManager.OnCheckedChangeListener)} or
+     * until the shared group is removed, see {@link #remove(String)}.</p>
+     *
+     * @param listener the callback to call on checked state change
+     */
+    public void addOnCheckedChangeListener(@NonNull NestedRadioGroupManager.OnCheckedChangeListener listener) {
+        nestedRadioGroupManager.addOnCheckedChangeListener(listener);
+    }
+
+    public void removeOnCheckedChangeListener(NestedRadioGroupManager.OnCheckedChangeListener listener) {
+        nestedRadioGroupManager.removeOnCheckedChangeListener(listener);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.widget.CompoundButton;
+
+import java.util.List;
+
+/**
+ * <p>Adapter used by {@link NestedRecyclerRadioGroup}. The selection is held as model state keyed
+ * by the stable item id of the checked option, not by view id: recycled view holders bind their
+ * checked state from it, so the cost only depends on the number of visible rows. Selection
+ * changes rebind the previously and newly checked rows with {@link #CHECKED_PAYLOAD}, so the
+ * rows kept in the RecyclerView view cache are rebound as well.</p>
+ *
+ * <p>Stable ids are required and enabled by default, {@link #getItemId(int)} must be implemented
+ * and return a unique id for each option.</p>
+ *
+ * @param <VH> the view holder type
+ */
+
+public abstract class NestedRecyclerRadioAdapter<VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+    /**
+     * <p>Payload of the rows whose checked state changed, only the checked state of the radio
+     * button is bound for it.</p>
+     */
+    public static final Object CHECKED_PAYLOAD = new Object();
+
+    // holds the checked item id; the selection is empty by default
+    private long checkedItemId = RecyclerView.NO_ID;
+    // last known adapter position of the checked item, checked against its id before use
+    private int checkedPosition = RecyclerView.NO_POSITION;
+    // tracks bound radio buttons checked state
+    private final CompoundButton.OnCheckedChangeListener childOnCheckedChangeListener;
+    private OnCheckedItemChangeListener onCheckedItemChangeListener;
+    private RecyclerView recyclerView;
+
+    public NestedRecyclerRadioAdapter() {
+        childOnCheckedChangeListener = new CheckedStateTracker();
+        setHasStableIds(true);
+    }
+
+    /**
+     * @param position the adapter position of the option
+     * @return the stable id of the option, used as selection key
+     */
+    @Override
+    public abstract long getItemId(int position);
+
+    /**
+     * @param holder a view holder created by this adapter
+     * @return the radio button of this view holder
+     */
+    @NonNull
+    protected abstract NestedRadioButton getNestedRadioButton(@NonNull VH holder);
+
+    /**
+     * <p>Binds the option content, the checked state of the radio button is bound afterwards
+     * by this adapter.</p>
+     *
+     * @param holder   the view holder to bind
+     * @param position the adapter position of the option
+     */
+    protected abstract void onBindNestedViewHolder(@NonNull VH holder, int position);
+
+    /**
+     * <p>Returns the adapter position of an option, used when the selection changes to rebind the
+     * previously and newly checked rows. The default implementation scans the options, override
+     * it when a faster lookup is available.</p>
+     *
+     * @param itemId the stable id of the option
+     * @return the adapter position of the option, {@link RecyclerView#NO_POSITION} if not found
+     */
+    protected int getItemPosition(long itemId) {
+        for (int position = 0, count = getItemCount(); position < count; position++) {
+            if (getItemId(position) == itemId) {
+                return position;
+            }
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public final void onBindViewHolder(@NonNull VH holder, int position) {
+        onBindNestedViewHolder(holder, position);
+        bindCheckedState(holder, position);
+    }
+
+    /**
+     * <p>Only binds the checked state when all the payloads are {@link #CHECKED_PAYLOAD}.
+     * Subclasses using their own payloads should call through to this method.</p>
+     */
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload != CHECKED_PAYLOAD) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+        }
+        bindCheckedState(holder, position);
+    }
+
+    private void bindCheckedState(@NonNull VH holder, int position) {
+        boolean checked = checkedItemId != RecyclerView.NO_ID && getItemId(position) == checkedItemId;
+        if (checked) {
+            checkedPosition = position;
+        }
+        NestedRadioButton nestedRadioButton = getNestedRadioButton(holder);
+        nestedRadioButton.setOnCheckedChangeListener(null);
+        nestedRadioButton.setChecked(checked);
+        nestedRadioButton.setOnCheckedChangeListener(childOnCheckedChangeListener);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        this.recyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        this.recyclerView = null;
+    }
+
+    public long getCheckedItemId() {
+        return checkedItemId;
+    }
+
+    /**
+     * <p>Sets the selection to the option whose stable id is passed in parameter. Using
+     * {@link RecyclerView#NO_ID} clears the selection; such an operation is equivalent to
+     * invoking {@link #clearCheck()}. The previously and newly checked rows are rebound with
+     * {@link #CHECKED_PAYLOAD}.</p>
+     *
+     * @param itemId the stable id of the option to select
+     * @see #clearCheck()
+     */
+    public void check(long itemId) {
+        check(itemId, RecyclerView.NO_POSITION);
+    }
+
+    private void check(long itemId, int position) {
+        // don't even bother
+        if (itemId == checkedItemId) {
+            return;
+        }
+
+        int previousPosition = findPosition(checkedItemId, checkedPosition);
+        checkedPosition = findPosition(itemId, position);
+        if (previousPosition != RecyclerView.NO_POSITION) {
+            notifyItemChanged(previousPosition, CHECKED_PAYLOAD);
+        }
+        if (checkedPosition != RecyclerView.NO_POSITION) {
+            notifyItemChanged(checkedPosition, CHECKED_PAYLOAD);
+        }
+
+        setCheckedItemId(itemId);
+    }
+
+    public void clearCheck() {
+        check(RecyclerView.NO_ID);
+    }
+
+    /**
+     * <p>Register a callback to be invoked when the checked option changes.</p>
+     *
+     * @param listener the callback to call on checked state change
+     */
+    public void setOnCheckedItemChangeListener(OnCheckedItemChangeListener listener) {
+        onCheckedItemChangeListener = listener;
+    }
+
+    private void setCheckedItemId(long itemId) {
+        checkedItemId = itemId;
+        if (onCheckedItemChangeListener != null) {
+            onCheckedItemChangeListener.onCheckedItemChanged(this, checkedItemId);
+        }
+    }
+
+    private int findPosition(long itemId, int positionHint) {
+        if (itemId == RecyclerView.NO_ID) {
+            return RecyclerView.NO_POSITION;
+        }
+        if (positionHint >= 0 && positionHint < getItemCount() && getItemId(positionHint) == itemId) {
+            return positionHint;
+        }
+        return getItemPosition(itemId);
+    }
+
+    /**
+     * <p>Interface definition for a callback to be invoked when the checked
+     * option changed in this adapter.</p>
+     */
+    public interface OnCheckedItemChangeListener {
+        /**
+         * <p>Called when the checked option has changed. When the selection is cleared,
+         * checkedItemId is {@link RecyclerView#NO_ID}.</p>
+         *
+         * @param adapter       the adapter in which the checked option has changed
+         * @param checkedItemId the stable id of the newly checked option
+         */
+        void onCheckedItemChanged(NestedRecyclerRadioAdapter adapter, long checkedItemId);
+    }
+
+    private class CheckedStateTracker implements CompoundButton.OnCheckedChangeListener {
+        @Override
+        public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+            if (!isChecked || recyclerView == null) {
+                return;
+            }
+            RecyclerView.ViewHolder holder = recyclerView.findContainingViewHolder(buttonView);
+            if (holder != null && holder.getItemId() != RecyclerView.NO_ID) {
+                check(holder.getItemId(), holder.getAdapterPosition());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.AttributeSet;
+import android.widget.RadioGroup;
+
+/**
+ * <p>This class is used to create a multiple-exclusion scope over a large list of options
+ * displayed in a {@link RecyclerView}. Checking one radio button unchecks any previously
+ * checked radio button within the same group.</p>
+ * <p>
+ * <p>Contrary to the other nested radio groups, the radio buttons are not registered in a
+ * {@link NestedRadioGroupManager}: the selection is held by the {@link NestedRecyclerRadioAdapter}
+ * and keyed by stable item id, so memory and inflation cost depend on the number of visible rows
+ * instead of the total option count.</p>
+ *
+ * @see NestedRecyclerRadioAdapter
+ */
+
+public class NestedRecyclerRadioGroup extends RecyclerView implements NestedRadioGroupTrackingInterface {
+
+    // checks radio buttons on click to their clickable parent, shared by all the rows
+    private final NestedRadioClickDispatcher clickDispatcher = new NestedRadioClickDispatcher();
+
+    public NestedRecyclerRadioGroup(@NonNull Context context) {
+        super(context);
+    }
+
+    public NestedRecyclerRadioGroup(@NonNull Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public NestedRecyclerRadioGroup(@NonNull Context context, @Nullable AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+    }
+
+    @Override
+    public void addNestedRadioButton(NestedRadioButton nestedRadioButton) {
+        // checked state is bound by NestedRecyclerRadioAdapter
+        clickDispatcher.bind(nestedRadioButton);
+    }
+
+    @Override
+    public void removeNestedRadioButton(NestedRadioButton nestedRadioButton) {
+        // checked state is bound by NestedRecyclerRadioAdapter
+        clickDispatcher.unbind(nestedRadioButton);
+    }
+
+    @Override
+    public void onNestedRadioButtonStateChanged(NestedRadioButton nestedRadioButton) {
+        // rows are navigated by the RecyclerView
+    }
+
+    @Override
+    public void setAdapter(@Nullable Adapter adapter) {
+        if (adapter != null && !(adapter instanceof NestedRecyclerRadioAdapter)) {
+            throw new ClassCastException("NestedRecyclerRadioGroup adapter should be a NestedRecyclerRadioAdapter");
+        }
+        super.setAdapter(adapter);
+    }
+
+    @Nullable
+    public NestedRecyclerRadioAdapter getNestedRecyclerRadioAdapter() {
+        return (NestedRecyclerRadioAdapter) getAdapter();
+    }
+
+    /**
+     * <p>Sets the selection to the option whose stable id is passed in parameter.</p>
+     *
+     * @param itemId the stable id of the option to select
+     * @see NestedRecyclerRadioAdapter#check(long)
+     */
+    public void check(long itemId) {
+        NestedRecyclerRadioAdapter adapter = getNestedRecyclerRadioAdapter();
+        if (adapter != null) {
+            adapter.check(itemId);
+        }
+    }
+
+    public void clearCheck() {
+        check(NO_ID);
+    }
+
+    /**
+     * @return the stable id of the checked option, {@link RecyclerView#NO_ID} if none
+     */
+    public long getCheckedItemId() {
+        NestedRecyclerRadioAdapter adapter = getNestedRecyclerRadioAdapter();
+        return adapter != null ? adapter.getCheckedItemId() : NO_ID;
+    }
+
+    @Override
+    public CharSequence getAccessibilityClassName() {
+        return RadioGroup.class.getName();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.support.constraint.ConstraintLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedConstraintRadioHelperTest {
+
+    private Activity activity;
+    private ConstraintLayout constraintLayout;
+    private NestedConstraintRadioHelper radioHelper;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        constraintLayout = new ConstraintLayout(activity);
+        radioHelper = new NestedConstraintRadioHelper(activity);
+    }
+
+    @Test
+    public void attach_referencedButtonsRegistered() {
+        //given
+        NestedRadioButton firstButton = addButton(100);
+        NestedRadioButton secondButton = addButton(101);
+        radioHelper.setReferencedIds(new int[]{100, 101});
+        // declared after the radio buttons
+        constraintLayout.addView(radioHelper);
+
+        //when
+        activity.setContentView(constraintLayout);
+        firstButton.setChecked(true);
+        secondButton.setChecked(true);
+
+        //then
+        assertSame(radioHelper, firstButton.getBoundNestedRadioGroup());
+        assertFalse(firstButton.isChecked());
+        assertEquals(101, radioHelper.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void attach_otherButtonsNotRegistered() {
+        //given
+        NestedConstraintRadioHelper otherHelper = new NestedConstraintRadioHelper(activity);
+        NestedRadioButton firstButton = addButton(100);
+        NestedRadioButton otherButton = addButton(200);
+        radioHelper.setReferencedIds(new int[]{100});
+        otherHelper.setReferencedIds(new int[]{200});
+        constraintLayout.addView(radioHelper);
+        constraintLayout.addView(otherHelper);
+        activity.setContentView(constraintLayout);
+
+        //when
+        radioHelper.check(100);
+        otherHelper.check(200);
+
+        //then
+        assertTrue(firstButton.isChecked());
+        assertTrue(otherButton.isChecked());
+        assertSame(otherHelper, otherButton.getBoundNestedRadioGroup());
+    }
+
+    @Test
+    public void attach_insideNestedRadioGroup_helperWins() {
+        //given
+        NestedFrameRadioGroup nestedRadioGroup = new NestedFrameRadioGroup(activity);
+        NestedRadioButton nestedRadioButton = addButton(100);
+        radioHelper.setReferencedIds(new int[]{100});
+        constraintLayout.addView(radioHelper);
+        nestedRadioGroup.addView(constraintLayout);
+
+        //when
+        activity.setContentView(nestedRadioGroup);
+        nestedRadioButton.setChecked(true);
+
+        //then
+        assertEquals(100, radioHelper.getCheckedRadioButtonId());
+        assertEquals(-1, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void attach_afterReferencedIdsChanged_registersInNewHelper() {
+        //given
+        NestedConstraintRadioHelper otherHelper = new NestedConstraintRadioHelper(activity);
+        NestedRadioButton nestedRadioButton = addButton(100);
+        radioHelper.setReferencedIds(new int[]{100});
+        otherHelper.setReferencedIds(new int[0]);
+        constraintLayout.addView(radioHelper);
+        constraintLayout.addView(otherHelper);
+        activity.setContentView(constraintLayout);
+
+        //when
+        constraintLayout.removeView(nestedRadioButton);
+        radioHelper.setReferencedIds(new int[0]);
+        otherHelper.setReferencedIds(new int[]{100});
+        constraintLayout.addView(nestedRadioButton);
+        nestedRadioButton.setChecked(true);
+
+        //then
+        assertEquals(100, otherHelper.getCheckedRadioButtonId());
+        assertEquals(-1, radioHelper.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void attach_helperRemoved_fallsBackToParentGroup() {
+        //given
+        NestedFrameRadioGroup nestedRadioGroup = new NestedFrameRadioGroup(activity);
+        NestedRadioButton nestedRadioButton = addButton(100);
+        radioHelper.setReferencedIds(new int[]{100});
+        constraintLayout.addView(radioHelper);
+        nestedRadioGroup.addView(constraintLayout);
+        activity.setContentView(nestedRadioGroup);
+
+        //when
+        constraintLayout.removeView(radioHelper);
+        constraintLayout.removeView(nestedRadioButton);
+        constraintLayout.addView(nestedRadioButton);
+        nestedRadioButton.setChecked(true);
+
+        //then
+        assertEquals(100, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void attach_buttonsAddedToAttachedLayout_keepReferenceIndex() {
+        //given
+        NestedFrameRadioGroup nestedRadioGroup = new NestedFrameRadioGroup(activity);
+        addButton(100);
+        nestedRadioGroup.addView(constraintLayout);
+        activity.setContentView(nestedRadioGroup);
+        Object referenceIndex = constraintLayout.getTag(R.id.nested_radio_helper_index);
+
+        //when
+        NestedRadioButton nestedRadioButton = addButton(101);
+        constraintLayout.removeView(nestedRadioButton);
+        addButton(102);
+
+        //then
+        assertNotNull(referenceIndex);
+        assertSame(referenceIndex, constraintLayout.getTag(R.id.nested_radio_helper_index));
+    }
+
+    @Test
+    public void attach_helperAddedToAttachedLayout_takesReferencedButtons() {
+        //given
+        NestedFrameRadioGroup nestedRadioGroup = new NestedFrameRadioGroup(activity);
+        NestedRadioButton nestedRadioButton = addButton(100);
+        nestedRadioGroup.addView(constraintLayout);
+        activity.setContentView(nestedRadioGroup);
+        radioHelper.setReferencedIds(new int[]{100});
+
+        //when
+        constraintLayout.addView(radioHelper);
+        nestedRadioButton.setChecked(true);
+
+        //then
+        assertSame(radioHelper, nestedRadioButton.getBoundNestedRadioGroup());
+        assertEquals(100, radioHelper.getCheckedRadioButtonId());
+        assertEquals(-1, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    private NestedRadioButton addButton(int id) {
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        nestedRadioButton.setId(id);
+        constraintLayout.addView(nestedRadioButton);
+        return nestedRadioButton;
+    }
+}
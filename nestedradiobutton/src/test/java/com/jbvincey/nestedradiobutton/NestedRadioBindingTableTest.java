@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.util.ReflectionHelpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioBindingTableTest {
+
+    private static final int GROUP_ID = 100;
+    private static final int INNER_GROUP_ID = 200;
+    private static final int CLICKABLE_PARENT_ID = 300;
+
+    private Activity activity;
+    private NestedLinearRadioGroup nestedRadioGroup;
+    private NestedRadioButton nestedRadioButton1;
+    private NestedRadioButton nestedRadioButton2;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroup = new NestedLinearRadioGroup(activity);
+        nestedRadioGroup.setId(GROUP_ID);
+        nestedRadioButton1 = addNestedRadioButton(nestedRadioGroup, 1);
+        nestedRadioButton2 = addNestedRadioButton(nestedRadioGroup, 2);
+    }
+
+    @After
+    public void tearDown() {
+        NestedRadioBindingTable.clear();
+    }
+
+    @Test
+    public void onFinishInflate_registersButtonsBeforeAttach() {
+        //given
+        NestedRadioBindingTable.register(GROUP_ID, new int[]{1, 2}, new int[]{View.NO_ID, View.NO_ID});
+
+        //when
+        nestedRadioGroup.onFinishInflate();
+        nestedRadioButton2.setChecked(true);
+        nestedRadioButton1.setChecked(true);
+
+        //then
+        assertEquals(1, nestedRadioGroup.getCheckedRadioButtonId());
+        assertFalse(nestedRadioButton2.isChecked());
+    }
+
+    @Test
+    public void onFinishInflate_noBindingTable() {
+        //when
+        nestedRadioGroup.onFinishInflate();
+        nestedRadioButton1.setChecked(true);
+
+        //then
+        assertEquals(View.NO_ID, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void onFinishInflate_skipsButtonsOfNestedGroups() {
+        //given
+        NestedFrameRadioGroup innerRadioGroup = new NestedFrameRadioGroup(activity);
+        innerRadioGroup.setId(INNER_GROUP_ID);
+        NestedRadioButton innerRadioButton = addNestedRadioButton(innerRadioGroup, 3);
+        nestedRadioGroup.addView(innerRadioGroup);
+        NestedRadioBindingTable.register(GROUP_ID, new int[]{1, 2, 3}, new int[]{View.NO_ID, View.NO_ID, View.NO_ID});
+
+        //when
+        nestedRadioGroup.onFinishInflate();
+        innerRadioButton.setChecked(true);
+
+        //then
+        assertEquals(View.NO_ID, nestedRadioGroup.getCheckedRadioButtonId());
+        assertSame(innerRadioGroup, innerRadioButton.getBoundNestedRadioGroup());
+    }
+
+    @Test
+    public void onFinishInflate_rowsSharingClickableParentId() {
+        //given
+        View firstRow = (View) nestedRadioButton1.getParent();
+        View secondRow = (View) nestedRadioButton2.getParent();
+        firstRow.setId(CLICKABLE_PARENT_ID);
+        secondRow.setId(CLICKABLE_PARENT_ID);
+        ReflectionHelpers.setField(nestedRadioButton1, "clickableParentIdRes", CLICKABLE_PARENT_ID);
+        ReflectionHelpers.setField(nestedRadioButton2, "clickableParentIdRes", CLICKABLE_PARENT_ID);
+        NestedRadioBindingTable.register(GROUP_ID, new int[]{1, 2}, new int[]{CLICKABLE_PARENT_ID, CLICKABLE_PARENT_ID});
+
+        //when
+        nestedRadioGroup.onFinishInflate();
+
+        //then
+        assertSame(firstRow, nestedRadioButton1.getClickableParent());
+        assertSame(secondRow, nestedRadioButton2.getClickableParent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void register_missingClickableParentIds() {
+        NestedRadioBindingTable.register(GROUP_ID, new int[]{1, 2}, new int[]{View.NO_ID});
+    }
+
+    private NestedRadioButton addNestedRadioButton(ViewGroup parent, int id) {
+        LinearLayout container = new LinearLayout(activity);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        nestedRadioButton.setId(id);
+        container.addView(nestedRadioButton);
+        parent.addView(container);
+        return nestedRadioButton;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Attaches and detaches a large number of buttons to make sure the group registry does not grow.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioButtonLeakTest {
+
+    private static final int BUTTON_COUNT = 10000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 8 * 1024 * 1024;
+
+    private Activity activity;
+    private NestedRadioGroupManager nestedRadioGroupManager;
+    private FrameLayout container;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroupManager = new NestedRadioGroupManager();
+        TestNestedRadioGroup group = new TestNestedRadioGroup(activity, nestedRadioGroupManager);
+        container = new FrameLayout(activity);
+        group.addView(container);
+        activity.setContentView(group);
+    }
+
+    @Test
+    public void attachDetach_registryStaysEmpty() {
+        for (int i = 0; i < BUTTON_COUNT; i++) {
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+            container.addView(nestedRadioButton);
+            assertEquals(1, nestedRadioGroupManager.getNestedRadioButtonCount());
+            container.removeView(nestedRadioButton);
+            assertEquals(0, nestedRadioGroupManager.getNestedRadioButtonCount());
+        }
+    }
+
+    @Test
+    public void attachDetach_buttonsAreCollected() {
+        List<WeakReference<NestedRadioButton>> references = new ArrayList<>();
+        long heapBefore = usedHeap();
+
+        for (int i = 0; i < BUTTON_COUNT; i++) {
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+            container.addView(nestedRadioButton);
+            nestedRadioButton.setChecked(true);
+            container.removeView(nestedRadioButton);
+            if (i % 100 == 0) {
+                references.add(new WeakReference<>(nestedRadioButton));
+            }
+        }
+
+        long heapAfter = usedHeap();
+
+        for (WeakReference<NestedRadioButton> reference : references) {
+            assertNull(reference.get());
+        }
+        assertEquals(0, nestedRadioGroupManager.getNestedRadioButtonCount());
+        assertTrue("heap grew by " + (heapAfter - heapBefore) + " bytes",
+                heapAfter - heapBefore < MAX_HEAP_GROWTH_BYTES);
+    }
+
+    @Test
+    public void detachCheckedButton_reattachRestoresSelection() {
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        container.addView(nestedRadioButton);
+        nestedRadioButton.setChecked(true);
+        int checkedId = nestedRadioButton.getId();
+
+        container.removeView(nestedRadioButton);
+        NestedRadioButton reattachedRadioButton = new NestedRadioButton(activity);
+        reattachedRadioButton.setId(checkedId);
+        container.addView(reattachedRadioButton);
+
+        assertEquals(checkedId, nestedRadioGroupManager.getCheckedId());
+        assertTrue(reattachedRadioButton.isChecked());
+    }
+
+    @Test
+    public void attachDetach_groupImplementingOnlyAdd() {
+        AddOnlyNestedRadioGroup group = new AddOnlyNestedRadioGroup(activity);
+        activity.setContentView(group);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+
+        group.addView(nestedRadioButton);
+        nestedRadioButton.setEnabled(false);
+        group.removeView(nestedRadioButton);
+        group.addView(nestedRadioButton);
+
+        assertEquals(2, group.addedCount);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class TestNestedRadioGroup extends FrameLayout implements NestedRadioGroupTrackingInterface {
+
+        private final NestedRadioGroupManager nestedRadioGroupManager;
+
+        TestNestedRadioGroup(Activity activity, NestedRadioGroupManager nestedRadioGroupManager) {
+            super(activity);
+            this.nestedRadioGroupManager = nestedRadioGroupManager;
+        }
+
+        @Override
+        public void addNestedRadioButton(NestedRadioButton nestedRadioButton) {
+            nestedRadioGroupManager.addNestedRadioButton(nestedRadioButton);
+        }
+
+        @Override
+        public void removeNestedRadioButton(NestedRadioButton nestedRadioButton) {
+            nestedRadioGroupManager.removeNestedRadioButton(nestedRadioButton);
+        }
+
+        @Override
+        public void onNestedRadioButtonStateChanged(NestedRadioButton nestedRadioButton) {
+            nestedRadioGroupManager.onNestedRadioButtonStateChanged(nestedRadioButton);
+        }
+    }
+
+    /**
+     * A group written against the first NestedRadioGroupInterface, told only of added buttons.
+     */
+    private static class AddOnlyNestedRadioGroup extends FrameLayout implements NestedRadioGroupInterface {
+
+        int addedCount;
+
+        AddOnlyNestedRadioGroup(Activity activity) {
+            super(activity);
+        }
+
+        @Override
+        public void addNestedRadioButton(NestedRadioButton nestedRadioButton) {
+            addedCount++;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioChildGroupTest {
+
+    private Activity activity;
+    private NestedLinearRadioGroup parentGroup;
+    private NestedFrameRadioGroup deliveryGroup;
+    private NestedFrameRadioGroup pickupGroup;
+    private NestedLinearRadioGroup slotGroup;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        LinearLayout form = new LinearLayout(activity);
+        parentGroup = addGroup(form, new NestedLinearRadioGroup(activity), 1);
+        deliveryGroup = addGroup(form, new NestedFrameRadioGroup(activity), 10);
+        pickupGroup = addGroup(form, new NestedFrameRadioGroup(activity), 20);
+        slotGroup = addGroup(form, new NestedLinearRadioGroup(activity), 30);
+        activity.setContentView(form);
+    }
+
+    @Test
+    public void addChildRadioGroup_disabledUntilOptionChecked() {
+        //when
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+
+        //then
+        assertFalse(button(10).isEnabled());
+        assertFalse(button(11).isEnabled());
+        assertFalse(deliveryGroup.getNestedRadioGroupManager().isGateEnabled());
+    }
+
+    @Test
+    public void check_enablesButtonDetachedWhileGateClosed() {
+        //given
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+        NestedRadioButton nestedRadioButton = button(10);
+        deliveryGroup.removeView(nestedRadioButton);
+
+        //when
+        parentGroup.check(1);
+        deliveryGroup.addView(nestedRadioButton);
+
+        //then
+        assertTrue(nestedRadioButton.isEnabled());
+        assertTrue(button(11).isEnabled());
+    }
+
+    @Test
+    public void check_enablesChildGroup() {
+        //given
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+
+        //when
+        parentGroup.check(1);
+
+        //then
+        assertTrue(button(10).isEnabled());
+        assertTrue(button(11).isEnabled());
+    }
+
+    @Test
+    public void check_disablesAndClearsDescendants() {
+        //given
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+        deliveryGroup.addChildRadioGroup(10, slotGroup);
+        parentGroup.check(1);
+        deliveryGroup.check(10);
+        slotGroup.check(30);
+
+        //when
+        parentGroup.check(2);
+
+        //then
+        assertFalse(button(10).isEnabled());
+        assertEquals(View.NO_ID, deliveryGroup.getCheckedRadioButtonId());
+        assertFalse(button(30).isEnabled());
+        assertEquals(View.NO_ID, slotGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void check_onlyUpdatesChildGroupsOfChangedOptions() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+        parentGroup.addChildRadioGroup(2, pickupGroup);
+        parentGroup.check(2);
+        pickupGroup.check(20);
+        deliveryGroup.setOnCheckedChangeListener(listener);
+
+        //when
+        parentGroup.check(3);
+
+        //then
+        assertFalse(button(20).isEnabled());
+        assertEquals(View.NO_ID, pickupGroup.getCheckedRadioButtonId());
+        verify(listener, never()).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void removeChildRadioGroup_enablesChildGroup() {
+        //given
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+
+        //when
+        parentGroup.removeChildRadioGroup(deliveryGroup);
+
+        //then
+        assertTrue(button(10).isEnabled());
+        assertNull(deliveryGroup.getNestedRadioGroupManager().getParentGroup());
+    }
+
+    @Test
+    public void registration_disabledWhileGateClosed() {
+        //given
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+        NestedRadioButton lateButton = new NestedRadioButton(activity);
+        lateButton.setId(15);
+
+        //when
+        deliveryGroup.addView(lateButton);
+
+        //then
+        assertFalse(lateButton.isEnabled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addChildRadioGroup_cycle() {
+        //given
+        parentGroup.addChildRadioGroup(1, deliveryGroup);
+
+        //when
+        deliveryGroup.addChildRadioGroup(10, parentGroup);
+    }
+
+    private <T extends ViewGroup> T addGroup(ViewGroup form, T group, int firstId) {
+        for (int i = 0; i < 3; i++) {
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+            nestedRadioButton.setId(firstId + i);
+            group.addView(nestedRadioButton);
+        }
+        form.addView(group);
+        return group;
+    }
+
+    private NestedRadioButton button(int id) {
+        return (NestedRadioButton) activity.findViewById(id);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.util.ReflectionHelpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioClickDispatcherTest {
+
+    private static final int CLICKABLE_PARENT_ID = 1;
+
+    private Activity activity;
+    private NestedLinearRadioGroup nestedRadioGroup;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroup = new NestedLinearRadioGroup(activity);
+    }
+
+    @Test
+    public void click_checksRadioButton() {
+        //given
+        LinearLayout clickableParent = addRow(100);
+        activity.setContentView(nestedRadioGroup);
+
+        //when
+        clickableParent.performClick();
+
+        //then
+        assertTrue(((NestedRadioButton) clickableParent.getChildAt(0)).isChecked());
+    }
+
+    @Test
+    public void click_rowsSharingClickableParentId() {
+        //given
+        LinearLayout firstRow = addRow(100);
+        LinearLayout secondRow = addRow(101);
+        activity.setContentView(nestedRadioGroup);
+
+        //when
+        firstRow.performClick();
+
+        //then
+        assertTrue(((NestedRadioButton) firstRow.getChildAt(0)).isChecked());
+        assertFalse(((NestedRadioButton) secondRow.getChildAt(0)).isChecked());
+    }
+
+    @Test
+    public void reattach_keepsSameListener() {
+        //given
+        LinearLayout clickableParent = addRow(100);
+        activity.setContentView(nestedRadioGroup);
+        Object listener = getOnClickListener(clickableParent);
+
+        //when
+        nestedRadioGroup.removeView(clickableParent);
+        nestedRadioGroup.addView(clickableParent);
+
+        //then
+        assertSame(listener, getOnClickListener(clickableParent));
+    }
+
+    @Test
+    public void attach_appClickListenerKept() {
+        //given
+        LinearLayout clickableParent = addRow(100);
+        View.OnClickListener appListener = mock(View.OnClickListener.class);
+        clickableParent.setOnClickListener(appListener);
+        activity.setContentView(nestedRadioGroup);
+
+        //when
+        clickableParent.performClick();
+
+        //then
+        verify(appListener).onClick(clickableParent);
+    }
+
+    @Test
+    public void detach_thenClickReattachedRow() {
+        //given
+        LinearLayout clickableParent = addRow(100);
+        activity.setContentView(nestedRadioGroup);
+
+        //when
+        nestedRadioGroup.removeView(clickableParent);
+        nestedRadioGroup.addView(clickableParent);
+        clickableParent.performClick();
+
+        //then
+        assertTrue(((NestedRadioButton) clickableParent.getChildAt(0)).isChecked());
+    }
+
+    @Test
+    public void unbind_forgetsClickableParent() {
+        //given
+        NestedRadioClickDispatcher dispatcher = new NestedRadioClickDispatcher();
+        LinearLayout clickableParent = addRow(100);
+        NestedRadioButton nestedRadioButton = (NestedRadioButton) clickableParent.getChildAt(0);
+        dispatcher.bind(nestedRadioButton);
+
+        //when
+        dispatcher.unbind(nestedRadioButton);
+
+        //then
+        SparseIntArray radioButtonIds = ReflectionHelpers.getField(dispatcher, "radioButtonIds");
+        SparseIntArray clickableParentIds = ReflectionHelpers.getField(dispatcher, "clickableParentIds");
+        assertEquals(0, radioButtonIds.size());
+        assertEquals(0, clickableParentIds.size());
+    }
+
+    private LinearLayout addRow(int radioButtonId) {
+        LinearLayout clickableParent = new LinearLayout(activity);
+        clickableParent.setId(CLICKABLE_PARENT_ID);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        nestedRadioButton.setId(radioButtonId);
+        ReflectionHelpers.setField(nestedRadioButton, "clickableParentIdRes", CLICKABLE_PARENT_ID);
+        clickableParent.addView(nestedRadioButton);
+        nestedRadioGroup.addView(clickableParent);
+        return clickableParent;
+    }
+
+    private Object getOnClickListener(View view) {
+        Object listenerInfo = ReflectionHelpers.callInstanceMethod(view, "getListenerInfo");
+        return ReflectionHelpers.getField(listenerInfo, "mOnClickListener");
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioGroupBindingTest {
+
+    private Activity activity;
+    private NestedFrameRadioGroup nestedRadioGroup;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroup = new NestedFrameRadioGroup(activity);
+    }
+
+    @Test
+    public void addSubtree_bindsNestedRadioButtons() {
+        //given
+        LinearLayout container = new LinearLayout(activity);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        container.addView(nestedRadioButton);
+
+        //when
+        nestedRadioGroup.addView(container);
+
+        //then
+        assertSame(nestedRadioGroup, nestedRadioButton.getBoundNestedRadioGroup());
+    }
+
+    @Test
+    public void removeSubtree_unbindsNestedRadioButtons() {
+        //given
+        LinearLayout container = new LinearLayout(activity);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        container.addView(nestedRadioButton);
+        nestedRadioGroup.addView(container);
+
+        //when
+        nestedRadioGroup.removeView(container);
+
+        //then
+        assertNull(nestedRadioButton.getBoundNestedRadioGroup());
+    }
+
+    @Test
+    public void addSubtree_innerGroupKeepsItsButtons() {
+        //given
+        NestedLinearRadioGroup innerRadioGroup = new NestedLinearRadioGroup(activity);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        innerRadioGroup.addView(nestedRadioButton);
+
+        //when
+        nestedRadioGroup.addView(innerRadioGroup);
+
+        //then
+        assertSame(innerRadioGroup, nestedRadioButton.getBoundNestedRadioGroup());
+    }
+
+    @Test
+    public void attach_boundButtonIsRegistered() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroup.setOnCheckedChangeListener(listener);
+        LinearLayout container = new LinearLayout(activity);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        container.addView(nestedRadioButton);
+        nestedRadioGroup.addView(container);
+        activity.setContentView(nestedRadioGroup);
+
+        //when
+        nestedRadioButton.setChecked(true);
+
+        //then
+        verify(listener).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void attach_ancestorMovedToAnotherGroup_registersInNewGroup() {
+        //given
+        NestedLinearRadioGroup otherNestedRadioGroup = new NestedLinearRadioGroup(activity);
+        LinearLayout container = new LinearLayout(activity);
+        LinearLayout otherContainer = new LinearLayout(activity);
+        nestedRadioGroup.addView(container);
+        otherNestedRadioGroup.addView(otherContainer);
+        LinearLayout root = new LinearLayout(activity);
+        root.addView(nestedRadioGroup);
+        root.addView(otherNestedRadioGroup);
+        activity.setContentView(root);
+        // added deeper than the group children, so looked up on attach
+        LinearLayout row = new LinearLayout(activity);
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        nestedRadioButton.setId(42);
+        row.addView(nestedRadioButton);
+        container.addView(row);
+
+        //when
+        container.removeView(row);
+        otherContainer.addView(row);
+        otherNestedRadioGroup.check(42);
+
+        //then
+        assertTrue(nestedRadioButton.isChecked());
+        assertEquals(-1, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void attach_hierarchyChangeListenerStillNotified() {
+        //given
+        ViewGroup.OnHierarchyChangeListener listener = mock(ViewGroup.OnHierarchyChangeListener.class);
+        nestedRadioGroup.setOnHierarchyChangeListener(listener);
+        View child = new View(activity);
+
+        //when
+        nestedRadioGroup.addView(child);
+
+        //then
+        verify(listener).onChildViewAdded(nestedRadioGroup, child);
+    }
+}
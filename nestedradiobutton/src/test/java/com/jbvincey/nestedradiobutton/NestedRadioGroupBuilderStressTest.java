@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.util.AttributeSet;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compares the time to build and attach a group with {@link NestedRadioGroupBuilder} to the time
+ * to create and attach the same group from attributes, as the layout inflater does, and fails
+ * when the builder is slower.
+ *
+ * Robolectric times are only indicative of the device ones, the comparison runs on both sides the
+ * same framework code. The test is opt-in like {@link NestedRadioGroupStressTest}, and reads:
+ * <ul>
+ * <li>nestedradio.stress.optionCount: option count of the group, default 500</li>
+ * <li>nestedradio.stress.maxBuilderRatio: bound of the builder to attributes time ratio, default 1</li>
+ * </ul>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioGroupBuilderStressTest {
+
+    private static final String PROPERTY_PREFIX = "nestedradio.stress.";
+    private static final int ROUNDS = 5;
+
+    private Activity activity;
+
+    @Before
+    public void setup() {
+        // also skipped when run from an IDE without the property
+        assumeTrue(Boolean.getBoolean(PROPERTY_PREFIX + "enabled"));
+        activity = Robolectric.setupActivity(Activity.class);
+    }
+
+    @Test
+    public void buildBeatsCreationFromAttributes() {
+        int optionCount = Integer.getInteger(PROPERTY_PREFIX + "optionCount", 500);
+        double maxRatio = Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "maxBuilderRatio", "1"));
+        List<NestedRadioOption> options = new ArrayList<>(optionCount);
+        for (int i = 0; i < optionCount; i++) {
+            options.add(new NestedRadioOption("key" + i, "Option " + i));
+        }
+
+        // keeps the best round of each, the first ones warming up the code paths
+        long builderNanos = Long.MAX_VALUE;
+        long attributesNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            builderNanos = Math.min(builderNanos, measureBuilder(options));
+            attributesNanos = Math.min(attributesNanos, measureAttributes(options));
+        }
+
+        double ratio = (double) builderNanos / Math.max(attributesNanos, 1);
+        assertTrue("building " + optionCount + " options takes " + builderNanos + " ns, "
+                        + ratio + " times the " + attributesNanos + " ns from attributes, over " + maxRatio,
+                ratio <= maxRatio);
+    }
+
+    private long measureBuilder(List<NestedRadioOption> options) {
+        long start = System.nanoTime();
+        NestedLinearRadioGroup nestedRadioGroup = new NestedRadioGroupBuilder(activity)
+                .setOptions(options)
+                .build();
+        activity.setContentView(nestedRadioGroup);
+        long nanos = System.nanoTime() - start;
+
+        assertEquals(options.size(), nestedRadioGroup.getChildCount());
+        activity.setContentView(new FrameLayout(activity));
+        return nanos;
+    }
+
+    private long measureAttributes(List<NestedRadioOption> options) {
+        AttributeSet attributeSet = Robolectric.buildAttributeSet().build();
+        long start = System.nanoTime();
+        NestedLinearRadioGroup nestedRadioGroup = new NestedLinearRadioGroup(activity, attributeSet);
+        for (int i = 0, size = options.size(); i < size; i++) {
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(activity, attributeSet);
+            nestedRadioButton.setId(1000 + i);
+            nestedRadioButton.setText(options.get(i).getLabel());
+            nestedRadioGroup.addView(nestedRadioButton);
+        }
+        activity.setContentView(nestedRadioGroup);
+        long nanos = System.nanoTime() - start;
+
+        assertEquals(options.size(), nestedRadioGroup.getChildCount());
+        activity.setContentView(new FrameLayout(activity));
+        return nanos;
+    }
+}
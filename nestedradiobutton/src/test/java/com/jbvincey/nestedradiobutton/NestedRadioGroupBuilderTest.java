@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioGroupBuilderTest {
+
+    private static final int OPTION_COUNT = 500;
+
+    private Activity activity;
+    private List<NestedRadioOption> options;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        options = new ArrayList<>();
+        for (int i = 0; i < OPTION_COUNT; i++) {
+            options.add(new NestedRadioOption("key" + i, "Option " + i, i != 3));
+        }
+    }
+
+    @Test
+    public void build() {
+        //when
+        NestedLinearRadioGroup nestedRadioGroup = new NestedRadioGroupBuilder(activity)
+                .setOptions(options)
+                .setCheckedKey("key42")
+                .build();
+
+        //then
+        assertEquals(OPTION_COUNT, nestedRadioGroup.getChildCount());
+        NestedRadioButton checkedButton = (NestedRadioButton) nestedRadioGroup.getChildAt(42);
+        assertTrue(checkedButton.isChecked());
+        assertEquals(checkedButton.getId(), nestedRadioGroup.getCheckedRadioButtonId());
+        assertEquals("Option 42", checkedButton.getText().toString());
+        assertFalse(nestedRadioGroup.getChildAt(3).isEnabled());
+    }
+
+    @Test
+    public void build_registeredBeforeAttach() {
+        //given
+        NestedLinearRadioGroup nestedRadioGroup = new NestedRadioGroupBuilder(activity)
+                .setOptions(options)
+                .build();
+        NestedRadioButton nestedRadioButton = (NestedRadioButton) nestedRadioGroup.getChildAt(7);
+
+        //when
+        nestedRadioButton.setChecked(true);
+
+        //then
+        assertEquals(nestedRadioButton.getId(), nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void attach_doesNotRegisterAgain() {
+        //given
+        NestedLinearRadioGroup nestedRadioGroup = new NestedRadioGroupBuilder(activity)
+                .setOptions(options)
+                .build();
+        NestedRadioMetrics metrics = mock(NestedRadioMetrics.class);
+        nestedRadioGroup.setMetrics(metrics);
+
+        //when
+        activity.setContentView(nestedRadioGroup);
+
+        //then
+        verify(metrics, never()).onButtonRegistered(any(NestedRadioGroupManager.class), anyInt());
+    }
+}
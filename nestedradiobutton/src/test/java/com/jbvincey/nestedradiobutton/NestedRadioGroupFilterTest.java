@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioGroupFilterTest {
+
+    private static final String[] LABELS = {"New York", "Newark", "York", "Osaka"};
+
+    private Activity activity;
+    private NestedLinearRadioGroup nestedRadioGroup;
+    private NestedRadioButton[] nestedRadioButtons;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroup = new NestedLinearRadioGroup(activity);
+        nestedRadioButtons = new NestedRadioButton[LABELS.length];
+        for (int i = 0; i < LABELS.length; i++) {
+            nestedRadioButtons[i] = new NestedRadioButton(activity);
+            nestedRadioButtons[i].setId(100 + i);
+            nestedRadioButtons[i].setText(LABELS[i]);
+            nestedRadioGroup.addView(nestedRadioButtons[i]);
+        }
+        activity.setContentView(nestedRadioGroup);
+    }
+
+    @Test
+    public void setFilterText_hidesUnmatchedButtons() {
+        //when
+        nestedRadioGroup.setFilterText("new");
+
+        //then
+        assertEquals(View.VISIBLE, nestedRadioButtons[0].getVisibility());
+        assertEquals(View.VISIBLE, nestedRadioButtons[1].getVisibility());
+        assertEquals(View.GONE, nestedRadioButtons[2].getVisibility());
+        assertEquals(View.GONE, nestedRadioButtons[3].getVisibility());
+    }
+
+    @Test
+    public void setFilterText_keepsCheckedButtonWhenFilteredOut() {
+        //given
+        nestedRadioGroup.check(103);
+
+        //when
+        nestedRadioGroup.setFilterText("york");
+
+        //then
+        assertEquals(View.GONE, nestedRadioButtons[3].getVisibility());
+        assertTrue(nestedRadioButtons[3].isChecked());
+        assertEquals(103, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void setFilterText_cleared() {
+        //given
+        nestedRadioGroup.setFilterText("osa");
+
+        //when
+        nestedRadioGroup.setFilterText(null);
+
+        //then
+        for (NestedRadioButton nestedRadioButton : nestedRadioButtons) {
+            assertEquals(View.VISIBLE, nestedRadioButton.getVisibility());
+        }
+    }
+
+    @Test
+    public void register_whileFiltered() {
+        //given
+        nestedRadioGroup.setFilterText("york");
+        NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+        nestedRadioButton.setText("Kyoto");
+
+        //when
+        nestedRadioGroup.addView(nestedRadioButton);
+
+        //then
+        assertEquals(View.GONE, nestedRadioButton.getVisibility());
+    }
+
+    @Test
+    public void detach_keepsFilteredOutButtonHidden() {
+        //given
+        nestedRadioGroup.setFilterText("york");
+
+        //when
+        activity.setContentView(new FrameLayout(activity));
+
+        //then
+        assertEquals(View.GONE, nestedRadioButtons[3].getVisibility());
+    }
+
+    @Test
+    public void filterClearedWhileDetached_showsButtonOnAttach() {
+        //given
+        nestedRadioGroup.setFilterText("york");
+        activity.setContentView(new FrameLayout(activity));
+        nestedRadioGroup.setFilterText(null);
+
+        //when
+        activity.setContentView(nestedRadioGroup);
+
+        //then
+        assertEquals(View.VISIBLE, nestedRadioButtons[3].getVisibility());
+        assertEquals(View.VISIBLE, nestedRadioButtons[0].getVisibility());
+    }
+
+    @Test
+    public void unregister_restoresVisibility() {
+        //given
+        nestedRadioGroup.setFilterText("york");
+
+        //when
+        nestedRadioGroup.removeView(nestedRadioButtons[3]);
+
+        //then
+        assertEquals(View.VISIBLE, nestedRadioButtons[3].getVisibility());
+    }
+}
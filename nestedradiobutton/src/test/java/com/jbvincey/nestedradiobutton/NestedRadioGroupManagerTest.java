@@ -21,10 +21,20 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,8 +61,8 @@ public class NestedRadioGroupManagerTest {
         nestedRadioGroupManager.initCheckedId(initialId);
 
         //then
-        assertEquals(initialId, nestedRadioGroupManager.checkedId);
-        assertEquals(initialId, nestedRadioGroupManager.initialCheckedId);
+        assertEquals(initialId, nestedRadioGroupManager.getCheckedId());
+        assertEquals(initialId, nestedRadioGroupManager.getInitialCheckedId());
     }
 
     @Test
@@ -86,4 +96,389 @@ public class NestedRadioGroupManagerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void batch() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroupManager.setOnCheckedChangeListener(listener);
+        nestedRadioGroupManager.initCheckedId(1);
+
+        //when
+        nestedRadioGroupManager.beginBatch();
+        nestedRadioGroupManager.check(2);
+        nestedRadioGroupManager.check(3);
+        nestedRadioGroupManager.endBatch();
+
+        //then
+        verify(nestedRadioGroupManager, never()).setCheckedStateForView(2, true);
+        verify(nestedRadioGroupManager).setCheckedStateForView(1, false);
+        verify(nestedRadioGroupManager).setCheckedStateForView(3, true);
+        verify(listener, times(1)).onCheckedChanged(nestedRadioGroupManager, 3);
+        verify(listener, times(1)).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void metrics() {
+        //given
+        NestedRadioMetrics metrics = mock(NestedRadioMetrics.class);
+        nestedRadioGroupManager.setMetrics(metrics);
+        nestedRadioGroupManager.setOnCheckedChangeListener(mock(NestedRadioGroupManager.OnCheckedChangeListener.class));
+
+        //when
+        nestedRadioGroupManager.check(12345);
+        nestedRadioGroupManager.check(12345);
+
+        //then
+        verify(metrics, times(2)).onCheck(nestedRadioGroupManager, 12345);
+        verify(metrics).onRedundantCheckSkipped(nestedRadioGroupManager, 12345);
+        verify(metrics).onListenerDispatched(eq(nestedRadioGroupManager), eq(12345), anyLong());
+    }
+
+    @Test
+    public void metrics_multipleSelection() {
+        //given
+        NestedRadioMetrics metrics = mock(NestedRadioMetrics.class);
+        nestedRadioGroupManager.setMetrics(metrics);
+        nestedRadioGroupManager.setSelectionMode(NestedRadioGroupManager.SELECTION_MODE_MULTIPLE);
+        nestedRadioGroupManager.setOnSelectionChangeListener(mock(NestedRadioGroupManager.OnSelectionChangeListener.class));
+        nestedRadioGroupManager.addNestedRadioButton(mockRadioButton(1, "first"));
+
+        //when
+        nestedRadioGroupManager.select(1);
+
+        //then
+        verify(metrics).onListenerDispatched(eq(nestedRadioGroupManager), eq(-1), anyLong());
+    }
+
+    @Test
+    public void dump() {
+        //given
+        nestedRadioGroupManager.initCheckedId(0x10);
+        nestedRadioGroupManager.check(0x20);
+        StringWriter output = new StringWriter();
+
+        //when
+        nestedRadioGroupManager.dump(new PrintWriter(output), "");
+
+        //then
+        assertTrue(output.toString().contains("checked id: 0x20"));
+        assertTrue(output.toString().contains("initial checked id: 0x10"));
+        assertTrue(output.toString().contains("checks: 1"));
+    }
+
+    @Test
+    public void autofillIndex() {
+        //given
+        NestedRadioButton firstRadioButton = mockRadioButton(30, "first");
+        NestedRadioButton secondRadioButton = mockRadioButton(10, "second");
+        nestedRadioGroupManager.addNestedRadioButton(firstRadioButton);
+        nestedRadioGroupManager.addNestedRadioButton(secondRadioButton);
+
+        //when
+        nestedRadioGroupManager.check(10);
+
+        //then
+        assertEquals(1, nestedRadioGroupManager.getCheckedPosition());
+        assertEquals(30, nestedRadioGroupManager.getIdAtPosition(0));
+        assertEquals(-1, nestedRadioGroupManager.getIdAtPosition(2));
+        assertArrayEquals(new CharSequence[]{"first", "second"}, nestedRadioGroupManager.getAutofillOptions());
+    }
+
+    @Test
+    public void autofillIndex_removeNestedRadioButton() {
+        //given
+        NestedRadioButton firstRadioButton = mockRadioButton(30, "first");
+        NestedRadioButton secondRadioButton = mockRadioButton(10, "second");
+        nestedRadioGroupManager.addNestedRadioButton(firstRadioButton);
+        nestedRadioGroupManager.addNestedRadioButton(secondRadioButton);
+        nestedRadioGroupManager.getAutofillOptions();
+
+        //when
+        nestedRadioGroupManager.removeNestedRadioButton(firstRadioButton);
+
+        //then
+        assertEquals(10, nestedRadioGroupManager.getIdAtPosition(0));
+        assertArrayEquals(new CharSequence[]{"second"}, nestedRadioGroupManager.getAutofillOptions());
+    }
+
+    @Test
+    public void namedScopes_independentSelections() {
+        //given
+        NestedRadioGroupManager.OnScopedCheckedChangeListener listener = mock(NestedRadioGroupManager.OnScopedCheckedChangeListener.class);
+        nestedRadioGroupManager.setOnScopedCheckedChangeListener(listener);
+        NestedRadioButton sizeRadioButton = mockRadioButton(1, "small");
+        NestedRadioButton colorRadioButton = mockRadioButton(2, "red");
+        when(sizeRadioButton.getGroupName()).thenReturn("size");
+        when(colorRadioButton.getGroupName()).thenReturn("color");
+        nestedRadioGroupManager.addNestedRadioButton(sizeRadioButton);
+        nestedRadioGroupManager.addNestedRadioButton(colorRadioButton);
+
+        //when
+        nestedRadioGroupManager.check("size", 1);
+        nestedRadioGroupManager.check("color", 2);
+
+        //then
+        assertEquals(1, nestedRadioGroupManager.getCheckedId("size"));
+        assertEquals(2, nestedRadioGroupManager.getCheckedId("color"));
+        assertEquals(-1, nestedRadioGroupManager.getCheckedId());
+        assertEquals(2, nestedRadioGroupManager.getScopeCount());
+        verify(sizeRadioButton, never()).setChecked(false);
+        verify(listener).onCheckedChanged(nestedRadioGroupManager, "size", 1);
+        verify(listener).onCheckedChanged(nestedRadioGroupManager, "color", 2);
+    }
+
+    @Test
+    public void namedScopes_defaultScopeListener() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroupManager.setOnCheckedChangeListener(listener);
+
+        //when
+        nestedRadioGroupManager.check("size", 1);
+
+        //then
+        verify(listener, never()).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void multipleSelection_selectAll() {
+        //given
+        NestedRadioGroupManager.OnSelectionChangeListener listener = mock(NestedRadioGroupManager.OnSelectionChangeListener.class);
+        nestedRadioGroupManager.setSelectionMode(NestedRadioGroupManager.SELECTION_MODE_MULTIPLE);
+        nestedRadioGroupManager.setMaxSelected(2);
+        nestedRadioGroupManager.setOnSelectionChangeListener(listener);
+        NestedRadioButton firstRadioButton = mockRadioButton(1, "first");
+        nestedRadioGroupManager.addNestedRadioButton(firstRadioButton);
+        nestedRadioGroupManager.addNestedRadioButton(mockRadioButton(2, "second"));
+        nestedRadioGroupManager.addNestedRadioButton(mockRadioButton(3, "third"));
+
+        //when
+        nestedRadioGroupManager.selectAll();
+
+        //then
+        assertArrayEquals(new int[]{1, 2}, nestedRadioGroupManager.getSelectedIds());
+        verify(firstRadioButton).setUncheckable(true);
+        verify(firstRadioButton).setChecked(true);
+        verify(listener, times(1)).onSelectionChanged(nestedRadioGroupManager, new int[]{1, 2}, new int[0]);
+    }
+
+    @Test
+    public void multipleSelection_removeButton_keepsSelection() {
+        //given
+        NestedRadioGroupManager.OnSelectionChangeListener listener = mock(NestedRadioGroupManager.OnSelectionChangeListener.class);
+        nestedRadioGroupManager.setSelectionMode(NestedRadioGroupManager.SELECTION_MODE_MULTIPLE);
+        NestedRadioButton firstRadioButton = mockRadioButton(1, "first");
+        nestedRadioGroupManager.addNestedRadioButton(firstRadioButton);
+        nestedRadioGroupManager.addNestedRadioButton(mockRadioButton(2, "second"));
+        nestedRadioGroupManager.select(1);
+        nestedRadioGroupManager.setOnSelectionChangeListener(listener);
+
+        //when
+        nestedRadioGroupManager.removeNestedRadioButton(firstRadioButton);
+        nestedRadioGroupManager.invert();
+
+        //then
+        assertArrayEquals(new int[]{1, 2}, nestedRadioGroupManager.getSelectedIds());
+        verify(listener, times(1)).onSelectionChanged(nestedRadioGroupManager, new int[]{2}, new int[0]);
+    }
+
+    @Test
+    public void multipleSelection_removeThenAddButton_checkedAgain() {
+        //given
+        NestedRadioGroupManager.OnSelectionChangeListener listener = mock(NestedRadioGroupManager.OnSelectionChangeListener.class);
+        nestedRadioGroupManager.setSelectionMode(NestedRadioGroupManager.SELECTION_MODE_MULTIPLE);
+        NestedRadioButton firstRadioButton = mockRadioButton(1, "first");
+        nestedRadioGroupManager.addNestedRadioButton(firstRadioButton);
+        nestedRadioGroupManager.select(1);
+        nestedRadioGroupManager.setOnSelectionChangeListener(listener);
+
+        //when
+        nestedRadioGroupManager.removeNestedRadioButton(firstRadioButton);
+        nestedRadioGroupManager.addNestedRadioButton(firstRadioButton);
+
+        //then
+        assertArrayEquals(new int[]{1}, nestedRadioGroupManager.getSelectedIds());
+        verify(firstRadioButton, times(2)).setChecked(true);
+        verify(listener, never()).onSelectionChanged(any(NestedRadioGroupManager.class), any(int[].class), any(int[].class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void singleSelection_select() {
+        nestedRadioGroupManager.select(1);
+    }
+
+    @Test
+    public void removeNestedRadioButton() {
+        //given
+        int radioButtonId = 12345;
+        NestedRadioButton nestedRadioButton = mock(NestedRadioButton.class);
+        when(nestedRadioButton.getId()).thenReturn(radioButtonId);
+        nestedRadioGroupManager.addNestedRadioButton(nestedRadioButton);
+
+        //when
+        nestedRadioGroupManager.removeNestedRadioButton(nestedRadioButton);
+
+        //then
+        assertEquals(0, nestedRadioGroupManager.getNestedRadioButtonCount());
+        verify(nestedRadioButton).setOnCheckedChangeListener(null);
+    }
+
+    @Test
+    public void removeNestedRadioButton_checkedButton_keepsSelection() {
+        //given
+        int radioButtonId = 12345;
+        NestedRadioButton nestedRadioButton = mock(NestedRadioButton.class);
+        when(nestedRadioButton.getId()).thenReturn(radioButtonId);
+        nestedRadioGroupManager.addNestedRadioButton(nestedRadioButton);
+        nestedRadioGroupManager.check(radioButtonId);
+
+        //when
+        nestedRadioGroupManager.removeNestedRadioButton(nestedRadioButton);
+
+        //then
+        assertEquals(radioButtonId, nestedRadioGroupManager.getCheckedId());
+    }
+
+    @Test
+    public void removeNestedRadioButton_otherInstanceWithSameId() {
+        //given
+        int radioButtonId = 12345;
+        NestedRadioButton oldRadioButton = mock(NestedRadioButton.class);
+        NestedRadioButton newRadioButton = mock(NestedRadioButton.class);
+        when(oldRadioButton.getId()).thenReturn(radioButtonId);
+        when(newRadioButton.getId()).thenReturn(radioButtonId);
+        nestedRadioGroupManager.addNestedRadioButton(oldRadioButton);
+        nestedRadioGroupManager.addNestedRadioButton(newRadioButton);
+
+        //when
+        nestedRadioGroupManager.removeNestedRadioButton(oldRadioButton);
+
+        //then
+        assertEquals(1, nestedRadioGroupManager.getNestedRadioButtonCount());
+    }
+
+    private static NestedRadioButton mockRadioButton(int id, String text) {
+        NestedRadioButton nestedRadioButton = mock(NestedRadioButton.class);
+        when(nestedRadioButton.getId()).thenReturn(id);
+        when(nestedRadioButton.getText()).thenReturn(text);
+        return nestedRadioButton;
+    }
+
+
+    @Test
+    public void addOnCheckedChangeListener_allListenersNotified() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        NestedRadioGroupManager.OnCheckedChangeListener otherListener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroupManager.setOnCheckedChangeListener(listener);
+        nestedRadioGroupManager.addOnCheckedChangeListener(otherListener);
+
+        //when
+        nestedRadioGroupManager.check(12345);
+
+        //then
+        verify(listener).onCheckedChanged(nestedRadioGroupManager, 12345);
+        verify(otherListener).onCheckedChanged(nestedRadioGroupManager, 12345);
+    }
+
+    @Test
+    public void removeOnCheckedChangeListener_fromListener() {
+        //given
+        final NestedRadioGroupManager.OnCheckedChangeListener otherListener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroupManager.addOnCheckedChangeListener(new NestedRadioGroupManager.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(NestedRadioGroupManager groupManager, int checkedId) {
+                groupManager.removeOnCheckedChangeListener(otherListener);
+            }
+        });
+        nestedRadioGroupManager.addOnCheckedChangeListener(otherListener);
+
+        //when
+        nestedRadioGroupManager.check(12345);
+        nestedRadioGroupManager.check(54321);
+
+        //then
+        verify(otherListener).onCheckedChanged(nestedRadioGroupManager, 12345);
+        verify(otherListener, never()).onCheckedChanged(nestedRadioGroupManager, 54321);
+    }
+
+    @Test
+    public void dispatchModeFrame_finalStateOncePerFrame() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroupManager.setOnCheckedChangeListener(listener);
+        nestedRadioGroupManager.setDispatchMode(NestedRadioGroupManager.DISPATCH_MODE_FRAME);
+
+        //when
+        nestedRadioGroupManager.check(1);
+        nestedRadioGroupManager.check(2);
+        nestedRadioGroupManager.check(3);
+
+        //then
+        verify(listener, never()).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+
+        //when
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        //then
+        verify(listener, times(1)).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+        verify(listener).onCheckedChanged(nestedRadioGroupManager, 3);
+    }
+
+    @Test
+    public void dispatchModeImmediate_dispatchesPendingChanges() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroupManager.setOnCheckedChangeListener(listener);
+        nestedRadioGroupManager.setDispatchMode(NestedRadioGroupManager.DISPATCH_MODE_FRAME);
+        nestedRadioGroupManager.check(1);
+
+        //when
+        nestedRadioGroupManager.setDispatchMode(NestedRadioGroupManager.DISPATCH_MODE_IMMEDIATE);
+
+        //then
+        verify(listener).onCheckedChanged(nestedRadioGroupManager, 1);
+    }
+
+    @Test
+    public void getSelection_publishedOnChange() {
+        //given
+        NestedRadioSelection before = nestedRadioGroupManager.getSelection();
+
+        //when
+        nestedRadioGroupManager.check(12345);
+
+        //then
+        NestedRadioSelection after = nestedRadioGroupManager.getSelection();
+        assertEquals(12345, after.getCheckedId());
+        assertTrue(after.isSelected(12345));
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(-1, before.getCheckedId());
+    }
+
+    @Test
+    public void checkAsync_appliedOnMainThreadInOrder() throws InterruptedException {
+        //given
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                nestedRadioGroupManager.checkAsync(1);
+                nestedRadioGroupManager.checkAsync(2);
+            }
+        });
+
+        //when
+        worker.start();
+        worker.join();
+
+        //then
+        assertEquals(-1, nestedRadioGroupManager.getCheckedId());
+
+        //when
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        //then
+        assertEquals(2, nestedRadioGroupManager.getCheckedId());
+        assertEquals(2, nestedRadioGroupManager.getSelection().getCheckedId());
+    }
+}
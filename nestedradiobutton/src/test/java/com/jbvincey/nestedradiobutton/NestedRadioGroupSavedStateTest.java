@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.SparseArray;
+import android.view.AbsSavedState;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioGroupSavedStateTest {
+
+    private static final int GROUP_ID = 1;
+    private static final int BUTTON_COUNT = 50;
+
+    private Activity activity;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+    }
+
+    @Test
+    public void restore_beforeAttach_singleChangeEvent() {
+        //given
+        NestedLinearRadioGroup savedGroup = createGroup();
+        activity.setContentView(savedGroup);
+        savedGroup.check(100 + 7);
+        SparseArray<Parcelable> container = new SparseArray<>();
+        savedGroup.saveHierarchyState(container);
+
+        NestedLinearRadioGroup restoredGroup = createGroup();
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        restoredGroup.setOnCheckedChangeListener(listener);
+
+        //when
+        restoredGroup.restoreHierarchyState(container);
+        activity.setContentView(restoredGroup);
+
+        //then
+        assertEquals(100 + 7, restoredGroup.getCheckedRadioButtonId());
+        assertTrue(((NestedRadioButton) restoredGroup.findViewById(100 + 7)).isChecked());
+        verify(listener, times(1)).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void restore_afterAttach_singleChangeEvent() {
+        //given
+        NestedLinearRadioGroup savedGroup = createGroup();
+        activity.setContentView(savedGroup);
+        savedGroup.check(100 + 3);
+        SparseArray<Parcelable> container = new SparseArray<>();
+        savedGroup.saveHierarchyState(container);
+
+        NestedLinearRadioGroup restoredGroup = createGroup();
+        activity.setContentView(restoredGroup);
+        restoredGroup.check(100 + 1);
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        restoredGroup.setOnCheckedChangeListener(listener);
+
+        //when
+        restoredGroup.restoreHierarchyState(container);
+
+        //then
+        assertEquals(100 + 3, restoredGroup.getCheckedRadioButtonId());
+        assertFalse(((NestedRadioButton) restoredGroup.findViewById(100 + 1)).isChecked());
+        verify(listener, times(1)).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void parcel() {
+        //given
+        NestedRadioGroupSavedState savedState = new NestedRadioGroupSavedState(AbsSavedState.EMPTY_STATE);
+        savedState.checkedId = 42;
+        savedState.scopeNames = new String[]{"size"};
+        savedState.scopeCheckedIds = new int[]{7};
+        Parcel parcel = Parcel.obtain();
+
+        //when
+        savedState.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        NestedRadioGroupSavedState restoredState = NestedRadioGroupSavedState.CREATOR.createFromParcel(parcel);
+
+        //then
+        assertEquals(42, restoredState.checkedId);
+        assertEquals("size", restoredState.scopeNames[0]);
+        assertEquals(7, restoredState.scopeCheckedIds[0]);
+        parcel.recycle();
+    }
+
+    private NestedLinearRadioGroup createGroup() {
+        NestedLinearRadioGroup nestedRadioGroup = new NestedLinearRadioGroup(activity);
+        nestedRadioGroup.setId(GROUP_ID);
+        for (int i = 0; i < BUTTON_COUNT; i++) {
+            LinearLayout container = new LinearLayout(activity);
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+            nestedRadioButton.setId(100 + i);
+            container.addView(nestedRadioButton);
+            nestedRadioGroup.addView(container);
+        }
+        return nestedRadioGroup;
+    }
+}
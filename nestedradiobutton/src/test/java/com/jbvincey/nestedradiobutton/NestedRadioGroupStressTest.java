@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.Robolectric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Builds each group type with many radio buttons nested deeply, and fails when attach time,
+ * check latency or detach time grow faster than expected with the radio button count, or when
+ * the retained heap per radio button goes over its budget.
+ *
+ * Times are not compared to absolute budgets, which depend on the machine: each group is built
+ * with a small and a large radio button count, and the ratio of the large to the small time per
+ * radio button (per check for the check latency) must stay under a bound. A linear attach or a
+ * constant check keeps the ratio close to 1, a quadratic one makes it close to the ratio of the
+ * counts.
+ *
+ * The test is opt-in, it is excluded from the unit tests unless
+ * -Pnestedradio.stress.enabled=true is passed to Gradle, e.g.
+ * ./gradlew :nestedradiobutton:testDebugUnitTest -Pnestedradio.stress.enabled=true --tests '*StressTest'.
+ * Sizes and bounds are read from system properties, forwarded by Gradle from the project
+ * properties with the same names, e.g. -Pnestedradio.stress.buttonCounts=1000,10000:
+ * <ul>
+ * <li>nestedradio.stress.buttonCounts: small and large radio button counts, default 1000,10000</li>
+ * <li>nestedradio.stress.depths: nesting depths of the radio buttons, default 1,2,5,10,20</li>
+ * <li>nestedradio.stress.maxRatio: bound of the large to small time ratios, default 4</li>
+ * <li>nestedradio.stress.heapBytesPerButton: retained heap budget, default 16384</li>
+ * </ul>
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+public class NestedRadioGroupStressTest {
+
+    private static final String PROPERTY_PREFIX = "nestedradio.stress.";
+    private static final int CHECK_COUNT = 200;
+
+    private static final int LINEAR = 0;
+    private static final int FRAME = 1;
+    private static final int RELATIVE = 2;
+    private static final int CONSTRAINT = 3;
+
+    private final int groupType;
+    private final int depth;
+
+    private Activity activity;
+
+    public NestedRadioGroupStressTest(String groupName, int groupType, int depth) {
+        this.groupType = groupType;
+        this.depth = depth;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0} at depth {2}")
+    public static Collection<Object[]> parameters() {
+        String[] groupNames = {"linear", "frame", "relative", "constraint"};
+        List<Object[]> parameters = new ArrayList<>();
+        for (int depth : intsProperty("depths", "1,2,5,10,20")) {
+            for (int groupType = LINEAR; groupType <= CONSTRAINT; groupType++) {
+                parameters.add(new Object[]{groupNames[groupType], groupType, depth});
+            }
+        }
+        return parameters;
+    }
+
+    @Before
+    public void setup() {
+        // also skipped when run from an IDE without the property
+        assumeTrue(Boolean.getBoolean(PROPERTY_PREFIX + "enabled"));
+        activity = Robolectric.setupActivity(Activity.class);
+    }
+
+    @Test
+    public void attachCheckDetachScaleLinearly() {
+        int[] buttonCounts = intsProperty("buttonCounts", "1000,10000");
+        double maxRatio = Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "maxRatio", "4"));
+
+        // warms up the code paths before measuring the small count
+        measure(buttonCounts[0]);
+        Measure small = measure(buttonCounts[0]);
+        Measure large = measure(buttonCounts[1]);
+
+        assertRatio("attach time per button", small.attachNanosPerButton, large.attachNanosPerButton, maxRatio);
+        assertRatio("check latency", small.checkNanos, large.checkNanos, maxRatio);
+        assertRatio("detach time per button", small.detachNanosPerButton, large.detachNanosPerButton, maxRatio);
+        long heapBudget = Long.parseLong(System.getProperty(PROPERTY_PREFIX + "heapBytesPerButton", "16384"));
+        assertTrue("retained heap per button is " + large.heapBytesPerButton + " bytes, over the budget of "
+                        + heapBudget + " with " + buttonCounts[1] + " buttons at depth " + depth,
+                large.heapBytesPerButton <= heapBudget);
+    }
+
+    private Measure measure(int buttonCount) {
+        Measure measure = new Measure();
+        long heapBefore = usedHeap();
+
+        ViewGroup nestedRadioGroup = createGroup();
+        int[] ids = addNestedRadioButtons(nestedRadioGroup, buttonCount);
+
+        long attachStart = System.nanoTime();
+        activity.setContentView(nestedRadioGroup);
+        measure.attachNanosPerButton = (double) (System.nanoTime() - attachStart) / buttonCount;
+
+        // warms up, then checks radio buttons spread over the whole group
+        check(nestedRadioGroup, ids[0]);
+        long checkStart = System.nanoTime();
+        for (int i = 0; i < CHECK_COUNT; i++) {
+            check(nestedRadioGroup, ids[(int) ((long) i * 7919 % buttonCount)]);
+        }
+        measure.checkNanos = (double) (System.nanoTime() - checkStart) / CHECK_COUNT;
+        assertEquals(ids[(int) ((long) (CHECK_COUNT - 1) * 7919 % buttonCount)], getCheckedId(nestedRadioGroup));
+
+        measure.heapBytesPerButton = (usedHeap() - heapBefore) / buttonCount;
+
+        long detachStart = System.nanoTime();
+        activity.setContentView(new FrameLayout(activity));
+        measure.detachNanosPerButton = (double) (System.nanoTime() - detachStart) / buttonCount;
+        return measure;
+    }
+
+    private ViewGroup createGroup() {
+        switch (groupType) {
+            case LINEAR:
+                return new NestedLinearRadioGroup(activity);
+            case FRAME:
+                return new NestedFrameRadioGroup(activity);
+            case RELATIVE:
+                return new NestedRelativeRadioGroup(activity);
+            default:
+                return new NestedConstraintRadioGroup(activity);
+        }
+    }
+
+    /**
+     * Adds the radio buttons under a chain of depth - 1 containers, each radio button in its own
+     * row container.
+     */
+    private int[] addNestedRadioButtons(ViewGroup nestedRadioGroup, int buttonCount) {
+        ViewGroup parent = nestedRadioGroup;
+        for (int i = 1; i < depth; i++) {
+            LinearLayout container = new LinearLayout(activity);
+            parent.addView(container);
+            parent = container;
+        }
+        int[] ids = new int[buttonCount];
+        for (int i = 0; i < buttonCount; i++) {
+            LinearLayout row = new LinearLayout(activity);
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+            ids[i] = 1000 + i;
+            nestedRadioButton.setId(ids[i]);
+            row.addView(nestedRadioButton);
+            parent.addView(row);
+        }
+        return ids;
+    }
+
+    private static void check(ViewGroup nestedRadioGroup, int id) {
+        if (nestedRadioGroup instanceof NestedLinearRadioGroup) {
+            ((NestedLinearRadioGroup) nestedRadioGroup).check(id);
+        } else if (nestedRadioGroup instanceof NestedFrameRadioGroup) {
+            ((NestedFrameRadioGroup) nestedRadioGroup).check(id);
+        } else if (nestedRadioGroup instanceof NestedRelativeRadioGroup) {
+            ((NestedRelativeRadioGroup) nestedRadioGroup).check(id);
+        } else {
+            ((NestedConstraintRadioGroup) nestedRadioGroup).check(id);
+        }
+    }
+
+    private static int getCheckedId(ViewGroup nestedRadioGroup) {
+        if (nestedRadioGroup instanceof NestedLinearRadioGroup) {
+            return ((NestedLinearRadioGroup) nestedRadioGroup).getCheckedRadioButtonId();
+        } else if (nestedRadioGroup instanceof NestedFrameRadioGroup) {
+            return ((NestedFrameRadioGroup) nestedRadioGroup).getCheckedRadioButtonId();
+        } else if (nestedRadioGroup instanceof NestedRelativeRadioGroup) {
+            return ((NestedRelativeRadioGroup) nestedRadioGroup).getCheckedRadioButtonId();
+        } else {
+            return ((NestedConstraintRadioGroup) nestedRadioGroup).getCheckedRadioButtonId();
+        }
+    }
+
+    private void assertRatio(String measure, double small, double large, double maxRatio) {
+        // a measure too small to be timed does not fail the ratio
+        double ratio = large / Math.max(small, 1);
+        assertTrue(measure + " grows " + ratio + " times from the small to the large button count, over "
+                        + maxRatio + " at depth " + depth,
+                ratio <= maxRatio);
+    }
+
+    private static int[] intsProperty(String name, String defaultValue) {
+        String[] values = System.getProperty(PROPERTY_PREFIX + name, defaultValue).split(",");
+        int[] ints = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ints[i] = Integer.parseInt(values[i].trim());
+        }
+        return ints;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class Measure {
+        double attachNanosPerButton;
+        double checkNanos;
+        double detachNanosPerButton;
+        long heapBytesPerButton;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.KeyEvent;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioKeyNavigationTest {
+
+    private static final int BUTTON_COUNT = 5;
+
+    private NestedLinearRadioGroup nestedRadioGroup;
+    private NestedRadioButton[] nestedRadioButtons;
+
+    @Before
+    public void setup() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroup = new NestedLinearRadioGroup(activity);
+        nestedRadioButtons = new NestedRadioButton[BUTTON_COUNT];
+        for (int i = 0; i < BUTTON_COUNT; i++) {
+            LinearLayout container = new LinearLayout(activity);
+            nestedRadioButtons[i] = new NestedRadioButton(activity);
+            nestedRadioButtons[i].setId(100 + i);
+            nestedRadioButtons[i].setFocusableInTouchMode(true);
+            container.addView(nestedRadioButtons[i]);
+            nestedRadioGroup.addView(container);
+        }
+        activity.setContentView(nestedRadioGroup);
+    }
+
+    @Test
+    public void keyDown_movesFocusSkippingDisabledAndHidden() {
+        //given
+        nestedRadioGroup.setKeyNavigationEnabled(true);
+        nestedRadioButtons[1].setEnabled(false);
+        ((View) nestedRadioButtons[2].getParent()).setVisibility(View.GONE);
+        nestedRadioButtons[0].requestFocus();
+
+        //when
+        boolean handled = nestedRadioGroup.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_DOWN));
+
+        //then
+        assertTrue(handled);
+        assertTrue(nestedRadioButtons[3].isFocused());
+        assertFalse(nestedRadioButtons[3].isChecked());
+    }
+
+    @Test
+    public void keyUp_wrapsAround() {
+        //given
+        nestedRadioGroup.setKeyNavigationEnabled(true);
+        nestedRadioGroup.setSelectionFollowsFocus(true);
+        nestedRadioButtons[0].requestFocus();
+
+        //when
+        nestedRadioGroup.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_UP));
+
+        //then
+        assertTrue(nestedRadioButtons[4].isFocused());
+        assertEquals(104, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void keyDown_navigationDisabled() {
+        //given
+        nestedRadioButtons[0].requestFocus();
+
+        //when
+        nestedRadioGroup.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_MOVE_END));
+
+        //then
+        assertTrue(nestedRadioButtons[0].isFocused());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.KeyEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioOptionListTest {
+
+    private Activity activity;
+    private NestedLinearRadioGroup nestedRadioGroup;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroup = new NestedLinearRadioGroup(activity);
+        nestedRadioGroup.submitOptions(options("a", "b", "c", "d"));
+        activity.setContentView(nestedRadioGroup);
+    }
+
+    @Test
+    public void submitOptions_insertRemove() {
+        //given
+        NestedRadioButton buttonA = button(0);
+
+        //when
+        nestedRadioGroup.submitOptions(options("a", "c", "e"));
+
+        //then
+        assertEquals(3, nestedRadioGroup.getChildCount());
+        assertSame(buttonA, button(0));
+        assertEquals("c", button(1).getText().toString());
+        assertEquals("e", button(2).getText().toString());
+        assertEquals(-1, nestedRadioGroup.getOptionId("b"));
+    }
+
+    @Test
+    public void submitOptions_moveTouchesOnlyMovedButton() {
+        //given
+        NestedRadioMetrics metrics = mock(NestedRadioMetrics.class);
+        nestedRadioGroup.setMetrics(metrics);
+
+        //when
+        nestedRadioGroup.submitOptions(options("b", "c", "d", "a"));
+
+        //then
+        assertEquals("a", button(3).getText().toString());
+        verify(metrics, never()).onButtonRegistered(any(NestedRadioGroupManager.class), anyInt());
+        verify(metrics, never()).onButtonUnregistered(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void submitOptions_move_multipleSelectionKept() {
+        //given
+        nestedRadioGroup.setSelectionMode(NestedRadioGroupManager.SELECTION_MODE_MULTIPLE);
+        nestedRadioGroup.setSelection(new int[]{nestedRadioGroup.getOptionId("a")});
+
+        //when
+        nestedRadioGroup.submitOptions(options("b", "c", "d", "a"));
+
+        //then
+        assertArrayEquals(new int[]{nestedRadioGroup.getOptionId("a")}, nestedRadioGroup.getSelectedIds());
+        assertTrue(button(3).isChecked());
+    }
+
+    @Test
+    public void submitOptions_move_keyNavigationFollowsDisplayOrder() {
+        //given
+        nestedRadioGroup.setKeyNavigationEnabled(true);
+        nestedRadioGroup.submitOptions(options("a", "d", "b", "c"));
+        for (int i = 0; i < nestedRadioGroup.getChildCount(); i++) {
+            button(i).setFocusableInTouchMode(true);
+        }
+        button(0).requestFocus();
+
+        //when
+        nestedRadioGroup.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_DOWN));
+
+        //then
+        assertEquals("d", button(1).getText().toString());
+        assertTrue(button(1).isFocused());
+    }
+
+    @Test
+    public void submitOptions_insert_keyNavigationFollowsDisplayOrder() {
+        //given
+        nestedRadioGroup.setKeyNavigationEnabled(true);
+        nestedRadioGroup.submitOptions(options("a", "e", "b", "c", "d"));
+        for (int i = 0; i < nestedRadioGroup.getChildCount(); i++) {
+            button(i).setFocusableInTouchMode(true);
+        }
+        button(0).requestFocus();
+
+        //when
+        nestedRadioGroup.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_DOWN));
+
+        //then
+        assertEquals("e", button(1).getText().toString());
+        assertTrue(button(1).isFocused());
+    }
+
+    @Test
+    public void submitOptions_checkedOptionKept() {
+        //given
+        nestedRadioGroup.check(nestedRadioGroup.getOptionId("d"));
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroup.setOnCheckedChangeListener(listener);
+
+        //when
+        nestedRadioGroup.submitOptions(options("d", "a"));
+
+        //then
+        assertEquals(nestedRadioGroup.getOptionId("d"), nestedRadioGroup.getCheckedRadioButtonId());
+        assertTrue(button(0).isChecked());
+        verify(listener, never()).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void submitOptions_checkedOptionRemoved_singleChangeEvent() {
+        //given
+        nestedRadioGroup.check(nestedRadioGroup.getOptionId("b"));
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        nestedRadioGroup.setOnCheckedChangeListener(listener);
+
+        //when
+        nestedRadioGroup.submitOptions(options("a", "c"));
+
+        //then
+        assertEquals(-1, nestedRadioGroup.getCheckedRadioButtonId());
+        verify(listener, times(1)).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+    }
+
+    @Test
+    public void submitOptions_rebindsChangedOption() {
+        //given
+        List<NestedRadioOption> options = options("a", "b");
+        options.set(1, new NestedRadioOption("b", "B", false));
+
+        //when
+        nestedRadioGroup.submitOptions(options);
+
+        //then
+        assertEquals("B", button(1).getText().toString());
+        assertFalse(button(1).isEnabled());
+    }
+
+    @Test
+    public void longestIncreasingRun() {
+        //when
+        boolean[] staying = NestedRadioOptionList.longestIncreasingRun(new int[]{3, 0, 1, 2}, 4, 4);
+
+        //then
+        assertArrayEquals(new boolean[]{true, true, true, false}, staying);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void submitOptions_duplicateKey() {
+        nestedRadioGroup.submitOptions(options("a", "a"));
+    }
+
+    private NestedRadioButton button(int position) {
+        return (NestedRadioButton) nestedRadioGroup.getChildAt(position);
+    }
+
+    private static List<NestedRadioOption> options(String... keys) {
+        List<NestedRadioOption> options = new ArrayList<>();
+        for (String key : keys) {
+            options.add(new NestedRadioOption(key, key));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioPagedOptionsTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private NestedLinearRadioGroup nestedRadioGroup;
+    private NestedRadioPagedOptions.PageLoader pageLoader;
+    private NestedRadioPagedOptions pagedOptions;
+
+    @Before
+    public void setup() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        nestedRadioGroup = new NestedLinearRadioGroup(activity);
+        activity.setContentView(nestedRadioGroup);
+        pageLoader = mock(NestedRadioPagedOptions.PageLoader.class);
+        pagedOptions = new NestedRadioPagedOptions(nestedRadioGroup, pageLoader);
+    }
+
+    @Test
+    public void loadNextPage() {
+        //when
+        pagedOptions.loadNextPage();
+        pagedOptions.loadNextPage();
+
+        //then
+        verify(pageLoader).loadPage(0, pagedOptions);
+    }
+
+    @Test
+    public void onPageLoadFailed_loadsPageAgain() {
+        //given
+        pagedOptions.loadNextPage();
+
+        //when
+        pagedOptions.onPageLoadFailed(0);
+        pagedOptions.loadNextPage();
+
+        //then
+        verify(pageLoader, times(2)).loadPage(0, pagedOptions);
+    }
+
+    @Test
+    public void onPageLoadFailed_otherPageKeepsLoading() {
+        //given
+        pagedOptions.loadNextPage();
+
+        //when
+        pagedOptions.onPageLoadFailed(1);
+        pagedOptions.loadNextPage();
+
+        //then
+        verify(pageLoader).loadPage(0, pagedOptions);
+    }
+
+    @Test
+    public void submitPage_createsOnlyLoadedButtons() {
+        //when
+        pagedOptions.submitPage(0, page(0), false);
+
+        //then
+        assertEquals(PAGE_SIZE, nestedRadioGroup.getChildCount());
+        assertEquals(1, pagedOptions.getLoadedPageCount());
+        assertFalse(pagedOptions.isComplete());
+        assertEquals(View.NO_ID, pagedOptions.getOptionId("key" + PAGE_SIZE));
+    }
+
+    @Test
+    public void submitPage_insertsPagesInOrder() {
+        //given
+        pagedOptions.submitPage(2, page(2), true);
+
+        //when
+        pagedOptions.submitPage(0, page(0), false);
+
+        //then
+        NestedRadioButton first = (NestedRadioButton) nestedRadioGroup.getChildAt(0);
+        assertEquals(pagedOptions.getOptionId("key0"), first.getId());
+        assertTrue(pagedOptions.isComplete());
+    }
+
+    @Test
+    public void submitPage_keepsHeaderAndFooterAroundPages() {
+        //given
+        View header = new View(nestedRadioGroup.getContext());
+        View footer = new View(nestedRadioGroup.getContext());
+        nestedRadioGroup.addView(header);
+        pagedOptions.submitPage(1, page(1), true);
+        nestedRadioGroup.addView(footer);
+
+        //when
+        pagedOptions.submitPage(0, page(0), false);
+
+        //then
+        assertEquals(header, nestedRadioGroup.getChildAt(0));
+        assertEquals(pagedOptions.getOptionId("key0"), nestedRadioGroup.getChildAt(1).getId());
+        assertEquals(pagedOptions.getOptionId("key" + PAGE_SIZE), nestedRadioGroup.getChildAt(PAGE_SIZE + 1).getId());
+        assertEquals(footer, nestedRadioGroup.getChildAt(2 * PAGE_SIZE + 1));
+    }
+
+    @Test
+    public void submitPage_checkedKeyAttachesCheckedWithoutChangeEvent() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = mock(NestedRadioGroupManager.OnCheckedChangeListener.class);
+        NestedRadioPagedOptions.OnCheckedKeyChangeListener keyListener = mock(NestedRadioPagedOptions.OnCheckedKeyChangeListener.class);
+        pagedOptions.submitPage(0, page(0), false);
+        pagedOptions.checkKey("key25");
+        nestedRadioGroup.setOnCheckedChangeListener(listener);
+        pagedOptions.setOnCheckedKeyChangeListener(keyListener);
+
+        //when
+        pagedOptions.submitPage(1, page(1), false);
+
+        //then
+        int checkedId = pagedOptions.getOptionId("key25");
+        assertTrue(((NestedRadioButton) nestedRadioGroup.findViewById(checkedId)).isChecked());
+        assertEquals(checkedId, nestedRadioGroup.getCheckedRadioButtonId());
+        assertEquals(checkedId, nestedRadioGroup.getSelection().getCheckedId());
+        verify(listener, never()).onCheckedChanged(any(NestedRadioGroupManager.class), anyInt());
+        verify(keyListener, never()).onCheckedKeyChanged(any(NestedRadioPagedOptions.class), anyString());
+    }
+
+    @Test
+    public void checkKey_notLoadedClearsGroup() {
+        //given
+        pagedOptions.submitPage(0, page(0), false);
+        pagedOptions.checkKey("key3");
+
+        //when
+        pagedOptions.checkKey("key42");
+
+        //then
+        assertEquals("key42", pagedOptions.getCheckedKey());
+        assertEquals(View.NO_ID, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void userCheck_updatesCheckedKey() {
+        //given
+        NestedRadioPagedOptions.OnCheckedKeyChangeListener keyListener = mock(NestedRadioPagedOptions.OnCheckedKeyChangeListener.class);
+        pagedOptions.setOnCheckedKeyChangeListener(keyListener);
+        pagedOptions.submitPage(0, page(0), false);
+        pagedOptions.checkKey("key42");
+        NestedRadioButton nestedRadioButton = (NestedRadioButton) nestedRadioGroup.findViewById(pagedOptions.getOptionId("key7"));
+
+        //when
+        nestedRadioButton.setChecked(true);
+
+        //then
+        assertEquals("key7", pagedOptions.getCheckedKey());
+        verify(keyListener).onCheckedKeyChanged(pagedOptions, "key7");
+    }
+
+    @Test
+    public void checkKey_null() {
+        //given
+        pagedOptions.submitPage(0, page(0), false);
+        pagedOptions.checkKey("key3");
+
+        //when
+        pagedOptions.checkKey(null);
+
+        //then
+        assertNull(pagedOptions.getCheckedKey());
+        assertEquals(View.NO_ID, nestedRadioGroup.getCheckedRadioButtonId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void submitPage_twice() {
+        pagedOptions.submitPage(0, page(0), false);
+        pagedOptions.submitPage(0, page(0), false);
+    }
+
+    private static List<NestedRadioOption> page(int pageIndex) {
+        List<NestedRadioOption> options = new ArrayList<>();
+        for (int i = pageIndex * PAGE_SIZE; i < (pageIndex + 1) * PAGE_SIZE; i++) {
+            options.add(new NestedRadioOption("key" + i, "Option " + i));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRadioSharedGroupTest {
+
+    private static final String SHARED_GROUP_NAME = "answers";
+
+    private Activity activity;
+    private LinearLayout pages;
+    private NestedRadioSharedGroup sharedGroup;
+    private NestedLinearRadioGroup firstPage;
+    private NestedFrameRadioGroup secondPage;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        sharedGroup = NestedRadioSharedGroup.get(SHARED_GROUP_NAME);
+        pages = new LinearLayout(activity);
+        activity.setContentView(pages);
+        firstPage = addPage(new NestedLinearRadioGroup(activity), 1);
+        secondPage = addPage(new NestedFrameRadioGroup(activity), 10);
+    }
+
+    @After
+    public void tearDown() {
+        NestedRadioSharedGroup.remove(SHARED_GROUP_NAME);
+    }
+
+    @Test
+    public void get_returnsSameInstanceByName() {
+        //then
+        assertSame(sharedGroup, NestedRadioSharedGroup.get(SHARED_GROUP_NAME));
+    }
+
+    @Test
+    public void check_unchecksOtherPage() {
+        //given
+        firstPage.check(1);
+
+        //when
+        secondPage.check(10);
+
+        //then
+        assertFalse(button(1).isChecked());
+        assertTrue(button(10).isChecked());
+        assertEquals(10, firstPage.getCheckedRadioButtonId());
+        assertEquals(10, sharedGroup.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void removeView_keepsSelection() {
+        //given
+        secondPage.check(11);
+
+        //when
+        pages.removeView(secondPage);
+
+        //then
+        assertEquals(11, sharedGroup.getCheckedRadioButtonId());
+        assertEquals(11, firstPage.getCheckedRadioButtonId());
+    }
+
+    @Test
+    public void addView_restoresCheckedButton() {
+        //given
+        secondPage.check(11);
+        pages.removeView(secondPage);
+
+        //when
+        addPage(new NestedFrameRadioGroup(activity), 10);
+
+        //then
+        assertTrue(button(11).isChecked());
+        assertFalse(button(10).isChecked());
+    }
+
+    @Test
+    public void setSharedGroup_null_unbindsGroup() {
+        //given
+        NestedLinearRadioGroup page = new NestedLinearRadioGroup(activity);
+        page.setSharedGroup(sharedGroup);
+
+        //when
+        page.setSharedGroup(null);
+        page.check(20);
+
+        //then
+        assertEquals(20, page.getCheckedRadioButtonId());
+        assertEquals(-1, sharedGroup.getCheckedRadioButtonId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setSharedGroup_itself_throws() {
+        //when
+        sharedGroup.getNestedRadioGroupManager().setSharedGroup(sharedGroup);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setSharedGroup_afterRegistration_throws() {
+        //given
+        NestedLinearRadioGroup page = new NestedLinearRadioGroup(activity);
+        page.addView(new NestedRadioButton(activity));
+        pages.addView(page);
+
+        //when
+        page.setSharedGroup(sharedGroup);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setSharedGroup_null_afterRegistration_throws() {
+        //when
+        firstPage.setSharedGroup(null);
+    }
+
+    @Test
+    public void setSharedGroup_null_afterUnregistration() {
+        //given
+        pages.removeView(secondPage);
+
+        //when
+        secondPage.setSharedGroup(null);
+
+        //then
+        assertEquals(2, sharedGroup.getNestedRadioGroupManager().getNestedRadioButtonCount());
+        assertEquals(0, secondPage.getNestedRadioGroupManager().getNestedRadioButtonCount());
+    }
+
+    @Test
+    public void getSelection_returnsSharedSelection() {
+        //when
+        secondPage.check(11);
+
+        //then
+        assertEquals(11, NestedRadioGroupManager.getNestedRadioGroupManager(firstPage).getSelection().getCheckedId());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addOnCheckedChangeListener_boundGroup_throws() {
+        //when
+        firstPage.addOnCheckedChangeListener(mock(NestedRadioGroupManager.OnCheckedChangeListener.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setFilterText_boundGroup_throws() {
+        //when
+        firstPage.setFilterText("a");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setKeyNavigationEnabled_boundGroup_throws() {
+        //when
+        firstPage.setKeyNavigationEnabled(true);
+    }
+
+    @Test
+    public void removeOnCheckedChangeListener_releasesListener() {
+        //given
+        NestedRadioGroupManager.OnCheckedChangeListener listener = new NestedRadioGroupManager.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(NestedRadioGroupManager groupManager, int checkedId) {
+            }
+        };
+        WeakReference<NestedRadioGroupManager.OnCheckedChangeListener> listenerReference = new WeakReference<>(listener);
+        sharedGroup.addOnCheckedChangeListener(listener);
+
+        //when
+        sharedGroup.removeOnCheckedChangeListener(listener);
+        listener = null;
+        for (int i = 0; i < 5 && listenerReference.get() != null; i++) {
+            System.gc();
+        }
+
+        //then
+        assertNull(listenerReference.get());
+    }
+
+T page, int firstId) {
+        NestedRadioGroupManager.getNestedRadioGroupManager((NestedRadioGroupInterface) page).setSharedGroup(sharedGroup);
+        for (int i = 0; i < 2; i++) {
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(activity);
+            nestedRadioButton.setId(firstId + i);
+            page.addView(nestedRadioButton);
+        }
+        pages.addView(page);
+        return page;
+    }
+
+    private NestedRadioButton button(int id) {
+        return (NestedRadioButton) activity.findViewById(id);
+    }
+}
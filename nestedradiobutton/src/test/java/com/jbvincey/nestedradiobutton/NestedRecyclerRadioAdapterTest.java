@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 Jean-Baptiste VINCEY.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jbvincey.nestedradiobutton;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+public class NestedRecyclerRadioAdapterTest {
+
+    private static final int ROW_HEIGHT = 100;
+    private static final int VISIBLE_ROWS = 5;
+
+    private TestAdapter adapter;
+    private NestedRecyclerRadioAdapter.OnCheckedItemChangeListener listener;
+
+    @Before
+    public void setup() {
+        adapter = new TestAdapter();
+        listener = mock(NestedRecyclerRadioAdapter.OnCheckedItemChangeListener.class);
+        adapter.setOnCheckedItemChangeListener(listener);
+    }
+
+    @Test
+    public void check() {
+        //when
+        adapter.check(42L);
+        adapter.check(42L);
+
+        //then
+        assertEquals(42L, adapter.getCheckedItemId());
+        verify(listener, times(1)).onCheckedItemChanged(adapter, 42L);
+    }
+
+    @Test
+    public void clearCheck() {
+        //given
+        adapter.check(42L);
+
+        //when
+        adapter.clearCheck();
+
+        //then
+        assertEquals(RecyclerView.NO_ID, adapter.getCheckedItemId());
+        verify(listener).onCheckedItemChanged(adapter, RecyclerView.NO_ID);
+    }
+
+    @Test
+    public void onBindViewHolder_bindsCheckedStateFromModel() {
+        //given
+        adapter.check(7L);
+        TestViewHolder checkedHolder = adapter.onCreateViewHolder(null, 0);
+        TestViewHolder recycledHolder = adapter.onCreateViewHolder(null, 0);
+        recycledHolder.nestedRadioButton.setChecked(true);
+
+        //when
+        adapter.onBindViewHolder(checkedHolder, 7);
+        adapter.onBindViewHolder(recycledHolder, 8);
+
+        //then
+        assertTrue(checkedHolder.nestedRadioButton.isChecked());
+        assertFalse(recycledHolder.nestedRadioButton.isChecked());
+    }
+
+    @Test
+    public void onBindViewHolder_doesNotDispatch() {
+        //given
+        TestViewHolder holder = adapter.onCreateViewHolder(null, 0);
+
+        //when
+        adapter.onBindViewHolder(holder, 3);
+
+        //then
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void check_rebindsRowInViewCache() {
+        //given
+        NestedRecyclerRadioGroup recyclerView = new NestedRecyclerRadioGroup(RuntimeEnvironment.application);
+        recyclerView.setLayoutManager(new LinearLayoutManager(RuntimeEnvironment.application));
+        recyclerView.setAdapter(adapter);
+        layout(recyclerView);
+        adapter.check(4L);
+        layout(recyclerView);
+        // row 4 leaves the screen and is kept in the view cache
+        recyclerView.scrollBy(0, VISIBLE_ROWS * ROW_HEIGHT);
+        layout(recyclerView);
+
+        //when
+        adapter.check(6L);
+        layout(recyclerView);
+        recyclerView.scrollBy(0, -VISIBLE_ROWS * ROW_HEIGHT);
+        layout(recyclerView);
+
+        //then
+        assertFalse(getRowButton(recyclerView, 4).isChecked());
+        recyclerView.scrollBy(0, VISIBLE_ROWS * ROW_HEIGHT);
+        layout(recyclerView);
+        assertTrue(getRowButton(recyclerView, 6).isChecked());
+    }
+
+    private void layout(RecyclerView recyclerView) {
+        int size = VISIBLE_ROWS * ROW_HEIGHT;
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, size, size);
+    }
+
+    private NestedRadioButton getRowButton(RecyclerView recyclerView, int position) {
+        return ((TestViewHolder) recyclerView.findViewHolderForAdapterPosition(position)).nestedRadioButton;
+    }
+
+    private static class TestViewHolder extends RecyclerView.ViewHolder {
+        final NestedRadioButton nestedRadioButton;
+
+        TestViewHolder(NestedRadioButton nestedRadioButton) {
+            super(nestedRadioButton);
+            this.nestedRadioButton = nestedRadioButton;
+        }
+    }
+
+    private static class TestAdapter extends NestedRecyclerRadioAdapter<TestViewHolder> {
+
+        @Override
+        public long getItemId(int position) {
+            return position;
+        }
+
+        @NonNull
+        @Override
+        protected NestedRadioButton getNestedRadioButton(@NonNull TestViewHolder holder) {
+            return holder.nestedRadioButton;
+        }
+
+        @Override
+        protected void onBindNestedViewHolder(@NonNull TestViewHolder holder, int position) {
+        }
+
+        @NonNull
+        @Override
+        public TestViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            NestedRadioButton nestedRadioButton = new NestedRadioButton(RuntimeEnvironment.application);
+            nestedRadioButton.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+            return new TestViewHolder(nestedRadioButton);
+        }
+
+        @Override
+        public int getItemCount() {
+            return 10000;
+        }
+    }
+}